@@ -2,8 +2,10 @@ package com.github.anbeld.ForoHub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ForoHubApplication {
 
 	public static void main(String[] args) {
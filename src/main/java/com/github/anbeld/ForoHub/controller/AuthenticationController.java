@@ -1,18 +1,16 @@
 package com.github.anbeld.ForoHub.controller;
 
+import com.github.anbeld.ForoHub.domain.token.DatosInputRefreshToken;
 import com.github.anbeld.ForoHub.domain.usuario.DatosInputLoginUsuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioService;
 import com.github.anbeld.ForoHub.infra.security.DatosJWTToken;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping(path = "/api/login")
@@ -24,7 +22,6 @@ public class AuthenticationController {
 
     // Verifica la información para iniciar sesión
     @PostMapping
-    @Transactional
     @Operation(
             summary = "Login",
             description = "Verifica la información del usuario y le suministra un token de acceso para el resto de endpoint",
@@ -33,4 +30,27 @@ public class AuthenticationController {
         var response = service.login(datos);
         return ResponseEntity.ok(response);
     }
+
+    // Entrega un nuevo access token a cambio de un refresh token vigente
+    @PostMapping(path = "/refresh")
+    @Operation(
+            summary = "Refrescar Token",
+            description = "Entrega un nuevo token de acceso y un nuevo refresh token a cambio de un refresh token vigente",
+            tags = { "Autenticacion", "POST" })
+    public ResponseEntity<DatosJWTToken> refrescarToken(@RequestBody @Valid DatosInputRefreshToken datos) {
+        var response = service.refrescarToken(datos);
+        return ResponseEntity.ok(response);
+    }
+
+    // Cierra la sesión revocando el token de acceso en uso y el refresh token suministrado
+    @PostMapping(path = "/logout")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Logout",
+            description = "Revoca el token de acceso en uso y, si se suministra, el refresh token",
+            tags = { "Autenticacion", "POST" })
+    public ResponseEntity logout(@RequestHeader("Authorization") String authHeader, @RequestBody(required = false) DatosInputRefreshToken datos) {
+        service.logout(authHeader.substring(7), datos);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,23 +1,21 @@
 package com.github.anbeld.ForoHub.controller;
 
 import com.github.anbeld.ForoHub.domain.curso.*;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
-import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping(path = "/api/cursos")
@@ -28,16 +26,15 @@ public class CursoController {
     private CursoService service;
 
     // Registra un curso
-    @SneakyThrows
     @PostMapping
-    @Transactional
     @Operation(
             summary = "Registrar Curso",
             description = "Registra un nuevo curso en la base de datos",
             tags = { "Cursos", "POST" })
     public ResponseEntity<DatosOutputCurso> registrarCurso(@RequestBody @Valid DatosInputRegistrarCurso datos, UriComponentsBuilder uriComponentsBuilder){
-        var response = service.registrarCurso(datos, uriComponentsBuilder);
-        URI url = new URI(URLDecoder.decode(response.getUrl(), StandardCharsets.UTF_8));
+        var response = service.registrarCurso(datos);
+        // La url se construye a partir del id generado, sin guardarla en la base de datos
+        URI url = uriComponentsBuilder.path("/cursos/{id}").buildAndExpand(response.getId()).toUri();
         return ResponseEntity.created(url).body(new DatosOutputCurso(response));
     }
 
@@ -63,6 +60,17 @@ public class CursoController {
         return ResponseEntity.ok(response);
     }
 
+    // Obtiene el listado de cursos sin el COUNT de la paginación; total=true agrega el total aproximado en un header
+    @GetMapping(params = "count=false")
+    @Operation(
+            summary = "Obtener Listado de Cursos sin Conteo",
+            description = "Obtiene el listado de todos los cursos registrados que solo indica si existe una página siguiente",
+            tags = { "Cursos", "GET" })
+    public ResponseEntity<Slice<DatosOutputCurso>> obtenerListadoCursosSinConteo(@PageableDefault(page = 0, size = 10, sort = {"nombre"}) Pageable paginacion, @RequestParam(defaultValue = "false") boolean total){
+        var response = service.obtenerListadoCursosSinConteo(paginacion);
+        return TotalesAproximados.respuesta(response, total, () -> service.contarCursos());
+    }
+
     // Obtiene el listado de cursos registrados para el usuario
     // Si es docente, muestra todos los cursos que ha creado
     // Si es estudiante, muestra todos los cursos en lo que se encuentra registrado
@@ -76,4 +84,15 @@ public class CursoController {
         return ResponseEntity.ok(response);
     }
 
+    // Obtiene el listado de cursos registrados para el usuario sin el COUNT de la paginación
+    @GetMapping(path = "/{id}", params = "count=false")
+    @Operation(
+            summary = "Obtener Listado de Cursos por usuario sin Conteo",
+            description = "Obtiene el listado de cursos registrados por un usuario específico que solo indica si existe una página siguiente",
+            tags = { "Cursos", "GET" })
+    public ResponseEntity<Slice<DatosOutputCurso>> obtenerListadoCursosPorIdUsuarioSinConteo(@PageableDefault(page = 0, size = 10, sort = {"nombre"}) Pageable paginacion, @PathVariable Long id, @RequestParam(defaultValue = "false") boolean total){
+        var response = service.obtenerListadoCursosPorIdUsuarioSinConteo(paginacion, id);
+        return TotalesAproximados.respuesta(response, total, () -> service.contarCursosPorIdUsuario(id));
+    }
+
 }
@@ -1,23 +1,21 @@
 package com.github.anbeld.ForoHub.controller;
 
 import com.github.anbeld.ForoHub.domain.usuario.*;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
-import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping(path = "/api/estudiantes")
@@ -28,16 +26,15 @@ public class EstudianteController {
     private UsuarioService service;
 
     // Registra un estudiante
-    @SneakyThrows
     @PostMapping()
-    @Transactional
     @Operation(
             summary = "Registrar Estudiante",
             description = "Registra un nuevo estudiante en la base de datos",
             tags = {"Estudiantes", "POST"})
     public ResponseEntity<DatosOutputUsuario> registrarEstudiante(@RequestBody @Valid DatosInputRegistrarUsuario datos, UriComponentsBuilder uriComponentsBuilder) {
-        var response = service.registrarUsuario(datos, Perfil.ESTUDIANTE, uriComponentsBuilder);
-        URI url = new URI(URLDecoder.decode(response.getUrl(), StandardCharsets.UTF_8));
+        var response = service.registrarUsuario(datos, Perfil.ESTUDIANTE);
+        // La url se construye a partir del id generado, sin guardarla en la base de datos
+        URI url = uriComponentsBuilder.path("/estudiantes/{id}").buildAndExpand(response.getId()).toUri();
         return ResponseEntity.created(url).body(new DatosOutputUsuario(response));
     }
 
@@ -53,6 +50,18 @@ public class EstudianteController {
         return ResponseEntity.ok(response);
     }
 
+    // Obtiene el listado de estudiantes sin el COUNT de la paginación; total=true agrega el total aproximado en un header
+    @GetMapping(params = "count=false")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Listado de Estudiantes sin Conteo",
+            description = "Obtiene el listado de todos los estudiantes registrados que solo indica si existe una página siguiente",
+            tags = {"Estudiantes", "GET"})
+    public ResponseEntity<Slice<DatosOutputUsuario>> listadoEstudiantesRegistradosSinConteo(@PageableDefault(page = 0, size = 10, sort = {"userName"}) Pageable paginacion, @RequestParam(defaultValue = "false") boolean total) {
+        var response = service.listadoUsuariosActivosPorPerfilSinConteo(paginacion, Perfil.ESTUDIANTE);
+        return TotalesAproximados.respuesta(response, total, () -> service.contarUsuariosActivosPorPerfil(Perfil.ESTUDIANTE));
+    }
+
     // Obtiene el estudiante registrado con ese ID
     @GetMapping(path = "/{id}")
     @SecurityRequirement(name = "bearer-key")
@@ -68,7 +77,6 @@ public class EstudianteController {
     // Actualiza la contraseña del estudiante
     @PutMapping()
     @SecurityRequirement(name = "bearer-key")
-    @Transactional
     @Operation(
             summary = "Actualizar Contraseña de Estudiante",
             description = "Actualiza la contraseña de un estudiante",
@@ -81,7 +89,6 @@ public class EstudianteController {
     // Delete lógido de un estudiante
     @DeleteMapping(path = "/{id}")
     @SecurityRequirement(name = "bearer-key")
-    @Transactional
     @Operation(
             summary = "Eliminar Estudiante",
             description = "Elimina lógicamente un estudiante del sistema",
@@ -3,22 +3,26 @@ package com.github.anbeld.ForoHub.controller;
 import com.github.anbeld.ForoHub.domain.respuesta.DatosInputRespuesta;
 import com.github.anbeld.ForoHub.domain.respuesta.DatosOutputRespuesta;
 import com.github.anbeld.ForoHub.domain.respuesta.RespuestaService;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.DatosOutputPaginaCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping(path = "/api/respuestas")
@@ -29,16 +33,20 @@ public class RespuestaController {
     @Autowired
     private RespuestaService service;
 
+    // Versión de las respuestas de cada tópico para los GET condicionales
+    @Autowired
+    private VersionesRecursos versiones;
+
     // Registra una respuesta
-    @SneakyThrows
     @PostMapping
     @Operation(
             summary = "Registrar Respuesta",
             description = "Registra una nueva respuesta en la base de datos",
             tags = { "Respuestas", "POST" })
     public ResponseEntity<DatosOutputRespuesta> registrarRespuesta(@RequestBody @Valid DatosInputRespuesta datos, UriComponentsBuilder uriComponentsBuilder){
-        var response = service.registrarRespuesta(datos, uriComponentsBuilder);
-        URI url = new URI(URLDecoder.decode(response.getUrl(), StandardCharsets.UTF_8));
+        var response = service.registrarRespuesta(datos);
+        // La url se construye a partir del id generado, sin guardarla en la base de datos
+        URI url = uriComponentsBuilder.path("/respuestas/{id}").buildAndExpand(response.getId()).toUri();
         return ResponseEntity.created(url).body(new DatosOutputRespuesta(response));
     }
 
@@ -53,6 +61,17 @@ public class RespuestaController {
         return ResponseEntity.ok(response);
     }
 
+    // Obtiene un listado de respuestas con tópicos activos sin el COUNT de la paginación; total=true agrega el total aproximado en un header
+    @GetMapping(params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Respuestas Activas sin Conteo",
+            description = "Obtiene un listado de respuestas con tópicos activos que solo indica si existe una página siguiente",
+            tags = { "Respuestas", "GET" })
+    public ResponseEntity<Slice<DatosOutputRespuesta>> obtenerRespuestasPorTopicosActivosSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @RequestParam(defaultValue = "false") boolean total){
+        var response = service.obtenerRespuestasPorTopicosActivosSinConteo(paginacion);
+        return TotalesAproximados.respuesta(response, total, () -> service.contarRespuestasPorTopicosActivos());
+    }
+
     // Obtiene un listado de respuestas por autor_id
     @GetMapping(path = "/autor/{id}")
     @Operation(
@@ -64,14 +83,64 @@ public class RespuestaController {
         return ResponseEntity.ok(response);
     }
 
+    // Obtiene un listado de respuestas por autor_id sin el COUNT de la paginación
+    @GetMapping(path = "/autor/{id}", params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Respuestas por Autor sin Conteo",
+            description = "Obtiene un listado de respuestas por el ID del autor que solo indica si existe una página siguiente",
+            tags = { "Respuestas", "GET" })
+    public ResponseEntity<Slice<DatosOutputRespuesta>> obtenerRespuestasPorAutorIdSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable Long id, @RequestParam(defaultValue = "false") boolean total){
+        var response = service.obtenerRespuestasPorAutorIdSinConteo(paginacion, id);
+        return TotalesAproximados.respuesta(response, total, () -> service.contarRespuestasPorAutorId(id));
+    }
+
+    // Obtiene un listado de respuestas por autor_id y por cursor, un "after" vacío corresponde a la primera página
+    @GetMapping(path = "/autor/{id}", params = "after")
+    @Operation(
+            summary = "Obtener Respuestas por Autor por Cursor",
+            description = "Obtiene un listado de respuestas por el ID del autor a continuación del cursor after, sin importar la profundidad de la página. orden=desc parte de las más recientes",
+            tags = { "Respuestas", "GET" })
+    public ResponseEntity<DatosOutputPaginaCursor<DatosOutputRespuesta>> obtenerRespuestasPorAutorIdPorCursor(@RequestParam String after, @RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "asc") String orden, @PathVariable Long id){
+        var response = service.obtenerRespuestasPorAutorId(CursorPaginacion.decodificar(after), size, id, OrdenCursor.desde(orden));
+        return ResponseEntity.ok(response);
+    }
+
     // Obtiene un listado de respuestas por topico_id
     @GetMapping(path = "/topico/{id}")
     @Operation(
             summary = "Obtener Respuestas por Tópico",
             description = "Obtiene un listado de respuestas por el ID del tópico",
             tags = { "Respuestas", "GET" })
-    public ResponseEntity<Page<DatosOutputRespuesta>> obtenerRespuestasPorTopicoId(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable Long id){
-        var response = service.obtenerRespuestasPorTopicoId(paginacion, id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Page<DatosOutputRespuesta>> obtenerRespuestasPorTopicoId(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable Long id, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.respuestasPorTopico(id), () -> {
+            var response = service.obtenerRespuestasPorTopicoId(paginacion, id);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // Obtiene un listado de respuestas por topico_id sin el COUNT de la paginación
+    @GetMapping(path = "/topico/{id}", params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Respuestas por Tópico sin Conteo",
+            description = "Obtiene un listado de respuestas por el ID del tópico que solo indica si existe una página siguiente",
+            tags = { "Respuestas", "GET" })
+    public ResponseEntity<Slice<DatosOutputRespuesta>> obtenerRespuestasPorTopicoIdSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable Long id, @RequestParam(defaultValue = "false") boolean total, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.respuestasPorTopico(id), () -> {
+            var response = service.obtenerRespuestasPorTopicoIdSinConteo(paginacion, id);
+            return TotalesAproximados.respuesta(response, total, () -> service.contarRespuestasPorTopicoId(id));
+        });
+    }
+
+    // Obtiene un listado de respuestas por topico_id y por cursor, un "after" vacío corresponde a la primera página
+    @GetMapping(path = "/topico/{id}", params = "after")
+    @Operation(
+            summary = "Obtener Respuestas por Tópico por Cursor",
+            description = "Obtiene un listado de respuestas por el ID del tópico a continuación del cursor after, sin importar la profundidad de la página. orden=desc parte de las más recientes",
+            tags = { "Respuestas", "GET" })
+    public ResponseEntity<DatosOutputPaginaCursor<DatosOutputRespuesta>> obtenerRespuestasPorTopicoIdPorCursor(@RequestParam String after, @RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "asc") String orden, @PathVariable Long id, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.respuestasPorTopico(id), () -> {
+            var response = service.obtenerRespuestasPorTopicoId(CursorPaginacion.decodificar(after), size, id, OrdenCursor.desde(orden));
+            return ResponseEntity.ok(response);
+        });
     }
 }
@@ -1,23 +1,31 @@
 package com.github.anbeld.ForoHub.controller;
+import com.github.anbeld.ForoHub.domain.topico.DatosInputCerrarTopicos;
 import com.github.anbeld.ForoHub.domain.topico.DatosInputTopico;
+import com.github.anbeld.ForoHub.domain.topico.DatosOutputCierreTopico;
 import com.github.anbeld.ForoHub.domain.topico.DatosOutputTopico;
 import com.github.anbeld.ForoHub.domain.topico.TopicoService;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.DatosOutputPaginaCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
+import com.github.anbeld.ForoHub.infra.security.ContextoAutenticacionHolder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/api/topicos")
@@ -28,16 +36,20 @@ public class TopicoController {
     @Autowired
     private TopicoService service;
 
+    // Los listados de tópicos comparten una versión: responden 304 sin consultar la base de datos mientras no cambie
+    @Autowired
+    private VersionesRecursos versiones;
+
     // Registra un tópico
-    @SneakyThrows
     @PostMapping
     @Operation(
             summary = "Registrar Tópico",
             description = "Registra un nuevo tópico en la base de datos",
             tags = { "Topicos", "POST" })
     public ResponseEntity<DatosOutputTopico> registrarTopico(@RequestBody @Valid DatosInputTopico datos, UriComponentsBuilder uriComponentsBuilder){
-        var response = service.registrarTopico(datos, uriComponentsBuilder);
-        URI url = new URI(URLDecoder.decode(response.getUrl(), StandardCharsets.UTF_8));
+        var response = service.registrarTopico(datos);
+        // La url se construye a partir del id generado, sin guardarla en la base de datos
+        URI url = uriComponentsBuilder.path("/topicos/{id}").buildAndExpand(response.getId()).toUri();
         return ResponseEntity.created(url).body(new DatosOutputTopico(response));
     }
 
@@ -47,9 +59,37 @@ public class TopicoController {
             summary = "Obtener Tópicos Activos",
             description = "Obtiene un listado de tópicos activos",
             tags = { "Topicos", "GET" })
-    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicosActivos(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion){
-        var response = service.obtenerTopicosActivos(paginacion);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicosActivos(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosActivos(paginacion);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // Obtiene el listado de tópicos activos sin el COUNT de la paginación; total=true agrega el total aproximado en un header
+    @GetMapping(params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Tópicos Activos sin Conteo",
+            description = "Obtiene un listado de tópicos activos que solo indica si existe una página siguiente",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<Slice<DatosOutputTopico>> obtenerTopicosActivosSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @RequestParam(defaultValue = "false") boolean total, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosPorStatusSinConteo(paginacion, false);
+            return TotalesAproximados.respuesta(response, total, () -> service.contarTopicosPorStatus(false));
+        });
+    }
+
+    // Obtiene el listado de tópicos activos por cursor, un "after" vacío corresponde a la primera página
+    @GetMapping(params = "after")
+    @Operation(
+            summary = "Obtener Tópicos Activos por Cursor",
+            description = "Obtiene un listado de tópicos activos a continuación del cursor after, sin importar la profundidad de la página. orden=desc parte de los más recientes",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<DatosOutputPaginaCursor<DatosOutputTopico>> obtenerTopicosActivosPorCursor(@RequestParam String after, @RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "asc") String orden, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosPorStatus(CursorPaginacion.decodificar(after), size, false, OrdenCursor.desde(orden));
+            return ResponseEntity.ok(response);
+        });
     }
 
     // Obtiene el listado de tópicos registrados por status
@@ -58,9 +98,37 @@ public class TopicoController {
             summary = "Obtener Tópicos por Estado",
             description = "Obtiene un listado de tópicos por su estado (activo o inactivo)",
             tags = { "Topicos", "GET" })
-    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicosPorStatus(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable boolean status){
-        var response = service.obtenerTopicosPorStatus(paginacion, status);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicosPorStatus(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable boolean status, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosPorStatus(paginacion, status);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // Obtiene el listado de tópicos registrados por status sin el COUNT de la paginación
+    @GetMapping(path = "/{status}", params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Tópicos por Estado sin Conteo",
+            description = "Obtiene un listado de tópicos por su estado (activo o inactivo) que solo indica si existe una página siguiente",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<Slice<DatosOutputTopico>> obtenerTopicosPorStatusSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @PathVariable boolean status, @RequestParam(defaultValue = "false") boolean total, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosPorStatusSinConteo(paginacion, status);
+            return TotalesAproximados.respuesta(response, total, () -> service.contarTopicosPorStatus(status));
+        });
+    }
+
+    // Obtiene el listado de tópicos registrados por status y por cursor
+    @GetMapping(path = "/{status}", params = "after")
+    @Operation(
+            summary = "Obtener Tópicos por Estado por Cursor",
+            description = "Obtiene un listado de tópicos por su estado (activo o inactivo) a continuación del cursor after. orden=desc parte de los más recientes",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<DatosOutputPaginaCursor<DatosOutputTopico>> obtenerTopicosPorStatusPorCursor(@RequestParam String after, @RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "asc") String orden, @PathVariable boolean status, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosPorStatus(CursorPaginacion.decodificar(after), size, status, OrdenCursor.desde(orden));
+            return ResponseEntity.ok(response);
+        });
     }
 
     // Obtiene el listado de tópicos
@@ -69,9 +137,37 @@ public class TopicoController {
             summary = "Obtener Todos los Tópicos",
             description = "Obtiene un listado de todos los tópicos registrados",
             tags = { "Topicos", "GET" })
-    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicos(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion){
-        var response = service.obtenerTopicos(paginacion);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Page<DatosOutputTopico>> obtenerTopicos(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicos(paginacion);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // Obtiene el listado de tópicos sin el COUNT de la paginación
+    @GetMapping(path = "/all", params = {"count=false", "!after"})
+    @Operation(
+            summary = "Obtener Todos los Tópicos sin Conteo",
+            description = "Obtiene un listado de todos los tópicos registrados que solo indica si existe una página siguiente",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<Slice<DatosOutputTopico>> obtenerTopicosSinConteo(@PageableDefault(page = 0, size = 10, sort = {"fechaCreacion"}) Pageable paginacion, @RequestParam(defaultValue = "false") boolean total, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicosSinConteo(paginacion);
+            return TotalesAproximados.respuesta(response, total, () -> service.contarTopicos());
+        });
+    }
+
+    // Obtiene el listado de tópicos por cursor
+    @GetMapping(path = "/all", params = "after")
+    @Operation(
+            summary = "Obtener Todos los Tópicos por Cursor",
+            description = "Obtiene un listado de todos los tópicos registrados a continuación del cursor after. orden=desc parte de los más recientes",
+            tags = { "Topicos", "GET" })
+    public ResponseEntity<DatosOutputPaginaCursor<DatosOutputTopico>> obtenerTopicosPorCursor(@RequestParam String after, @RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "asc") String orden, WebRequest request){
+        return versiones.respuesta(request, VersionesRecursos.TOPICOS, () -> {
+            var response = service.obtenerTopicos(CursorPaginacion.decodificar(after), size, OrdenCursor.desde(orden));
+            return ResponseEntity.ok(response);
+        });
     }
 
     // Delete lógico de un tópico
@@ -84,4 +180,14 @@ public class TopicoController {
         service.cerrarTopico(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Delete lógico de varios tópicos por ids o por filtro (curso_id, creados_antes_de)
+    @PostMapping(path = "/cerrar")
+    @Operation(
+            summary = "Cerrar Tópicos",
+            description = "Cierra por lotes los tópicos indicados por ids o por filtro y retorna el resultado de cada tópico. Solo para el docente de cada curso",
+            tags = { "Topicos", "POST" })
+    public ResponseEntity<List<DatosOutputCierreTopico>> cerrarTopicos(@RequestBody @Valid DatosInputCerrarTopicos datos){
+        return ResponseEntity.ok(service.cerrarTopicos(datos, ContextoAutenticacionHolder.actual().userId()));
+    }
 }
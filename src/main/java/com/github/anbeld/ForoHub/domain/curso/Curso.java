@@ -1,14 +1,19 @@
 package com.github.anbeld.ForoHub.domain.curso;
 
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.infra.cache.CacheSegundoNivelConfiguration;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Table(name = "cursos")
 @Entity(name = "Curso")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfiguration.REGION_CURSOS)
 @Getter
 @Builder
 @NoArgsConstructor
@@ -30,20 +35,18 @@ public class Curso {
     @Column(name = "numero_estudiantes")
     private Integer numeroEstudiantes;
 
-    @Setter
-    private String url;
-
     @ManyToOne
     @JoinColumn(name = "docente_id")
     private Usuario docente;
 
+    // Set en lugar de List: Hibernate actualiza solo la fila afectada de cursos_estudiantes en vez de borrar y reinsertar todas
     @ManyToMany()
     @JoinTable(
             name = "cursos_estudiantes",
             joinColumns = @JoinColumn(name = "curso_id"),
             inverseJoinColumns = @JoinColumn(name = "estudiante_id")
     )
-    private List<Usuario> estudiantes = new ArrayList<>();
+    private Set<Usuario> estudiantes = new HashSet<>();
 
     public Curso(DatosInputRegistrarCurso datos, Usuario docente) {
         this.nombre =  datos.nombre();
@@ -52,10 +55,4 @@ public class Curso {
         this.docente = docente;
         docente.getCursosDocente().add(this);
     }
-
-    public void registrarEstudiante(Usuario estudiante){
-        this.numeroEstudiantes += 1;
-        this.estudiantes.add(estudiante);
-        estudiante.getCursosEstudiante().add(this);
-    }
 }
\ No newline at end of file
@@ -1,25 +1,82 @@
 package com.github.anbeld.ForoHub.domain.curso;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
 
-    @Query(value = "SELECT c FROM Curso c WHERE c.docente.id=:id")
-    Page<Curso> obtenerCursosPorIdDocente(Pageable paginacion, Long id);
+    // Los listados se proyectan directamente al DTO, el nombre del docente se obtiene con un join en la misma consulta
+    String DATOS_OUTPUT_CURSO = "SELECT new com.github.anbeld.ForoHub.domain.curso.DatosOutputCurso(" +
+            "c.id, c.nombre, c.categoria, d.userName, c.numeroEstudiantes) FROM Curso c JOIN c.docente d";
 
-    @Query(value = "SELECT c FROM Curso c JOIN c.estudiantes e WHERE e.id=:id")
-    Page<Curso> obtenerCursosPorIdEstudiante(Pageable paginacion, Long id);
+    String CONTEO_CURSOS_POR_ID_DOCENTE = "SELECT COUNT(c) FROM Curso c WHERE c.docente.id=:id";
 
-    @Query(value = "SELECT c FROM Curso c WHERE c.id=:id")
-    Optional<Curso> obtenerCursoPorId(Long id);
+    String CONTEO_CURSOS_POR_ID_ESTUDIANTE = "SELECT COUNT(c) FROM Curso c JOIN c.estudiantes e WHERE e.id=:id";
+
+    @Query(value = DATOS_OUTPUT_CURSO, countQuery = "SELECT COUNT(c) FROM Curso c")
+    Page<DatosOutputCurso> obtenerCursos(Pageable paginacion);
+
+    @Query(value = DATOS_OUTPUT_CURSO + " WHERE d.id=:id",
+            countQuery = CONTEO_CURSOS_POR_ID_DOCENTE)
+    Page<DatosOutputCurso> obtenerCursosPorIdDocente(Pageable paginacion, Long id);
+
+    @Query(value = DATOS_OUTPUT_CURSO + " JOIN c.estudiantes e WHERE e.id=:id",
+            countQuery = CONTEO_CURSOS_POR_ID_ESTUDIANTE)
+    Page<DatosOutputCurso> obtenerCursosPorIdEstudiante(Pageable paginacion, Long id);
+
+    // Listados sin COUNT: Slice pide un elemento extra solo para saber si existe una página siguiente
+    @Query(value = DATOS_OUTPUT_CURSO)
+    Slice<DatosOutputCurso> obtenerCursosSinConteo(Pageable paginacion);
+
+    @Query(value = DATOS_OUTPUT_CURSO + " WHERE d.id=:id")
+    Slice<DatosOutputCurso> obtenerCursosPorIdDocenteSinConteo(Pageable paginacion, Long id);
+
+    @Query(value = DATOS_OUTPUT_CURSO + " JOIN c.estudiantes e WHERE e.id=:id")
+    Slice<DatosOutputCurso> obtenerCursosPorIdEstudianteSinConteo(Pageable paginacion, Long id);
+
+    @Query(value = CONTEO_CURSOS_POR_ID_DOCENTE)
+    long contarCursosPorIdDocente(Long id);
+
+    @Query(value = CONTEO_CURSOS_POR_ID_ESTUDIANTE)
+    long contarCursosPorIdEstudiante(Long id);
+
+    // Búsqueda por id en lugar de una consulta JPQL, así el curso se obtiene de la cache de segundo nivel cuando está disponible
+    default Optional<Curso> obtenerCursoPorId(Long id) {
+        return findById(id);
+    }
 
     Optional<Curso> findByNombre(String nombre);
+
+    @Query(value = "SELECT c.id FROM Curso c WHERE c.docente.id=:docenteId ORDER BY c.id")
+    List<Long> obtenerIdsCursosPorDocente(Long docenteId);
+
+    // Inscribe un estudiante con un solo INSERT, sin cargar la lista de estudiantes del curso
+    // Una inscripción repetida viola la llave primaria (curso_id, estudiante_id) y lanza DataIntegrityViolationException
+    // La tabla afectada se declara para que Hibernate no vacíe todas las regiones de la cache de segundo nivel
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cursos_estudiantes"))
+    @Query(value = "INSERT INTO cursos_estudiantes (curso_id, estudiante_id) VALUES (:cursoId, :estudianteId)", nativeQuery = true)
+    int registrarEstudiante(Long cursoId, Long estudianteId);
+
+    // Incrementa el contador en la base de datos: dos inscripciones concurrentes no pueden leer el mismo valor y perder una actualización
+    // Al ser un UPDATE masivo, Hibernate invalida la región de cursos de la cache de segundo nivel al confirmar la transacción
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE Curso c SET c.numeroEstudiantes = c.numeroEstudiantes + 1 WHERE c.id=:id")
+    int sumarEstudiante(Long id);
 }
 
@@ -4,18 +4,20 @@ import com.github.anbeld.ForoHub.domain.usuario.Perfil;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class CursoService {
 
     @Autowired
@@ -24,10 +26,14 @@ public class CursoService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private TotalesAproximados totalesAproximados;
+
     // Registrar un curso
-    public Curso registrarCurso(DatosInputRegistrarCurso datos, UriComponentsBuilder uriComponentsBuilder) {
+    @Transactional
+    public Curso registrarCurso(DatosInputRegistrarCurso datos) {
         // Revisa si existe un docente que cumpla las condiciones en la base de datos
-        Optional<Usuario> docenteVerificado = usuarioRepository.obtenerUsuarioPorIdYPerfil(datos.docente_id(), Perfil.DOCENTE);
+        Optional<Usuario> docenteVerificado = usuarioRepository.verificarUsuarioPorIdYPerfil(datos.docente_id(), Perfil.DOCENTE);
 
         if (docenteVerificado.isPresent()) {
             // Revisa si existe un curso inscrito que ya tenga el nombre ingresado
@@ -36,17 +42,7 @@ public class CursoService {
             // Crea y guarda el nuevo curso en la base de datos
             if (cursoRegistrado.isEmpty()) {
                 Curso nuevoCurso = new Curso(datos, docenteVerificado.get());
-                cursoRepository.save(nuevoCurso);
-
-                // Crea la url en base al id del curso
-                URI url = uriComponentsBuilder.path("/cursos/{id}")
-                        .buildAndExpand(nuevoCurso.getId()).toUri();
-
-                // Codifica la URL antes de guardarla
-                String urlEncoded = URLEncoder.encode(String.valueOf(url), StandardCharsets.UTF_8);
-                nuevoCurso.setUrl(urlEncoded);
-
-                cursoRepository.save(nuevoCurso); // Agrega la url del nuevo curso en la base de datos
+                cursoRepository.save(nuevoCurso); // Un solo INSERT, la url se construye a partir del id al responder
                 return nuevoCurso;
 
             } else {
@@ -58,17 +54,27 @@ public class CursoService {
     }
 
     // Registrar un estudiante a un curso
+    @Transactional
     public DatosOutputRegistrarEstudianteCurso registrarEstudiante(DatosInputRegistrarEstudianteCurso datos) {
         // Verifica si el usuario ingresado es un estudiante
-        Optional<Usuario> estudianteRegistrado = usuarioRepository.obtenerUsuarioPorIdYPerfil(datos.estudiante_id(), Perfil.ESTUDIANTE);
+        Optional<Usuario> estudianteRegistrado = usuarioRepository.verificarUsuarioPorIdYPerfil(datos.estudiante_id(), Perfil.ESTUDIANTE);
 
         if (estudianteRegistrado.isPresent()) {
             Optional<Curso> cursoRegistrado = cursoRepository.obtenerCursoPorId(datos.curso_id());
             // Si el usuario es estudiante y el curso suministrado se encuentra registrado, registra el curso al estudiante
             if (cursoRegistrado.isPresent()) {
-                // Registra el estudiante y actualiza la base de datos
-                cursoRegistrado.get().registrarEstudiante(estudianteRegistrado.get());
-                cursoRepository.save(cursoRegistrado.get());
+                // El contador se incrementa con un UPDATE atómico en lugar de guardar el valor calculado en memoria
+                // Va antes del INSERT: el bloqueo de la fila del curso ordena las inscripciones concurrentes y evita un deadlock
+                // con el bloqueo compartido que toma la llave foránea de cursos_estudiantes
+                cursoRepository.sumarEstudiante(cursoRegistrado.get().getId());
+
+                // Inserta solo la fila de la inscripción; el costo no depende del número de estudiantes del curso
+                try {
+                    cursoRepository.registrarEstudiante(cursoRegistrado.get().getId(), estudianteRegistrado.get().getId());
+                } catch (DataIntegrityViolationException e) {
+                    // La excepción revierte la transacción, incluido el incremento del contador
+                    throw new ValidacionDeIntegridad("El estudiante ya se encuentra registrado en el curso");
+                }
                 return new DatosOutputRegistrarEstudianteCurso(estudianteRegistrado.get(), cursoRegistrado.get());
             } else {
                 throw new ValidacionDeIntegridad("Ingrese un curso válido");
@@ -80,22 +86,49 @@ public class CursoService {
 
     // Obtener listado de todos los cursos
     public Page<DatosOutputCurso> obtenerListadoCursos(Pageable paginacion) {
-        return cursoRepository.findAll(paginacion).map(DatosOutputCurso::new);
+        return cursoRepository.obtenerCursos(paginacion);
     }
 
     // Obtener listado de cursos por id y autor
     public Page<DatosOutputCurso> obtenerListadoCursosPorIdUsuario(Pageable paginacion, Long id) {
-
-        Usuario usuario = usuarioRepository.getReferenceById(id);
         // Si es docente, muestra todos los cursos que ha creado
-        if (usuario.getUserRole() == Perfil.DOCENTE) {
-            Page<Curso> cursos = cursoRepository.obtenerCursosPorIdDocente(paginacion, id);
-            return cursos.map(DatosOutputCurso::new);
+        if (obtenerPerfil(id) == Perfil.DOCENTE) {
+            return cursoRepository.obtenerCursosPorIdDocente(paginacion, id);
 
         // Si es estudiante, muestra todos los cursos en lo que se encuentra registrado
         } else {
-            Page<Curso> cursos = cursoRepository.obtenerCursosPorIdEstudiante(paginacion, id);
-            return cursos.map(DatosOutputCurso::new);
+            return cursoRepository.obtenerCursosPorIdEstudiante(paginacion, id);
+        }
+    }
+
+    // Obtener listado de todos los cursos, sin ejecutar el COUNT
+    public Slice<DatosOutputCurso> obtenerListadoCursosSinConteo(Pageable paginacion) {
+        return cursoRepository.obtenerCursosSinConteo(paginacion);
+    }
+
+    // Obtener listado de cursos por id de usuario, sin ejecutar el COUNT
+    public Slice<DatosOutputCurso> obtenerListadoCursosPorIdUsuarioSinConteo(Pageable paginacion, Long id) {
+        if (obtenerPerfil(id) == Perfil.DOCENTE) {
+            return cursoRepository.obtenerCursosPorIdDocenteSinConteo(paginacion, id);
+        } else {
+            return cursoRepository.obtenerCursosPorIdEstudianteSinConteo(paginacion, id);
         }
     }
+
+    // Total aproximado de cursos
+    public long contarCursos() {
+        return totalesAproximados.total("cursos", cursoRepository::count);
+    }
+
+    // Total aproximado de cursos por id de usuario
+    public long contarCursosPorIdUsuario(Long id) {
+        return totalesAproximados.total("cursos.usuario." + id, () -> obtenerPerfil(id) == Perfil.DOCENTE
+                ? cursoRepository.contarCursosPorIdDocente(id)
+                : cursoRepository.contarCursosPorIdEstudiante(id));
+    }
+
+    // Solo se consulta el perfil del usuario, sin cargar la entidad
+    private Perfil obtenerPerfil(Long id) {
+        return usuarioRepository.obtenerPerfilPorId(id).orElseThrow(EntityNotFoundException::new);
+    }
 }
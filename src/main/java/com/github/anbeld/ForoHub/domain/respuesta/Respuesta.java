@@ -33,14 +33,12 @@ public class Respuesta {
 
     private String respuesta;
 
-    @Setter
-    private String url;
-
     public Respuesta(String respuesta, Usuario autor, Topico topico) {
         this.topico = topico;
         this.fechaCreacion = LocalDateTime.now();
         this.autor = autor;
         this.respuesta = respuesta;
-        topico.getRespuestas().add(this);
+        // No se agrega a topico.getRespuestas(): inicializar la colección cargaría todas las respuestas del tópico
+        // La relación la mantiene topico_id, la colección se lee desde la base de datos cuando se necesita
     }
 }
@@ -1,22 +1,91 @@
 package com.github.anbeld.ForoHub.domain.respuesta;
 
-import com.github.anbeld.ForoHub.domain.topico.Topico;
-import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
 
-    @Query(value = "SELECT r FROM Respuesta r JOIN r.topico t WHERE t.resuelto=false")
-    Page<Respuesta> obtenerRespuestasPorTopicosActivos(Pageable paginacion);
+    // Los listados se proyectan directamente al DTO: tópico, curso y autor se obtienen con joins en la misma consulta,
+    // sin cargar las entidades ni ejecutar una consulta adicional por fila
+    String DATOS_OUTPUT_RESPUESTA = "SELECT new com.github.anbeld.ForoHub.domain.respuesta.DatosOutputRespuesta(" +
+            "r.id, t.titulo, t.curso.nombre, r.autor.userName, r.fechaCreacion, r.respuesta) FROM Respuesta r JOIN r.topico t";
+
+    String CONTEO_RESPUESTAS_POR_TOPICOS_ACTIVOS = "SELECT COUNT(r) FROM Respuesta r JOIN r.topico t WHERE t.resuelto=false";
+
+    String CONTEO_RESPUESTAS_POR_AUTOR = "SELECT COUNT(r) FROM Respuesta r WHERE r.autor.id=:autorId";
+
+    String CONTEO_RESPUESTAS_POR_TOPICO = "SELECT COUNT(r) FROM Respuesta r WHERE r.topico.id=:topicoId";
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE t.resuelto=false",
+            countQuery = CONTEO_RESPUESTAS_POR_TOPICOS_ACTIVOS)
+    Page<DatosOutputRespuesta> obtenerRespuestasPorTopicosActivos(Pageable paginacion);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId",
+            countQuery = CONTEO_RESPUESTAS_POR_AUTOR)
+    Page<DatosOutputRespuesta> obtenerRespuestasPorAutor(Pageable paginacion, Long autorId);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId",
+            countQuery = CONTEO_RESPUESTAS_POR_TOPICO)
+    Page<DatosOutputRespuesta> obtenerRespuestasPorTopico(Pageable paginacion, Long topicoId);
+
+    // Listados sin COUNT: Slice pide un elemento extra solo para saber si existe una página siguiente
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE t.resuelto=false")
+    Slice<DatosOutputRespuesta> obtenerRespuestasPorTopicosActivosSinConteo(Pageable paginacion);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId")
+    Slice<DatosOutputRespuesta> obtenerRespuestasPorAutorSinConteo(Pageable paginacion, Long autorId);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId")
+    Slice<DatosOutputRespuesta> obtenerRespuestasPorTopicoSinConteo(Pageable paginacion, Long topicoId);
+
+    @Query(value = CONTEO_RESPUESTAS_POR_TOPICOS_ACTIVOS)
+    long contarRespuestasPorTopicosActivos();
+
+    @Query(value = CONTEO_RESPUESTAS_POR_AUTOR)
+    long contarRespuestasPorAutor(Long autorId);
+
+    @Query(value = CONTEO_RESPUESTAS_POR_TOPICO)
+    long contarRespuestasPorTopico(Long topicoId);
+
+    // Paginación por cursor sobre (fechaCreacion, id), sin COUNT; el Pageable solo limita el número de filas
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId ORDER BY r.fechaCreacion, r.id")
+    List<DatosOutputRespuesta> obtenerPrimerasRespuestasPorTopico(Long topicoId, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId AND " +
+            "(r.fechaCreacion > :fechaCreacion OR (r.fechaCreacion = :fechaCreacion AND r.id > :id)) " +
+            "ORDER BY r.fechaCreacion, r.id")
+    List<DatosOutputRespuesta> obtenerRespuestasPorTopicoDespuesDe(Long topicoId, LocalDateTime fechaCreacion, Long id, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId ORDER BY r.fechaCreacion, r.id")
+    List<DatosOutputRespuesta> obtenerPrimerasRespuestasPorAutor(Long autorId, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId AND " +
+            "(r.fechaCreacion > :fechaCreacion OR (r.fechaCreacion = :fechaCreacion AND r.id > :id)) " +
+            "ORDER BY r.fechaCreacion, r.id")
+    List<DatosOutputRespuesta> obtenerRespuestasPorAutorDespuesDe(Long autorId, LocalDateTime fechaCreacion, Long id, Pageable limite);
+
+    // Paginación por cursor en orden descendente, desde las respuestas más recientes
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<DatosOutputRespuesta> obtenerUltimasRespuestasPorTopico(Long topicoId, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.topico.id=:topicoId AND " +
+            "(r.fechaCreacion < :fechaCreacion OR (r.fechaCreacion = :fechaCreacion AND r.id < :id)) " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<DatosOutputRespuesta> obtenerRespuestasPorTopicoAntesDe(Long topicoId, LocalDateTime fechaCreacion, Long id, Pageable limite);
 
-    @Query(value = "SELECT r FROM Respuesta r WHERE r.autor=:autor")
-    Page<Respuesta> obtenerRespuestasPorAutor(Pageable paginacion, Usuario autor);
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<DatosOutputRespuesta> obtenerUltimasRespuestasPorAutor(Long autorId, Pageable limite);
 
-    @Query(value = "SELECT r FROM Respuesta r WHERE r.topico=:topico")
-    Page<Respuesta> obtenerRespuestasPorTopico(Pageable paginacion, Topico topico);
+    @Query(value = DATOS_OUTPUT_RESPUESTA + " WHERE r.autor.id=:autorId AND " +
+            "(r.fechaCreacion < :fechaCreacion OR (r.fechaCreacion = :fechaCreacion AND r.id < :id)) " +
+            "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<DatosOutputRespuesta> obtenerRespuestasPorAutorAntesDe(Long autorId, LocalDateTime fechaCreacion, Long id, Pageable limite);
 }
@@ -4,19 +4,26 @@ import com.github.anbeld.ForoHub.domain.topico.Topico;
 import com.github.anbeld.ForoHub.domain.topico.TopicoRepository;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.DatosOutputPaginaCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+// Listados en transacciones de solo lectura; el registro de una respuesta abre una transacción de escritura
 @Service
+@Transactional(readOnly = true)
 public class RespuestaService {
 
     @Autowired
@@ -28,8 +35,15 @@ public class RespuestaService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private TotalesAproximados totalesAproximados;
+
+    @Autowired
+    private VersionesRecursos versiones;
+
     // Registrar una nueva respuesta
-    public Respuesta registrarRespuesta(DatosInputRespuesta datos, UriComponentsBuilder uriComponentsBuilder) {
+    @Transactional
+    public Respuesta registrarRespuesta(DatosInputRespuesta datos) {
         // Revisa si existe un usuario que registrado con ese id en la base de datos
         Optional<Usuario> usuarioRegistrado = usuarioRepository.findById(datos.autor_id());
 
@@ -40,17 +54,8 @@ public class RespuestaService {
             // Crea y guarda la nueva respuesta en la base de datos
             if (topicoRegistrado.isPresent()) {
                 Respuesta nuevaRespuesta = new Respuesta(datos.respuesta(), usuarioRegistrado.get(), topicoRegistrado.get());
-                respuestaRepository.save(nuevaRespuesta);
-
-                // Crea la url en base al id de la respuesta
-                URI url = uriComponentsBuilder.path("/respuestas/{id}")
-                        .buildAndExpand(nuevaRespuesta.getId()).toUri();
-
-                // Codifica la URL antes de guardarla
-                String urlEncoded = URLEncoder.encode(String.valueOf(url), StandardCharsets.UTF_8);
-                nuevaRespuesta.setUrl(urlEncoded);
-
-                respuestaRepository.save(nuevaRespuesta); // Agrega la url de la nueva respuesta en la base de datos
+                respuestaRepository.save(nuevaRespuesta); // Un solo INSERT, la url se construye a partir del id al responder
+                versiones.actualizar(VersionesRecursos.respuestasPorTopico(datos.topico_id()));
                 return nuevaRespuesta;
 
             } else {
@@ -63,30 +68,108 @@ public class RespuestaService {
 
     // Obtener un listado de respuestas con tópicos activos
     public Page<DatosOutputRespuesta> obtenerRespuestasPorTopicosActivos(Pageable paginacion) {
-        return respuestaRepository.obtenerRespuestasPorTopicosActivos(paginacion).map(DatosOutputRespuesta::new);
+        return respuestaRepository.obtenerRespuestasPorTopicosActivos(paginacion);
     }
 
     // Obtener un listado de respuestas por autor_id
     public Page<DatosOutputRespuesta> obtenerRespuestasPorAutorId(Pageable paginacion, Long id) {
-        // Revisa si existe un usuario que registrado con ese id en la base de datos
-        Optional<Usuario> usuarioRegitrado = usuarioRepository.findById(id);
-
-        if (usuarioRegitrado.isPresent()) {
-            return respuestaRepository.obtenerRespuestasPorAutor(paginacion, usuarioRegitrado.get()).map(DatosOutputRespuesta::new);
-        } else {
+        var respuestas = respuestaRepository.obtenerRespuestasPorAutor(paginacion, id);
+        // Solo una página vacía requiere revisar si existe un usuario registrado con ese id en la base de datos
+        if (respuestas.isEmpty() && !usuarioRepository.existsById(id)) {
             throw new ValidacionDeIntegridad("El usuario ingresado no es válido");
         }
+        return respuestas;
     }
 
     // Obtener un listado de respuestas por topico_id
     public Page<DatosOutputRespuesta> obtenerRespuestasPorTopicoId(Pageable paginacion, Long id) {
-        // Revisa si existe un usuario que registrado con ese id en la base de datos
-        Optional<Topico> topicoRegitrado = topicoRepository.findById(id);
+        var respuestas = respuestaRepository.obtenerRespuestasPorTopico(paginacion, id);
+        // Solo una página vacía requiere revisar si existe un tópico registrado con ese id en la base de datos
+        if (respuestas.isEmpty() && !topicoRepository.existsById(id)) {
+            throw new ValidacionDeIntegridad("El tópico ingresado no es válido");
+        }
+        return respuestas;
+    }
+
+    // Obtener un listado de respuestas con tópicos activos, sin ejecutar el COUNT
+    public Slice<DatosOutputRespuesta> obtenerRespuestasPorTopicosActivosSinConteo(Pageable paginacion) {
+        return respuestaRepository.obtenerRespuestasPorTopicosActivosSinConteo(paginacion);
+    }
+
+    // Obtener un listado de respuestas por autor_id, sin ejecutar el COUNT
+    public Slice<DatosOutputRespuesta> obtenerRespuestasPorAutorIdSinConteo(Pageable paginacion, Long id) {
+        var respuestas = respuestaRepository.obtenerRespuestasPorAutorSinConteo(paginacion, id);
+        if (respuestas.isEmpty() && !usuarioRepository.existsById(id)) {
+            throw new ValidacionDeIntegridad("El usuario ingresado no es válido");
+        }
+        return respuestas;
+    }
 
-        if (topicoRegitrado.isPresent()) {
-            return respuestaRepository.obtenerRespuestasPorTopico(paginacion, topicoRegitrado.get()).map(DatosOutputRespuesta::new);
+    // Obtener un listado de respuestas por topico_id, sin ejecutar el COUNT
+    public Slice<DatosOutputRespuesta> obtenerRespuestasPorTopicoIdSinConteo(Pageable paginacion, Long id) {
+        var respuestas = respuestaRepository.obtenerRespuestasPorTopicoSinConteo(paginacion, id);
+        if (respuestas.isEmpty() && !topicoRepository.existsById(id)) {
+            throw new ValidacionDeIntegridad("El tópico ingresado no es válido");
+        }
+        return respuestas;
+    }
+
+    // Total aproximado de respuestas con tópicos activos
+    public long contarRespuestasPorTopicosActivos() {
+        return totalesAproximados.total("respuestas.topicos-activos", respuestaRepository::contarRespuestasPorTopicosActivos);
+    }
+
+    // Total aproximado de respuestas por autor_id
+    public long contarRespuestasPorAutorId(Long id) {
+        return totalesAproximados.total("respuestas.autor." + id, () -> respuestaRepository.contarRespuestasPorAutor(id));
+    }
+
+    // Total aproximado de respuestas por topico_id
+    public long contarRespuestasPorTopicoId(Long id) {
+        return totalesAproximados.total("respuestas.topico." + id, () -> respuestaRepository.contarRespuestasPorTopico(id));
+    }
+
+    // Obtener un listado de respuestas por autor_id, continuando después del cursor en el orden indicado
+    public DatosOutputPaginaCursor<DatosOutputRespuesta> obtenerRespuestasPorAutorId(CursorPaginacion after, int tamano, Long id, OrdenCursor orden) {
+        var limite = CursorPaginacion.limite(tamano);
+        List<DatosOutputRespuesta> respuestas;
+        if (orden == OrdenCursor.DESC) {
+            respuestas = after == null
+                    ? respuestaRepository.obtenerUltimasRespuestasPorAutor(id, limite)
+                    : respuestaRepository.obtenerRespuestasPorAutorAntesDe(id, after.fechaCreacion(), after.id(), limite);
         } else {
+            respuestas = after == null
+                    ? respuestaRepository.obtenerPrimerasRespuestasPorAutor(id, limite)
+                    : respuestaRepository.obtenerRespuestasPorAutorDespuesDe(id, after.fechaCreacion(), after.id(), limite);
+        }
+        // Solo una página vacía requiere revisar que el usuario exista, sin cargarlo
+        if (respuestas.isEmpty() && !usuarioRepository.existsById(id)) {
+            throw new ValidacionDeIntegridad("El usuario ingresado no es válido");
+        }
+        return DatosOutputPaginaCursor.desde(respuestas, tamano, Function.identity(), this::cursor);
+    }
+
+    // Obtener un listado de respuestas por topico_id, continuando después del cursor en el orden indicado
+    public DatosOutputPaginaCursor<DatosOutputRespuesta> obtenerRespuestasPorTopicoId(CursorPaginacion after, int tamano, Long id, OrdenCursor orden) {
+        var limite = CursorPaginacion.limite(tamano);
+        List<DatosOutputRespuesta> respuestas;
+        if (orden == OrdenCursor.DESC) {
+            respuestas = after == null
+                    ? respuestaRepository.obtenerUltimasRespuestasPorTopico(id, limite)
+                    : respuestaRepository.obtenerRespuestasPorTopicoAntesDe(id, after.fechaCreacion(), after.id(), limite);
+        } else {
+            respuestas = after == null
+                    ? respuestaRepository.obtenerPrimerasRespuestasPorTopico(id, limite)
+                    : respuestaRepository.obtenerRespuestasPorTopicoDespuesDe(id, after.fechaCreacion(), after.id(), limite);
+        }
+        // Solo una página vacía requiere revisar que el tópico exista, sin cargarlo
+        if (respuestas.isEmpty() && !topicoRepository.existsById(id)) {
             throw new ValidacionDeIntegridad("El tópico ingresado no es válido");
         }
+        return DatosOutputPaginaCursor.desde(respuestas, tamano, Function.identity(), this::cursor);
+    }
+
+    private CursorPaginacion cursor(DatosOutputRespuesta respuesta) {
+        return new CursorPaginacion(respuesta.fecha_creacion(), respuesta.respuesta_id());
     }
 }
@@ -0,0 +1,9 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DatosInputRefreshToken(
+        @NotBlank
+        String refresh_token
+) {
+}
@@ -0,0 +1,41 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Table(name = "refresh_tokens")
+@Entity(name = "RefreshToken")
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Solo se guarda el hash SHA-256 del token entregado al usuario
+    @Column(name = "token_hash", unique = true)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    @Column(name = "fecha_expiracion")
+    private LocalDateTime fechaExpiracion;
+
+    private boolean revocado;
+
+    public RefreshToken(String tokenHash, Usuario usuario, LocalDateTime fechaExpiracion) {
+        this.tokenHash = tokenHash;
+        this.usuario = usuario;
+        this.fechaExpiracion = fechaExpiracion;
+        this.revocado = false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Revoca el token solo si sigue vigente: de dos requests concurrentes con el mismo token, solo una actualiza la fila
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE RefreshToken r SET r.revocado=true WHERE r.tokenHash=:tokenHash AND r.revocado=false AND r.fechaExpiracion > :fecha")
+    int consumir(String tokenHash, LocalDateTime fecha);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE RefreshToken r SET r.revocado=true WHERE r.tokenHash=:tokenHash AND r.revocado=false")
+    int revocar(String tokenHash);
+
+    // Revoca todas las sesiones del usuario tras un cambio de contraseña o su desactivación
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE RefreshToken r SET r.revocado=true WHERE r.usuario.id=:usuarioId AND r.revocado=false")
+    int revocarPorUsuario(Long usuarioId);
+
+    // El usuario se lee de la base de datos y no de la cache de segundo nivel: el estado y la versión de token deben ser los vigentes
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query(value = "SELECT r.usuario FROM RefreshToken r WHERE r.tokenHash=:tokenHash")
+    Optional<Usuario> obtenerUsuarioPorTokenHash(String tokenHash);
+}
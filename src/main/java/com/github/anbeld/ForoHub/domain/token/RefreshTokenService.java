@@ -0,0 +1,70 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Value("${api.security.token.refresh-expiration-days}")
+    private long REFRESH_EXPIRATION_DAYS;
+
+    // Emite un nuevo refresh token para el usuario y guarda únicamente su hash
+    public String emitir(Usuario usuario) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        repository.save(new RefreshToken(hash(refreshToken), usuario, LocalDateTime.now().plusDays(REFRESH_EXPIRATION_DAYS)));
+        return refreshToken;
+    }
+
+    // Revoca el refresh token recibido y retorna el usuario al que pertenece
+    // Cada refresh token se puede usar una sola vez: quien lo usa recibe uno nuevo
+    public Usuario consumir(String refreshToken) {
+        var tokenHash = hash(refreshToken);
+        if (repository.consumir(tokenHash, LocalDateTime.now()) == 0) {
+            throw new ValidacionDeIntegridad("El refresh token no es válido");
+        }
+        var usuario = repository.obtenerUsuarioPorTokenHash(tokenHash);
+        if (usuario.isEmpty() || !usuario.get().isStatus()) {
+            throw new ValidacionDeIntegridad("El refresh token no es válido");
+        }
+        return usuario.get();
+    }
+
+    // Revoca el refresh token si existe
+    public void revocar(String refreshToken) {
+        repository.revocar(hash(refreshToken));
+    }
+
+    // Revoca todos los refresh tokens vigentes del usuario
+    public void revocarTodos(Long usuarioId) {
+        repository.revocarPorUsuario(usuarioId);
+    }
+
+    private String hash(String refreshToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
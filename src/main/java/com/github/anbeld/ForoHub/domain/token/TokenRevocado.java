@@ -0,0 +1,24 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Table(name = "tokens_revocados")
+@Entity(name = "TokenRevocado")
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "jti")
+public class TokenRevocado {
+
+    // Id (claim jti) del access token revocado
+    @Id
+    private String jti;
+
+    // Después de esta fecha el token ya no es válido, por lo que el registro se puede eliminar
+    @Column(name = "fecha_expiracion")
+    private LocalDateTime fechaExpiracion;
+}
@@ -0,0 +1,22 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    @Query(value = "SELECT t.jti FROM TokenRevocado t WHERE t.fechaExpiracion > :fecha")
+    List<String> obtenerJtiVigentes(LocalDateTime fecha);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM TokenRevocado t WHERE t.fechaExpiracion <= :fecha")
+    int eliminarExpirados(LocalDateTime fecha);
+}
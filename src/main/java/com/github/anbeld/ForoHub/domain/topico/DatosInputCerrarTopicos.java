@@ -0,0 +1,16 @@
+package com.github.anbeld.ForoHub.domain.topico;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Cierre por lotes: se indican los ids de los tópicos o un filtro (curso_id y/o creados_antes_de), no ambos
+public record DatosInputCerrarTopicos(
+        @Size(max = 10000)
+        List<@NotNull Long> ids,
+        Long curso_id,
+        LocalDateTime creados_antes_de
+) {
+}
@@ -0,0 +1,7 @@
+package com.github.anbeld.ForoHub.domain.topico;
+
+public record DatosOutputCierreTopico(
+        Long topico_id,
+        ResultadoCierre resultado
+) {
+}
@@ -0,0 +1,9 @@
+package com.github.anbeld.ForoHub.domain.topico;
+
+// Proyección usada por el cierre por lotes para conocer el estado de cada tópico sin cargar la entidad
+public record EstadoTopico(
+        Long id,
+        boolean resuelto,
+        Long cursoId
+) {
+}
@@ -0,0 +1,8 @@
+package com.github.anbeld.ForoHub.domain.topico;
+
+public enum ResultadoCierre {
+    CERRADO,
+    YA_CERRADO,
+    NO_ENCONTRADO,
+    SIN_PERMISO
+}
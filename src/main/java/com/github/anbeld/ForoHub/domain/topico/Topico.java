@@ -30,9 +30,6 @@ public class Topico {
     @Column(name = "fecha_creacion")
     private LocalDateTime fechaCreacion;
 
-    @Setter
-    private String url;
-
     @ManyToOne()
     @JoinColumn(name = "autor_id")
     private Usuario autor;
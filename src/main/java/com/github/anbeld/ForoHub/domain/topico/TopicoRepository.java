@@ -1,19 +1,107 @@
 package com.github.anbeld.ForoHub.domain.topico;
 
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TopicoRepository extends JpaRepository<Topico, Long> {
-    @Query(value = "SELECT t FROM Topico t WHERE t.resuelto=:status")
-    Page<Topico> obtenerTopicosPorStatus(Pageable paginacion, boolean status);
+
+    // Los listados se proyectan directamente al DTO: autor y curso se obtienen con joins en la misma consulta,
+    // sin cargar las entidades ni ejecutar una consulta adicional por fila
+    String DATOS_OUTPUT_TOPICO = "SELECT new com.github.anbeld.ForoHub.domain.topico.DatosOutputTopico(" +
+            "t.id, t.autor.userName, t.titulo, t.mensaje, t.fechaCreacion, t.resuelto, t.curso.nombre) FROM Topico t";
+
+    String CONTEO_TOPICOS_POR_STATUS = "SELECT COUNT(t) FROM Topico t WHERE t.resuelto=:status";
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status",
+            countQuery = CONTEO_TOPICOS_POR_STATUS)
+    Page<DatosOutputTopico> obtenerTopicosPorStatus(Pageable paginacion, boolean status);
+
+    @Query(value = DATOS_OUTPUT_TOPICO,
+            countQuery = "SELECT COUNT(t) FROM Topico t")
+    Page<DatosOutputTopico> obtenerTopicos(Pageable paginacion);
+
+    // Listados sin COUNT: Slice pide un elemento extra solo para saber si existe una página siguiente
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status")
+    Slice<DatosOutputTopico> obtenerTopicosPorStatusSinConteo(Pageable paginacion, boolean status);
+
+    @Query(value = DATOS_OUTPUT_TOPICO)
+    Slice<DatosOutputTopico> obtenerTopicosSinConteo(Pageable paginacion);
+
+    @Query(value = CONTEO_TOPICOS_POR_STATUS)
+    long contarTopicosPorStatus(boolean status);
+
+    // Paginación por cursor: se ordena por (fechaCreacion, id) y se continúa después del último elemento entregado,
+    // así el costo de una página no depende de su profundidad. El Pageable solo limita el número de filas
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status ORDER BY t.fechaCreacion, t.id")
+    List<DatosOutputTopico> obtenerPrimerosTopicosPorStatus(boolean status, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status AND " +
+            "(t.fechaCreacion > :fechaCreacion OR (t.fechaCreacion = :fechaCreacion AND t.id > :id)) " +
+            "ORDER BY t.fechaCreacion, t.id")
+    List<DatosOutputTopico> obtenerTopicosPorStatusDespuesDe(boolean status, LocalDateTime fechaCreacion, Long id, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " ORDER BY t.fechaCreacion, t.id")
+    List<DatosOutputTopico> obtenerPrimerosTopicos(Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE " +
+            "t.fechaCreacion > :fechaCreacion OR (t.fechaCreacion = :fechaCreacion AND t.id > :id) " +
+            "ORDER BY t.fechaCreacion, t.id")
+    List<DatosOutputTopico> obtenerTopicosDespuesDe(LocalDateTime fechaCreacion, Long id, Pageable limite);
+
+    // Paginación por cursor en orden descendente: parte de los tópicos más recientes y continúa antes del último elemento entregado,
+    // recorriendo los mismos índices hacia atrás
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status ORDER BY t.fechaCreacion DESC, t.id DESC")
+    List<DatosOutputTopico> obtenerUltimosTopicosPorStatus(boolean status, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE t.resuelto=:status AND " +
+            "(t.fechaCreacion < :fechaCreacion OR (t.fechaCreacion = :fechaCreacion AND t.id < :id)) " +
+            "ORDER BY t.fechaCreacion DESC, t.id DESC")
+    List<DatosOutputTopico> obtenerTopicosPorStatusAntesDe(boolean status, LocalDateTime fechaCreacion, Long id, Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " ORDER BY t.fechaCreacion DESC, t.id DESC")
+    List<DatosOutputTopico> obtenerUltimosTopicos(Pageable limite);
+
+    @Query(value = DATOS_OUTPUT_TOPICO + " WHERE " +
+            "t.fechaCreacion < :fechaCreacion OR (t.fechaCreacion = :fechaCreacion AND t.id < :id) " +
+            "ORDER BY t.fechaCreacion DESC, t.id DESC")
+    List<DatosOutputTopico> obtenerTopicosAntesDe(LocalDateTime fechaCreacion, Long id, Pageable limite);
 
     @Query(value = "SELECT t FROM Topico t WHERE t.id=:topico_id AND t.autor=:autor")
     Optional<Topico> obtenerTopicoPorIdYAutor(Long topico_id, Usuario autor);
+
+    // Cierre de tópicos con un solo UPDATE, sin cargar las entidades ni su autor y curso
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE Topico t SET t.resuelto=true WHERE t.id IN :ids AND t.resuelto=false")
+    int cerrarTopicos(Collection<Long> ids);
+
+    // Bloquea las filas hasta el fin de la transacción: otra solicitud no puede cerrar los tópicos entre esta lectura y el UPDATE
+    // Solo lee la tabla de tópicos; el curso se compara por su id con los cursos del docente
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT new com.github.anbeld.ForoHub.domain.topico.EstadoTopico(t.id, t.resuelto, t.curso.id) FROM Topico t WHERE t.id IN :ids")
+    List<EstadoTopico> obtenerEstadoTopicos(Collection<Long> ids);
+
+    // Ids de los tópicos abiertos de un curso, recorridos por id para procesarlos por lotes
+    // Una consulta por cada forma del filtro, sin predicados "IS NULL OR", para recorrer el índice (curso_id, resuelto)
+    @Query(value = "SELECT t.id FROM Topico t WHERE t.curso.id=:cursoId AND t.resuelto=false AND t.id > :despuesDe ORDER BY t.id")
+    List<Long> obtenerIdsTopicosAbiertosPorCurso(Long cursoId, Long despuesDe, Pageable limite);
+
+    @Query(value = "SELECT t.id FROM Topico t WHERE t.curso.id=:cursoId AND t.resuelto=false AND t.id > :despuesDe " +
+            "AND t.fechaCreacion < :creadosAntesDe ORDER BY t.id")
+    List<Long> obtenerIdsTopicosAbiertosPorCursoAntesDe(Long cursoId, LocalDateTime creadosAntesDe, Long despuesDe, Pageable limite);
 }
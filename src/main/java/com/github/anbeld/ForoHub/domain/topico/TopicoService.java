@@ -4,19 +4,37 @@ import com.github.anbeld.ForoHub.domain.curso.Curso;
 import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.DatosOutputPaginaCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Los métodos de consulta usan transacciones de solo lectura: Hibernate no revisa cambios ni hace flush de las entidades
+// cargadas, y el driver puede enviar la consulta a una réplica. Los métodos de escritura declaran su propia transacción
 @Service
+@Transactional(readOnly = true)
 public class TopicoService {
 
     @Autowired
@@ -28,8 +46,25 @@ public class TopicoService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private TotalesAproximados totalesAproximados;
+
+    @Autowired
+    private VersionesRecursos versiones;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${api.topicos.cierre.tamano-lote}")
+    private int TAMANO_LOTE;
+
+    // Tópicos cerrados como máximo en una solicitud por filtro: acota el trabajo y el tamaño de la respuesta
+    @Value("${api.topicos.cierre.maximo-por-filtro}")
+    private int MAXIMO_POR_FILTRO;
+
     // Registrar un nuevo tópico
-    public Topico registrarTopico(DatosInputTopico datos, UriComponentsBuilder uriComponentsBuilder) {
+    @Transactional
+    public Topico registrarTopico(DatosInputTopico datos) {
         // Revisa si existe un usuario que registrado con ese id en la base de datos
         Optional<Usuario> usuarioRegistrado = usuarioRepository.findById(datos.usuario_id());
 
@@ -40,17 +75,8 @@ public class TopicoService {
             // Crea y guarda el nuevo tópico en la base de datos
             if (cursoRegistrado.isPresent()) {
                 Topico nuevoTopico = new Topico(datos, usuarioRegistrado.get(), cursoRegistrado.get());
-                topicoRepository.save(nuevoTopico);
-
-                // Crea la url en base al id del topico
-                URI url = uriComponentsBuilder.path("/topicos/{id}")
-                        .buildAndExpand(nuevoTopico.getId()).toUri();
-
-                // Codifica la URL antes de guardarla
-                String urlEncoded = URLEncoder.encode(String.valueOf(url), StandardCharsets.UTF_8);
-                nuevoTopico.setUrl(urlEncoded);
-
-                topicoRepository.save(nuevoTopico); // Agrega la url del nuevo topico en la base de datos
+                topicoRepository.save(nuevoTopico); // Un solo INSERT, la url se construye a partir del id al responder
+                versiones.actualizar(VersionesRecursos.TOPICOS);
                 return nuevoTopico;
 
             } else {
@@ -63,30 +89,192 @@ public class TopicoService {
 
     // Obtener un listado de tópicos activos
     public Page<DatosOutputTopico> obtenerTopicosActivos(Pageable paginacion) {
-        return topicoRepository.obtenerTopicosPorStatus(paginacion, false).map(DatosOutputTopico::new);
+        return topicoRepository.obtenerTopicosPorStatus(paginacion, false);
     }
 
     // Obtener el listado de tópicos registrados por status
     public Page<DatosOutputTopico> obtenerTopicosPorStatus(Pageable paginacion, boolean status) {
-        return topicoRepository.obtenerTopicosPorStatus(paginacion, status).map(DatosOutputTopico::new);
+        return topicoRepository.obtenerTopicosPorStatus(paginacion, status);
     }
 
     // Obtener el listado de tópicos
     public Page<DatosOutputTopico> obtenerTopicos(Pageable paginacion) {
-        return topicoRepository.findAll(paginacion).map(DatosOutputTopico::new);
+        return topicoRepository.obtenerTopicos(paginacion);
     }
 
-    // Delete logico
-    public void cerrarTopico(Long id) {
-        // Revisa si existe un topico registrado con ese id y autor en la base de datos
-        Optional<Topico> topicoRegistrado = topicoRepository.findById(id);
+    // Obtener el listado de tópicos registrados por status, sin ejecutar el COUNT
+    public Slice<DatosOutputTopico> obtenerTopicosPorStatusSinConteo(Pageable paginacion, boolean status) {
+        return topicoRepository.obtenerTopicosPorStatusSinConteo(paginacion, status);
+    }
+
+    // Obtener el listado de tópicos, sin ejecutar el COUNT
+    public Slice<DatosOutputTopico> obtenerTopicosSinConteo(Pageable paginacion) {
+        return topicoRepository.obtenerTopicosSinConteo(paginacion);
+    }
 
-        if (topicoRegistrado.isPresent()) {
-            // Realiza el Delete lógico y actualiza la información en la base de datos
-            topicoRegistrado.get().cerrarTopico();
-            topicoRepository.save(topicoRegistrado.get());
+    // Total aproximado de tópicos por status
+    public long contarTopicosPorStatus(boolean status) {
+        return totalesAproximados.total("topicos.status." + status, () -> topicoRepository.contarTopicosPorStatus(status));
+    }
+
+    // Total aproximado de tópicos
+    public long contarTopicos() {
+        return totalesAproximados.total("topicos", topicoRepository::count);
+    }
+
+    // Obtener el listado de tópicos registrados por status, continuando después del cursor en el orden indicado
+    public DatosOutputPaginaCursor<DatosOutputTopico> obtenerTopicosPorStatus(CursorPaginacion after, int tamano, boolean status, OrdenCursor orden) {
+        var limite = CursorPaginacion.limite(tamano);
+        List<DatosOutputTopico> topicos;
+        if (orden == OrdenCursor.DESC) {
+            topicos = after == null
+                    ? topicoRepository.obtenerUltimosTopicosPorStatus(status, limite)
+                    : topicoRepository.obtenerTopicosPorStatusAntesDe(status, after.fechaCreacion(), after.id(), limite);
+        } else {
+            topicos = after == null
+                    ? topicoRepository.obtenerPrimerosTopicosPorStatus(status, limite)
+                    : topicoRepository.obtenerTopicosPorStatusDespuesDe(status, after.fechaCreacion(), after.id(), limite);
+        }
+        return DatosOutputPaginaCursor.desde(topicos, tamano, Function.identity(), this::cursor);
+    }
+
+    // Obtener el listado de tópicos, continuando después del cursor en el orden indicado
+    public DatosOutputPaginaCursor<DatosOutputTopico> obtenerTopicos(CursorPaginacion after, int tamano, OrdenCursor orden) {
+        var limite = CursorPaginacion.limite(tamano);
+        List<DatosOutputTopico> topicos;
+        if (orden == OrdenCursor.DESC) {
+            topicos = after == null
+                    ? topicoRepository.obtenerUltimosTopicos(limite)
+                    : topicoRepository.obtenerTopicosAntesDe(after.fechaCreacion(), after.id(), limite);
         } else {
+            topicos = after == null
+                    ? topicoRepository.obtenerPrimerosTopicos(limite)
+                    : topicoRepository.obtenerTopicosDespuesDe(after.fechaCreacion(), after.id(), limite);
+        }
+        return DatosOutputPaginaCursor.desde(topicos, tamano, Function.identity(), this::cursor);
+    }
+
+    private CursorPaginacion cursor(DatosOutputTopico topico) {
+        return new CursorPaginacion(topico.fecha_creacion(), topico.topico_id());
+    }
+
+    // Delete logico
+    @Transactional
+    public void cerrarTopico(Long id) {
+        // Realiza el Delete lógico con un UPDATE; el tópico solo se consulta cuando no se actualizó ninguna fila
+        int cerrados = topicoRepository.cerrarTopicos(List.of(id));
+        if (cerrados == 0 && !topicoRepository.existsById(id)) {
             throw new ValidacionDeIntegridad("El topico ingresado no es válido");
         }
+        // Un tópico que ya estaba cerrado no cambia los listados
+        if (cerrados > 0) {
+            versiones.actualizar(VersionesRecursos.TOPICOS);
+        }
+    }
+
+    // Cierra varios tópicos por ids o por filtro, en lotes de TAMANO_LOTE, y retorna el resultado de cada id
+    // Solo se cierran tópicos de los cursos que dicta el docente
+    // Sin una transacción que abarque todos los lotes: cada lote se confirma en su propia transacción y no mantiene bloqueadas las filas de los lotes anteriores
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<DatosOutputCierreTopico> cerrarTopicos(DatosInputCerrarTopicos datos, Long docenteId) {
+        boolean porIds = datos.ids() != null && !datos.ids().isEmpty();
+        boolean porFiltro = datos.curso_id() != null || datos.creados_antes_de() != null;
+
+        if (porIds == porFiltro) {
+            throw new ValidacionDeIntegridad("Ingrese los ids de los tópicos o un filtro (curso_id, creados_antes_de)");
+        }
+        try {
+            return porIds ? cerrarTopicosPorIds(datos.ids(), docenteId)
+                    : cerrarTopicosPorFiltro(cursosDelFiltro(datos.curso_id(), docenteId), datos.creados_antes_de());
+        } finally {
+            // Los lotes confirmados cambian los listados aunque un lote posterior falle
+            versiones.actualizar(VersionesRecursos.TOPICOS);
+        }
+    }
+
+    private List<DatosOutputCierreTopico> cerrarTopicosPorIds(List<Long> ids, Long docenteId) {
+        List<Long> idsDistintos = ids.stream().distinct().toList();
+        List<DatosOutputCierreTopico> resultados = new ArrayList<>(idsDistintos.size());
+        Set<Long> cursosDocente = new HashSet<>(cursoRepository.obtenerIdsCursosPorDocente(docenteId));
+
+        for (int inicio = 0; inicio < idsDistintos.size(); inicio += TAMANO_LOTE) {
+            resultados.addAll(cerrarLote(idsDistintos.subList(inicio, Math.min(inicio + TAMANO_LOTE, idsDistintos.size())), cursosDocente));
+        }
+        return resultados;
+    }
+
+    // Lee el estado del lote con las filas bloqueadas y cierra los tópicos abiertos en la misma transacción,
+    // así el resultado de cada id corresponde a lo que hizo el UPDATE
+    private List<DatosOutputCierreTopico> cerrarLote(List<Long> lote, Set<Long> cursosDocente) {
+        return transactionTemplate.execute(status -> {
+            // Los ids ausentes no existen
+            Map<Long, EstadoTopico> estados = topicoRepository.obtenerEstadoTopicos(lote).stream()
+                    .collect(Collectors.toMap(EstadoTopico::id, Function.identity()));
+
+            Map<Long, ResultadoCierre> resultadosLote = lote.stream()
+                    .collect(Collectors.toMap(Function.identity(), id -> resultadoCierre(estados.get(id), cursosDocente)));
+
+            List<Long> abiertos = lote.stream().filter(id -> resultadosLote.get(id) == ResultadoCierre.CERRADO).toList();
+            if (!abiertos.isEmpty()) {
+                int cerrados = topicoRepository.cerrarTopicos(abiertos);
+                // Con las filas bloqueadas el UPDATE cierra todos los tópicos abiertos; si no, el lote se revierte
+                if (cerrados != abiertos.size()) {
+                    throw new IllegalStateException("Se cerraron " + cerrados + " de " + abiertos.size() + " tópicos del lote");
+                }
+            }
+            return lote.stream().map(id -> new DatosOutputCierreTopico(id, resultadosLote.get(id))).toList();
+        });
+    }
+
+    private ResultadoCierre resultadoCierre(EstadoTopico estado, Set<Long> cursosDocente) {
+        if (estado == null) {
+            return ResultadoCierre.NO_ENCONTRADO;
+        }
+        if (!cursosDocente.contains(estado.cursoId())) {
+            return ResultadoCierre.SIN_PERMISO;
+        }
+        return estado.resuelto() ? ResultadoCierre.YA_CERRADO : ResultadoCierre.CERRADO;
+    }
+
+    // Cursos a los que se aplica el filtro: el curso indicado, si lo dicta el docente, o todos los cursos del docente
+    private List<Long> cursosDelFiltro(Long cursoId, Long docenteId) {
+        List<Long> cursosDocente = cursoRepository.obtenerIdsCursosPorDocente(docenteId);
+        if (cursoId == null) {
+            return cursosDocente;
+        }
+        if (!cursosDocente.contains(cursoId)) {
+            throw new ValidacionDeIntegridad("El curso ingresado no es válido o no es dictado por el docente");
+        }
+        return List.of(cursoId);
+    }
+
+    private List<DatosOutputCierreTopico> cerrarTopicosPorFiltro(List<Long> cursos, LocalDateTime creadosAntesDe) {
+        List<DatosOutputCierreTopico> resultados = new ArrayList<>();
+
+        // Los cursos se recorren uno a uno; dentro de cada curso, cada lote continúa después del último id procesado,
+        // así ningún lote vuelve a recorrer los anteriores
+        // Al alcanzar MAXIMO_POR_FILTRO se detiene: el cliente repite la solicitud para cerrar los tópicos restantes
+        for (Long cursoId : cursos) {
+            List<Long> lote;
+            int limite;
+            Long ultimoId = 0L;
+
+            do {
+                limite = Math.min(TAMANO_LOTE, MAXIMO_POR_FILTRO - resultados.size());
+                lote = creadosAntesDe == null
+                        ? topicoRepository.obtenerIdsTopicosAbiertosPorCurso(cursoId, ultimoId, PageRequest.of(0, limite))
+                        : topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(cursoId, creadosAntesDe, ultimoId, PageRequest.of(0, limite));
+                if (!lote.isEmpty()) {
+                    // Un tópico cerrado por otra solicitud después de la lectura de ids se informa como YA_CERRADO
+                    resultados.addAll(cerrarLote(lote, Set.of(cursoId)));
+                    ultimoId = lote.get(lote.size() - 1);
+                }
+            } while (lote.size() == limite && resultados.size() < MAXIMO_POR_FILTRO);
+
+            if (resultados.size() >= MAXIMO_POR_FILTRO) {
+                break;
+            }
+        }
+        return resultados;
     }
 }
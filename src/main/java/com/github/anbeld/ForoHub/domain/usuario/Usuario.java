@@ -1,19 +1,26 @@
 package com.github.anbeld.ForoHub.domain.usuario;
 
 import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.infra.cache.CacheSegundoNivelConfiguration;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Table(name = "usuarios")
 @Entity(name = "Usuario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfiguration.REGION_USUARIOS)
 @Getter
 @Builder
 @NoArgsConstructor
@@ -34,17 +41,24 @@ public class Usuario implements UserDetails {
     private String password;
     private boolean status;
 
-    @Setter
-    private String url;
-
     @Enumerated(EnumType.STRING)
     @Column(name = "user_role")
     private Perfil userRole;
 
+    // Se incrementa cuando cambian las credenciales para invalidar los tokens emitidos antes
+    @Column(name = "token_version")
+    private int tokenVersion;
+
+    // Bloqueo optimista: una escritura basada en una copia desactualizada (por ejemplo, desde la cache de otro nodo) falla en lugar de sobrescribir la fila
+    @Version
+    private long version;
+
     @ManyToMany(mappedBy = "estudiantes")
-    private List<Curso> cursosEstudiante = new ArrayList<>();
+    private Set<Curso> cursosEstudiante = new HashSet<>();
 
+    // Colección inversa: Hibernate la invalida cuando cambia el docente de un curso (auto_evict_collection_cache)
     @OneToMany(mappedBy = "docente")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfiguration.REGION_CURSOS_DOCENTE)
     private List<Curso> cursosDocente = new ArrayList<>();
 
     public Usuario(DatosInputRegistrarUsuario datos, Perfil perfil, String password) {
@@ -55,14 +69,6 @@ public class Usuario implements UserDetails {
         this.userRole = perfil;
     }
 
-    public void actualizarPassword(String newPassword) {
-        this.password = newPassword;
-    }
-
-    public void desactivarUsuario() {
-        this.status = false;
-    }
-
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         List<GrantedAuthority> authorities = new ArrayList<>();
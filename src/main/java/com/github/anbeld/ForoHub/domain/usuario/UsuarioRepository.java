@@ -1,28 +1,86 @@
 package com.github.anbeld.ForoHub.domain.usuario;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
-    @Query(value = "SELECT s FROM Usuario s WHERE s.status=true AND s.userRole=:perfil")
-    Page<Usuario> obtenerUsuariosPorStatusActivoYPerfil(Pageable paginacion, Perfil perfil);
+    // El listado se proyecta directamente al DTO, sin cargar las entidades
+    String DATOS_OUTPUT_USUARIO_ACTIVO_POR_PERFIL = "SELECT new com.github.anbeld.ForoHub.domain.usuario.DatosOutputUsuario(" +
+            "s.id, s.userName, s.email, s.userRole) FROM Usuario s WHERE s.status=true AND s.userRole=:perfil";
 
+    String CONTEO_USUARIOS_ACTIVOS_POR_PERFIL = "SELECT COUNT(s) FROM Usuario s WHERE s.status=true AND s.userRole=:perfil";
+
+    @Query(value = DATOS_OUTPUT_USUARIO_ACTIVO_POR_PERFIL,
+            countQuery = CONTEO_USUARIOS_ACTIVOS_POR_PERFIL)
+    Page<DatosOutputUsuario> obtenerUsuariosPorStatusActivoYPerfil(Pageable paginacion, Perfil perfil);
+
+    // Listado sin COUNT: Slice pide un elemento extra solo para saber si existe una página siguiente
+    @Query(value = DATOS_OUTPUT_USUARIO_ACTIVO_POR_PERFIL)
+    Slice<DatosOutputUsuario> obtenerUsuariosPorStatusActivoYPerfilSinConteo(Pageable paginacion, Perfil perfil);
+
+    @Query(value = CONTEO_USUARIOS_ACTIVOS_POR_PERFIL)
+    long contarUsuariosPorStatusActivoYPerfil(Perfil perfil);
+
+    // Carga por id para aprovechar la cache de segundo nivel; el perfil se verifica sobre la entidad
+    default Optional<Usuario> obtenerUsuarioPorIdYPerfil(Long id, Perfil perfil) {
+        return findById(id).filter(usuario -> usuario.getUserRole() == perfil);
+    }
+
+    // Verificación del perfil en las escrituras: se lee de la base de datos, así un cambio hecho en otro nodo se respeta
+    // sin esperar a que expire la entrada de la cache de segundo nivel
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
     @Query(value = "SELECT s FROM Usuario s WHERE s.id=:id AND s.userRole=:perfil")
-    Optional<Usuario> obtenerUsuarioPorIdYPerfil(Long id, Perfil perfil);
+    Optional<Usuario> verificarUsuarioPorIdYPerfil(Long id, Perfil perfil);
 
+    // Las operaciones de escritura leen el usuario de la base de datos y no de la cache de segundo nivel
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
     @Query(value = "SELECT s FROM Usuario s WHERE s.email=:email AND s.password=:password AND s.userRole=:perfil")
     Optional<Usuario> verificarUsuarioPorEmailPasswordPerfil(String email, String password, Perfil perfil);
 
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query(value = "SELECT s FROM Usuario s WHERE s.id=:id")
+    Optional<Usuario> obtenerUsuarioParaActualizar(Long id);
+
     UserDetails findByEmail(String email);
 
     @Query(value = "SELECT s FROM Usuario s WHERE s.email=:email")
     Optional<Usuario> obtenerUsuarioPorEmail(String email);
+
+    @Query(value = "SELECT s.userRole FROM Usuario s WHERE s.id=:id")
+    Optional<Perfil> obtenerPerfilPorId(Long id);
+
+    @Query(value = "SELECT s.tokenVersion FROM Usuario s WHERE s.id=:id")
+    Optional<Integer> obtenerTokenVersionPorId(Long id);
+
+    // La versión de token se incrementa en la base de datos: dos cambios concurrentes no pueden asignar la misma versión
+    // Al ser un UPDATE masivo, Hibernate invalida la región de usuarios de la cache de segundo nivel al confirmar la transacción
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE Usuario s SET s.password=:password, s.tokenVersion = s.tokenVersion + 1, s.version = s.version + 1 WHERE s.id=:id")
+    int actualizarPassword(Long id, String password);
+
+    // Reemplaza el hash solo si no cambió desde que se verificó la contraseña: no sobrescribe un cambio de contraseña concurrente
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE Usuario s SET s.password=:nuevoHash, s.version = s.version + 1 WHERE s.id=:id AND s.password=:hashAnterior")
+    int rehashPassword(Long id, String hashAnterior, String nuevoHash);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE Usuario s SET s.status=false, s.tokenVersion = s.tokenVersion + 1, s.version = s.version + 1 WHERE s.id=:id")
+    int desactivarUsuario(Long id);
 }
@@ -1,64 +1,123 @@
 package com.github.anbeld.ForoHub.domain.usuario;
 
+import com.github.anbeld.ForoHub.domain.token.DatosInputRefreshToken;
+import com.github.anbeld.ForoHub.domain.token.RefreshTokenService;
+import com.github.anbeld.ForoHub.infra.errores.CapacidadExcedida;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
+import com.github.anbeld.ForoHub.infra.security.AuthenticationService;
 import com.github.anbeld.ForoHub.infra.security.DatosJWTToken;
 import com.github.anbeld.ForoHub.infra.security.JWTService;
+import com.github.anbeld.ForoHub.infra.security.RevocacionService;
+import com.github.anbeld.ForoHub.infra.security.TokenVersionService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.net.URI;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
+// Solo lectura por defecto; login, refresh, logout, registro y cambios de contraseña o estado escriben en la base de datos
 @Service
+@Transactional(readOnly = true)
 public class UsuarioService {
 
     @Autowired
     private UsuarioRepository repository;
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private JWTService jwtService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevocacionService revocacionService;
+
+    @Autowired
+    private TotalesAproximados totalesAproximados;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     // Verificar la información para iniciar sesión
+    // El usuario se carga una sola vez: la misma fila se usa para verificar la contraseña y generar el token
+    // Sin transacción: mientras la verificación espera en el pool de hashing no se retiene una conexión a la base de datos
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DatosJWTToken login(DatosInputLoginUsuario datos) {
         // Verifica si la información que el usuario suministra existe en la base de datos
         var usuarioRegistrado = repository.obtenerUsuarioPorEmail(datos.email());
         if (usuarioRegistrado.isEmpty()) {
             throw new UsernameNotFoundException("Usuario no encontrado con el email: " + datos.email());
         }
-        try {
-            Authentication authToken = new UsernamePasswordAuthenticationToken(
-                    datos.email(), datos.password());
-            var usuarioAutenticado = authenticationManager.authenticate(authToken);
-
-            // Recupera el perfil del usuario autenticado
-            Perfil perfil = usuarioRegistrado.get().getUserRole();
-
-            var JWTtoken = jwtService.generateToken(datos.email(), perfil);
-            return new DatosJWTToken(JWTtoken);
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Error en la autenticación", e);
+        var usuario = usuarioRegistrado.get();
+
+        // Verifica que el usuario esté activo y que la contraseña corresponda al hash registrado
+        // Un usuario desactivado no puede iniciar sesión aunque la contraseña sea correcta
+        if (!usuario.isStatus()) {
+            throw new DisabledException("Usuario inactivo");
+        }
+        if (!passwordEncoder.matches(datos.password(), usuario.getPassword())) {
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
+
+        // Actualiza el hash si fue generado con otro algoritmo o costo; si el pool de hashing está saturado se reintenta en el siguiente login
+        if (passwordEncoder.upgradeEncoding(usuario.getPassword())) {
+            try {
+                var nuevoHash = passwordEncoder.encode(datos.password());
+                if (repository.rehashPassword(usuario.getId(), usuario.getPassword(), nuevoHash) > 0) {
+                    authenticationService.invalidarUsuario(usuario.getEmail());
+                }
+            } catch (CapacidadExcedida e) {
+                // El login es válido aunque el hash no se haya actualizado
+            }
+        }
+
+        // Genera el token con el id, el perfil y la versión de token del usuario autenticado
+        var JWTtoken = jwtService.generateToken(usuario);
+        return new DatosJWTToken(JWTtoken, refreshTokenService.emitir(usuario));
+    }
+
+    // Entrega un nuevo access token a cambio de un refresh token vigente, que queda revocado
+    @Transactional
+    public DatosJWTToken refrescarToken(DatosInputRefreshToken datos) {
+        var usuario = refreshTokenService.consumir(datos.refresh_token());
+        var JWTtoken = jwtService.generateToken(usuario);
+        return new DatosJWTToken(JWTtoken, refreshTokenService.emitir(usuario));
+    }
+
+    // Cerrar sesión: revoca el access token en uso y el refresh token suministrado
+    @Transactional
+    public void logout(String accessToken, DatosInputRefreshToken datos) {
+        var tokenVerificado = jwtService.verificarToken(accessToken);
+        revocacionService.revocar(tokenVerificado.jti(), tokenVerificado.expiration());
+        if (datos != null && datos.refresh_token() != null) {
+            refreshTokenService.revocar(datos.refresh_token());
         }
     }
 
     // Registrar nuevo usuario
-    public Usuario registrarUsuario(DatosInputRegistrarUsuario datos, Perfil perfil, UriComponentsBuilder uriComponentsBuilder) {
+    // El hash se calcula sin transacción; el INSERT se confirma en la transacción propia de save
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Usuario registrarUsuario(DatosInputRegistrarUsuario datos, Perfil perfil) {
         // Revisa si existe un usuario inscrito que ya tenga el email ingresado
         Optional<Usuario> usuarioRegistrado = repository.obtenerUsuarioPorEmail(datos.email());
 
@@ -68,19 +127,8 @@ public class UsuarioService {
             var encryptedPassword = passwordEncoder.encode(datos.password());
 
             Usuario nuevoUsuario = new Usuario(datos, perfil, encryptedPassword);
-            repository.save(nuevoUsuario); // Guarda el nuevo usuario en la base de datos
-
-            // Crea la url en base al perfil y al id del usuario
-            URI url = uriComponentsBuilder.path("/{perfil}/{id}")
-                    .buildAndExpand(
-                            nuevoUsuario.getUserRole().toString().toLowerCase() + "s",
-                            nuevoUsuario.getId()).toUri();
-
-            // Codifica la URL antes de guardarla
-            String urlEncoded = URLEncoder.encode(String.valueOf(url), StandardCharsets.UTF_8);
-            nuevoUsuario.setUrl(urlEncoded);
-
-            repository.save(nuevoUsuario); // Agrega la url del nuevo usuario en la base de datos
+            repository.save(nuevoUsuario); // Un solo INSERT, la url se construye a partir del id al responder
+            authenticationService.invalidarUsuario(nuevoUsuario.getEmail());
             return nuevoUsuario;
 
         } else {
@@ -91,7 +139,17 @@ public class UsuarioService {
     // Obtener listado de usuarios activos por perfil
     public Page<DatosOutputUsuario> listadoUsuariosActivosPorPerfil(Pageable paginacion, Perfil perfil) {
         // Busca todos los usuarios que cumplan la condición y los conveierte a DatosOutputUsuario para mostrar al usuario
-        return repository.obtenerUsuariosPorStatusActivoYPerfil(paginacion, perfil).map(DatosOutputUsuario::new);
+        return repository.obtenerUsuariosPorStatusActivoYPerfil(paginacion, perfil);
+    }
+
+    // Obtener listado de usuarios activos por perfil, sin ejecutar el COUNT
+    public Slice<DatosOutputUsuario> listadoUsuariosActivosPorPerfilSinConteo(Pageable paginacion, Perfil perfil) {
+        return repository.obtenerUsuariosPorStatusActivoYPerfilSinConteo(paginacion, perfil);
+    }
+
+    // Total aproximado de usuarios activos por perfil
+    public long contarUsuariosActivosPorPerfil(Perfil perfil) {
+        return totalesAproximados.total("usuarios.activos." + perfil, () -> repository.contarUsuariosPorStatusActivoYPerfil(perfil));
     }
 
     // Obtener un estudiante por su id
@@ -117,6 +175,8 @@ public class UsuarioService {
     }
 
     // Actualizar la contraseña de un usuario
+    // El nuevo hash se calcula antes de abrir la transacción que lo escribe
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DatosOutputUsuario actualizarPasswordUsuario(DatosInputActualizarPasswordUsuario datos, Perfil perfil) {
         // Revisa si existe un usuario que cumpla las condiciones en la base de datos
         var response = repository.verificarUsuarioPorEmailPasswordPerfil(datos.email(), datos.current_password(), perfil);
@@ -124,9 +184,15 @@ public class UsuarioService {
             // Encripta la nueva contraseña antes de guardarla
             var encryptedPassword = passwordEncoder.encode(datos.new_password());
 
-            // Actualiza la contraseña
-            response.get().actualizarPassword(encryptedPassword);
-            return new DatosOutputUsuario(response.get());
+            // Actualiza la contraseña e invalida los tokens emitidos con la contraseña anterior
+            var usuario = response.get();
+            return transactionTemplate.execute(status -> {
+                repository.actualizarPassword(usuario.getId(), encryptedPassword);
+                tokenVersionService.actualizarVersion(usuario.getId(), tokenVersionActual(usuario.getId()));
+                refreshTokenService.revocarTodos(usuario.getId());
+                authenticationService.invalidarUsuario(usuario.getEmail());
+                return new DatosOutputUsuario(usuario);
+            });
 
         } else {
             // Informa que la información no es correcta
@@ -135,11 +201,19 @@ public class UsuarioService {
     }
 
     // Delete lógido de un usuario
+    @Transactional
     public void desactivarUsuario(Long id, Perfil perfil) {
-        Usuario usuarioRegistrado = repository.getReferenceById(id);
+        Usuario usuarioRegistrado = repository.obtenerUsuarioParaActualizar(id).orElseThrow(EntityNotFoundException::new);
         if (usuarioRegistrado.getUserRole().equals(perfil)) {
-            usuarioRegistrado.desactivarUsuario();
-            repository.save(usuarioRegistrado);
+            repository.desactivarUsuario(id);
+            tokenVersionService.actualizarVersion(id, tokenVersionActual(id));
+            refreshTokenService.revocarTodos(id);
+            authenticationService.invalidarUsuario(usuarioRegistrado.getEmail());
         }
     }
+
+    // Versión de token asignada por el último UPDATE del usuario en esta transacción
+    private int tokenVersionActual(Long id) {
+        return repository.obtenerTokenVersionPorId(id).orElseThrow(EntityNotFoundException::new);
+    }
 }
@@ -0,0 +1,52 @@
+package com.github.anbeld.ForoHub.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+
+// Cache de segundo nivel de Hibernate para los datos de referencia que casi no cambian: cursos y usuarios
+// Las regiones, con su tamaño máximo y expiración, se definen en application.conf
+@Configuration
+public class CacheSegundoNivelConfiguration {
+
+    public static final String REGION_CURSOS = "cursos";
+    public static final String REGION_USUARIOS = "usuarios";
+    public static final String REGION_CURSOS_DOCENTE = "usuarios-cursos-docente";
+
+    private static final List<String> REGIONES = List.of(REGION_CURSOS, REGION_USUARIOS, REGION_CURSOS_DOCENTE);
+
+    // El proveedor entrega el mismo CacheManager a todos los contextos de la JVM, por eso no se cierra con el contexto
+    @Bean(destroyMethod = "")
+    public CacheManager cacheManagerSegundoNivel() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    }
+
+    // Hibernate usa este CacheManager y falla al iniciar si alguna región no está definida, así ninguna queda sin límite
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Aciertos, fallos, desalojos y tamaño de cada región, con las estadísticas nativas de Caffeine
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return registry -> {
+            for (String region : REGIONES) {
+                Cache<Object, Object> cache = cacheManagerSegundoNivel.getCache(region);
+                CaffeineCacheMetrics.monitor(registry, cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), "hibernate." + region);
+            }
+        };
+    }
+}
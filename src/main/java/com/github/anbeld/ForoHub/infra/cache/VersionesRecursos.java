@@ -0,0 +1,103 @@
+package com.github.anbeld.ForoHub.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Versiones en memoria de los listados que los clientes consultan periódicamente, para responder GET condicionales
+// (If-None-Match / If-Modified-Since) con 304 sin consultar la base de datos
+// Las versiones son locales de cada nodo: el ETag incluye el nodo que lo emitió y cada versión expira después de un periodo,
+// así un cambio hecho en otro nodo se entrega a más tardar al expirar la versión
+@Component
+public class VersionesRecursos {
+
+    public static final String TOPICOS = "topicos";
+
+    // Reemplaza el no-store que Spring Security agrega por defecto: el cliente guarda la respuesta y la revalida en cada consulta
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    @Value("${api.recursos.versiones.maximum-size}")
+    private long MAXIMUM_SIZE;
+
+    @Value("${api.recursos.versiones.ttl-seconds}")
+    private long TTL_SECONDS;
+
+    // El ETag es débil: con total=true la respuesta puede variar en el total aproximado sin cambiar la versión
+    public record Version(String etag, long ultimaModificacion) {
+    }
+
+    private final String nodo = UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private Cache<String, Version> versiones;
+
+    @PostConstruct
+    public void inicializarCache() {
+        versiones = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(Duration.ofSeconds(TTL_SECONDS))
+                .build();
+    }
+
+    public static String respuestasPorTopico(Long topicoId) {
+        return "respuestas.topico." + topicoId;
+    }
+
+    public Version obtener(String recurso) {
+        return versiones.get(recurso, clave -> nuevaVersion(null));
+    }
+
+    // Retorna true y deja la respuesta en 304 cuando el cliente ya tiene la versión vigente del recurso
+    public boolean noModificado(WebRequest request, String recurso) {
+        Version version = obtener(recurso);
+        return request.checkNotModified(version.etag(), version.ultimaModificacion());
+    }
+
+    // Respuesta de un GET condicional: la consulta solo se ejecuta cuando el cliente no tiene la versión vigente
+    public <T> ResponseEntity<T> respuesta(WebRequest request, String recurso, Supplier<ResponseEntity<T>> consulta) {
+        if (noModificado(request, recurso)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+        ResponseEntity<T> respuesta = consulta.get();
+        return ResponseEntity.status(respuesta.getStatusCode())
+                .headers(respuesta.getHeaders())
+                .cacheControl(CACHE_CONTROL)
+                .body(respuesta.getBody());
+    }
+
+    // Dentro de una transacción la nueva versión se publica después del commit: antes, un GET concurrente podría leer
+    // los datos anteriores con la nueva versión
+    public void actualizar(String recurso) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versiones.asMap().compute(recurso, (clave, anterior) -> nuevaVersion(anterior));
+                }
+            });
+        } else {
+            versiones.asMap().compute(recurso, (clave, anterior) -> nuevaVersion(anterior));
+        }
+    }
+
+    // Last-Modified tiene precisión de segundos: una versión nueva siempre avanza al menos un segundo sobre la anterior
+    private Version nuevaVersion(Version anterior) {
+        long ahora = System.currentTimeMillis() / 1000 * 1000;
+        long ultimaModificacion = anterior == null ? ahora : Math.max(ahora, anterior.ultimaModificacion() + 1000);
+        return new Version("W/\"" + nodo + "-" + secuencia.incrementAndGet() + "\"", ultimaModificacion);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.anbeld.ForoHub.infra.errores;
+
+public class CapacidadExcedida extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CapacidadExcedida(String s, long retryAfterSeconds) {
+        super(s);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posición (fecha_creacion, id) del último elemento entregado; el cliente la recibe como un token opaco
+public record CursorPaginacion(
+        LocalDateTime fechaCreacion,
+        Long id
+) {
+    public static final int TAMANO_MAXIMO = 100;
+
+    public String codificar() {
+        var valor = fechaCreacion + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Retorna null para un token vacío, que corresponde a la primera página
+    public static CursorPaginacion decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            var valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separador = valor.lastIndexOf('|');
+            return new CursorPaginacion(LocalDateTime.parse(valor.substring(0, separador)), Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidacionDeIntegridad("El cursor de paginación no es válido");
+        }
+    }
+
+    // Se pide un elemento extra para saber si existe una página siguiente sin ejecutar un COUNT
+    public static Pageable limite(int tamano) {
+        return PageRequest.ofSize(tamanoValido(tamano) + 1);
+    }
+
+    public static int tamanoValido(int tamano) {
+        return Math.max(1, Math.min(tamano, TAMANO_MAXIMO));
+    }
+}
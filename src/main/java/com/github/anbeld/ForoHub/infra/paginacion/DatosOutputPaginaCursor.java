@@ -0,0 +1,20 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Página obtenida por cursor; siguiente es null cuando no hay más elementos
+public record DatosOutputPaginaCursor<T>(
+        List<T> contenido,
+        String siguiente
+) {
+    // resultados contiene hasta tamano + 1 elementos, el elemento extra solo indica que existe una página siguiente
+    public static <E, T> DatosOutputPaginaCursor<T> desde(List<E> resultados, int tamano,
+                                                         Function<E, T> mapper, Function<E, CursorPaginacion> cursor) {
+        int tamanoPagina = CursorPaginacion.tamanoValido(tamano);
+        boolean haySiguiente = resultados.size() > tamanoPagina;
+        var pagina = haySiguiente ? resultados.subList(0, tamanoPagina) : resultados;
+        var siguiente = haySiguiente ? cursor.apply(pagina.get(pagina.size() - 1)).codificar() : null;
+        return new DatosOutputPaginaCursor<>(pagina.stream().map(mapper).toList(), siguiente);
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+
+import java.util.Locale;
+
+// Sentido en que se recorre la paginación por cursor: ASC desde los elementos más antiguos, DESC desde los más recientes
+public enum OrdenCursor {
+    ASC,
+    DESC;
+
+    public static OrdenCursor desde(String valor) {
+        try {
+            return valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidacionDeIntegridad("El orden de paginación debe ser asc o desc");
+        }
+    }
+}
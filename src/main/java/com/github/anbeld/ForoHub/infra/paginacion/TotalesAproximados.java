@@ -0,0 +1,74 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Totales aproximados para los listados sin COUNT (count=false), para clientes que necesitan mostrar un número de páginas
+// Cada COUNT se ejecuta a lo sumo una vez por periodo: al vencer se sigue entregando el valor anterior mientras se recalcula en segundo plano
+@Component
+public class TotalesAproximados {
+
+    // Header en el que los listados sin COUNT entregan el total aproximado
+    public static final String HEADER = "X-Total-Aproximado";
+
+    @Value("${api.paginacion.totales.refresco-segundos}")
+    private long REFRESCO_SEGUNDOS;
+
+    @Value("${api.paginacion.totales.maximum-size}")
+    private long MAXIMUM_SIZE;
+
+    // La clave identifica el listado y sus filtros; el conteo solo se conserva para recalcular el total
+    private static final class Consulta {
+        private final String clave;
+        private final LongSupplier conteo;
+
+        private Consulta(String clave, LongSupplier conteo) {
+            this.clave = clave;
+            this.conteo = conteo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Consulta otra && clave.equals(otra.clave);
+        }
+
+        @Override
+        public int hashCode() {
+            return clave.hashCode();
+        }
+    }
+
+    private LoadingCache<Consulta, Long> totales;
+
+    @PostConstruct
+    public void inicializarCache() {
+        totales = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .refreshAfterWrite(Duration.ofSeconds(REFRESCO_SEGUNDOS))
+                // Un total que no se consulta durante varios periodos se descarta en lugar de seguir recalculándose
+                .expireAfterAccess(Duration.ofSeconds(REFRESCO_SEGUNDOS * 10))
+                .build(consulta -> consulta.conteo.getAsLong());
+    }
+
+    // La clave debe incluir todos los parámetros que usa el conteo, por ejemplo "respuestas.autor.5"
+    public long total(String clave, LongSupplier conteo) {
+        return totales.get(new Consulta(clave, conteo));
+    }
+
+    // Respuesta de un listado sin COUNT; el total aproximado solo se agrega cuando el cliente lo pide con total=true
+    public static <T> ResponseEntity<Slice<T>> respuesta(Slice<T> slice, boolean total, LongSupplier totalAproximado) {
+        var respuesta = ResponseEntity.ok();
+        if (total) {
+            respuesta.header(HEADER, String.valueOf(totalAproximado.getAsLong()));
+        }
+        return respuesta.body(slice);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+// Algoritmos de firma soportados para los JWT
+// HS256 usa un secreto compartido; ES256 y EdDSA permiten que los nodos que solo verifican tengan únicamente la llave pública
+public enum AlgoritmoFirma {
+    HS256(Jwts.SIG.HS256, null),
+    ES256(Jwts.SIG.ES256, "EC"),
+    EDDSA(Jwts.SIG.EdDSA, "Ed25519");
+
+    private final SecureDigestAlgorithm<?, ?> algoritmo;
+    private final String tipoLlave;
+
+    AlgoritmoFirma(SecureDigestAlgorithm<?, ?> algoritmo, String tipoLlave) {
+        this.algoritmo = algoritmo;
+        this.tipoLlave = tipoLlave;
+    }
+
+    // Valor del header "alg" de los tokens firmados con este algoritmo
+    public String id() {
+        return algoritmo.getId();
+    }
+
+    public boolean isSimetrico() {
+        return tipoLlave == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public SecureDigestAlgorithm<Key, Key> algoritmo() {
+        return (SecureDigestAlgorithm<Key, Key>) algoritmo;
+    }
+
+    // Secreto HMAC para HS256 o llave pública X.509 para ES256 y EdDSA
+    public Key llaveVerificacion(byte[] codificada) {
+        if (isSimetrico()) {
+            return new SecretKeySpec(codificada, "HmacSHA256");
+        }
+        try {
+            return KeyFactory.getInstance(tipoLlave).generatePublic(new X509EncodedKeySpec(codificada));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Llave pública " + name() + " inválida", e);
+        }
+    }
+
+    // Llave privada PKCS#8, solo para algoritmos asimétricos
+    public PrivateKey llavePrivada(byte[] codificada) {
+        try {
+            return KeyFactory.getInstance(tipoLlave).generatePrivate(new PKCS8EncodedKeySpec(codificada));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Llave privada " + name() + " inválida", e);
+        }
+    }
+
+    public KeyPair generarPar() {
+        return switch (this) {
+            case ES256 -> Jwts.SIG.ES256.keyPair().build();
+            // Jwts.SIG.EdDSA genera Ed448 por defecto; se usa Ed25519, el tipo de llave esperado por llavePrivada
+            case EDDSA -> Jwks.CRV.Ed25519.keyPair().build();
+            case HS256 -> throw new IllegalStateException("HS256 no usa un par de llaves");
+        };
+    }
+
+    public static AlgoritmoFirma desde(String nombre) {
+        return valueOf(nombre.trim().toUpperCase());
+    }
+}
@@ -1,21 +1,69 @@
 package com.github.anbeld.ForoHub.infra.security;
 
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class AuthenticationService implements UserDetailsService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.security.usuarios.cache.maximum-size}")
+    private long CACHE_MAXIMUM_SIZE;
+
+    @Value("${api.security.usuarios.cache.ttl-seconds}")
+    private long CACHE_TTL_SECONDS;
+
+    // Copias inmutables de los usuarios autenticados, indexadas por email
+    private LoadingCache<String, UsuarioAutenticado> usuariosAutenticados;
+
+    // Tiempo de obtención del usuario por request, sea desde el cache o desde la base de datos
+    private Timer tiempoCargaUsuario;
+
+    @PostConstruct
+    public void inicializarCache() {
+        usuariosAutenticados = Caffeine.newBuilder()
+                .maximumSize(CACHE_MAXIMUM_SIZE)
+                .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECONDS))
+                .recordStats()
+                .build(email -> usuarioRepository.obtenerUsuarioPorEmail(email).map(UsuarioAutenticado::new).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosAutenticados, "usuarios.autenticados");
+        tiempoCargaUsuario = Timer.builder("auth.user.lookup")
+                .description("Tiempo de obtención del usuario autenticado en cada request")
+                .register(meterRegistry);
+    }
+
+    // Usado por el AuthenticationManager para verificar credenciales, por lo que necesita el hash completo
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         var usuario = usuarioRepository.findByEmail(username);
         return usuario;
     }
-}
\ No newline at end of file
+
+    // Usado en cada request autenticada: retorna la copia cacheada del usuario o null si no existe
+    public UsuarioAutenticado cargarUsuario(String email) {
+        return tiempoCargaUsuario.record(() -> usuariosAutenticados.get(email));
+    }
+
+    // Descarta la copia cacheada cuando el usuario cambia en la base de datos
+    public void invalidarUsuario(String email) {
+        usuariosAutenticados.invalidate(email);
+    }
+}
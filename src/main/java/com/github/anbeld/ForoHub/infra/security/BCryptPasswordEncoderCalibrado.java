@@ -0,0 +1,91 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt con el costo configurado que además marca para rehash los hashes con un costo menor
+// Los hashes con un costo mayor se conservan: así nodos con configuraciones distintas no se reescriben los hashes entre sí
+public class BCryptPasswordEncoderCalibrado extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptPasswordEncoderCalibrado.class);
+
+    private static final Pattern COSTO = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private static final int COSTO_MINIMO = 4;
+    private static final int COSTO_MAXIMO = 16;
+    private static final int MEDICIONES = 3;
+
+    private final int strength;
+
+    public BCryptPasswordEncoderCalibrado(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COSTO.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    // La calibración solo informa: el costo efectivo es siempre el configurado, igual en todos los nodos
+    public void recomendarCosto(Duration objetivo) {
+        int recomendado = calibrar(objetivo);
+        if (recomendado != strength) {
+            log.warn("BCrypt usa el costo configurado {}, para este hardware se recomienda {} (api.security.password.bcrypt.strength)",
+                    strength, recomendado);
+        }
+    }
+
+    // Mide el tiempo de un hash para cada costo candidato y retorna el más cercano al tiempo objetivo
+    // Reporta en el log los hashes por segundo por núcleo de cada costo medido
+    public static int calibrar(Duration objetivo) {
+        int mejorCosto = COSTO_MINIMO;
+        long mejorDiferencia = Long.MAX_VALUE;
+        long objetivoNanos = objetivo.toNanos();
+
+        log.info("Calibrando BCrypt para un objetivo de {} ms por hash", objetivo.toMillis());
+        for (int costo = COSTO_MINIMO; costo <= COSTO_MAXIMO; costo++) {
+            long nanos = medir(costo);
+            log.info("BCrypt costo {}: {} ms por hash, {} hashes/s por núcleo",
+                    costo, String.format("%.2f", nanos / 1_000_000.0), String.format("%.1f", 1_000_000_000.0 / nanos));
+
+            long diferencia = Math.abs(nanos - objetivoNanos);
+            if (diferencia < mejorDiferencia) {
+                mejorDiferencia = diferencia;
+                mejorCosto = costo;
+            }
+            // Cada costo duplica el tiempo: no tiene sentido medir costos más altos
+            if (nanos > objetivoNanos * 2) {
+                break;
+            }
+        }
+        log.info("Costo de BCrypt recomendado: {}", mejorCosto);
+        return mejorCosto;
+    }
+
+    // Mejor tiempo de varias mediciones, después de un hash de calentamiento
+    private static long medir(int costo) {
+        var encoder = new BCryptPasswordEncoder(costo);
+        encoder.encode("calentamiento");
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode("calibracion");
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return mejor;
+    }
+}
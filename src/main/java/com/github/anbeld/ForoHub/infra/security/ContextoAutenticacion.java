@@ -0,0 +1,29 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+// Rol e id verificados del usuario que realiza la request en curso
+public record ContextoAutenticacion(
+        Long userId,
+        String userRole
+) {
+    public static final ContextoAutenticacion ANONIMO = new ContextoAutenticacion(null, null);
+
+    public ContextoAutenticacion(UsuarioAutenticado usuario) {
+        this(usuario.id(), usuario.perfil().name());
+    }
+
+    public boolean isAutenticado() {
+        return userRole != null;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(userRole);
+    }
+
+    public boolean isEstudiante() {
+        return "ESTUDIANTE".equals(userRole);
+    }
+
+    public boolean isDocente() {
+        return "DOCENTE".equals(userRole);
+    }
+}
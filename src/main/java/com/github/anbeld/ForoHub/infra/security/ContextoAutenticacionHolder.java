@@ -0,0 +1,25 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+// Asocia el ContextoAutenticacion al hilo que atiende la request
+// SecurityFilter lo establece al autenticar y lo limpia al terminar la request
+public final class ContextoAutenticacionHolder {
+
+    private static final ThreadLocal<ContextoAutenticacion> CONTEXTO = new ThreadLocal<>();
+
+    private ContextoAutenticacionHolder() {
+    }
+
+    // Retorna el contexto de la request en curso, o ANONIMO si no hay un usuario autenticado
+    public static ContextoAutenticacion actual() {
+        var contexto = CONTEXTO.get();
+        return contexto != null ? contexto : ContextoAutenticacion.ANONIMO;
+    }
+
+    static void establecer(ContextoAutenticacion contexto) {
+        CONTEXTO.set(contexto);
+    }
+
+    static void limpiar() {
+        CONTEXTO.remove();
+    }
+}
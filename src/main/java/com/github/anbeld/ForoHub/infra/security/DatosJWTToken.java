@@ -2,5 +2,5 @@ package com.github.anbeld.ForoHub.infra.security;
 
 import jakarta.validation.constraints.NotBlank;
 
-public record DatosJWTToken(@NotBlank String jwTtoken) {
+public record DatosJWTToken(@NotBlank String jwTtoken, String refreshToken) {
 }
@@ -0,0 +1,28 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+// Claims de un token cuya firma y expiración ya fueron verificadas
+public record DatosTokenVerificado(
+        String jti,
+        String subject,
+        Long userId,
+        String userRole,
+        Integer tokenVersion,
+        Instant expiration
+) {
+    public DatosTokenVerificado(Claims claims) {
+        this(claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("userRole", String.class),
+                claims.get("tokenVersion", Integer.class),
+                claims.getExpiration().toInstant());
+    }
+
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom concurrente sin locks: puede dar falsos positivos pero nunca falsos negativos
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int numeroBits;
+    private final int numeroHashes;
+
+    public FiltroBloom(int capacidad, double probabilidadFalsoPositivo) {
+        long m = (long) Math.ceil(-capacidad * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.numeroBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / capacidad * Math.log(2)));
+        this.bits = new AtomicLongArray((numeroBits + 63) / 64);
+    }
+
+    public void agregar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numeroBits);
+            int indice = bit >>> 6;
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(indice);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(indice, actual, actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits con una mezcla final para repartir los bits altos y bajos
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
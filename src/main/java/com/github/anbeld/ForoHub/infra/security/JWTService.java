@@ -1,85 +1,227 @@
 package com.github.anbeld.ForoHub.infra.security;
 
-import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JWTService {
 
+    private static final Logger log = LoggerFactory.getLogger(JWTService.class);
+
     @Value("${api.security.token.secret_api}")
     private String SECRET_API;
 
     @Value("${api.security.token.secret_key}")
     private String SECRET_KEY_STRING;
 
-    private SecretKey SECRET_KEY;
+    @Value("${api.security.token.algoritmo}")
+    private String ALGORITMO;
 
-    public String extractUserName(String token){
-        return extractClaims(token, Claims::getSubject);
-    }
+    @Value("${api.security.token.kid}")
+    private String KID;
 
-    public Date extractExpiration(String token){
-        return extractClaims(token, Claims::getExpiration);
-    }
+    @Value("${api.security.token.llave-privada}")
+    private String LLAVE_PRIVADA;
+
+    @Value("${api.security.token.llave-publica}")
+    private String LLAVE_PUBLICA;
+
+    // Llaves anteriores que solo verifican, con formato kid:ALGORITMO:base64 separadas por coma
+    @Value("${api.security.token.llaves-verificacion}")
+    private String LLAVES_VERIFICACION;
+
+    @Value("${api.security.token.access-expiration-minutes}")
+    private long ACCESS_EXPIRATION_MINUTES;
+
+    @Value("${api.security.token.cache.maximum-size}")
+    private long CACHE_MAXIMUM_SIZE;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LlaveroJWT llavero;
+
+    // El parser es inmutable y thread-safe, se construye una sola vez
+    private JwtParser parser;
+
+    // Tiempo total de verificarToken, incluyendo las verificaciones resueltas desde el cache
+    private Timer tiempoParse;
+
+    // Tiempo de la verificación criptográfica de la firma, solo cuando el token no está en cache
+    private Timer tiempoVerificacion;
+
+    // Tokens ya verificados, indexados por el digest SHA-256 del token
+    private Cache<String, DatosTokenVerificado> tokensVerificados;
 
-    public <T> T extractClaims(String token, Function<Claims, T> claimsResolver){
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Verifica la firma y la expiración del token en una sola pasada
+    // Si el token ya fue verificado antes y no ha expirado, se reutilizan sus claims
+    public DatosTokenVerificado verificarToken(String token) {
+        return tiempoParse.record(() -> {
+            var tokenVerificado = tokensVerificados.get(digest(token), clave -> new DatosTokenVerificado(verificarFirma(token)));
+            if (tokenVerificado.isExpired()) {
+                // Expiró entre la consulta y la limpieza del cache: se verifica de nuevo para obtener el error de expiración
+                return new DatosTokenVerificado(verificarFirma(token));
+            }
+            return tokenVerificado;
+        });
     }
 
-    public Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private Claims verificarFirma(String token) {
+        return tiempoVerificacion.record(() -> extractAllClaims(token));
     }
 
-    private Boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
+    public Claims extractAllClaims(String token) {
+        return parser
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
-    public String generateToken(String userName, Perfil userRole){
+    // Incluye el id, el perfil y la versión de token del usuario para poder autenticarlo solo con los claims
+    public String generateToken(Usuario usuario){
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userRole", userRole);
-        return createToken(claims, userName);
+        claims.put("userId", usuario.getId());
+        claims.put("userRole", usuario.getUserRole());
+        claims.put("tokenVersion", usuario.getTokenVersion());
+        return createToken(claims, usuario.getEmail());
     }
 
     private String createToken(Map<String, Object> claims, String subject){
-        return Jwts.builder()
+        long ahora = System.currentTimeMillis();
+        return llavero.firmar(Jwts.builder()
+                .id(UUID.randomUUID().toString()) // Identifica el token para poder revocarlo
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 100 * 60 * 60 * 2)) // Se determina como fecha de expiración dos horas apartir de creado el token
-                .signWith(getSignInKey(), Jwts.SIG.HS256).compact();
+                .issuedAt(new Date(ahora))
+                .expiration(new Date(ahora + Duration.ofMinutes(ACCESS_EXPIRATION_MINUTES).toMillis()))); // Access token de corta duración, se renueva con el refresh token
     }
 
+    // Un solo punto de inicialización: el orden de los pasos no depende del orden en que el contenedor invoque los callbacks
     @PostConstruct
-    public void convertStringToSecretKey() {
-        byte[] claveBytes = Base64.getDecoder().decode(SECRET_KEY_STRING);
-        SECRET_KEY = new SecretKeySpec(claveBytes, "HmacSHA256");
+    public void inicializar() {
+        inicializarMetricas();
+        inicializarCacheTokens();
+        inicializarLlavero();
+    }
+
+    void inicializarLlavero() {
+        var algoritmo = AlgoritmoFirma.desde(ALGORITMO);
+        Key llaveFirma;
+        Key llaveVerificacion;
+        if (algoritmo.isSimetrico()) {
+            llaveFirma = llaveVerificacion = algoritmo.llaveVerificacion(Base64.getDecoder().decode(SECRET_KEY_STRING));
+        } else if (esVacio(LLAVE_PRIVADA) && esVacio(LLAVE_PUBLICA)) {
+            // Sin llaves configuradas se genera un par efímero: los tokens no sobreviven un reinicio ni se comparten entre nodos
+            log.warn("No hay llaves {} configuradas, se genera un par de llaves efímero", algoritmo);
+            var par = algoritmo.generarPar();
+            llaveFirma = par.getPrivate();
+            llaveVerificacion = par.getPublic();
+        } else {
+            if (esVacio(LLAVE_PUBLICA)) {
+                throw new IllegalStateException("api.security.token.llave-publica es obligatoria para " + algoritmo);
+            }
+            // Un nodo sin llave privada solo verifica tokens
+            llaveFirma = esVacio(LLAVE_PRIVADA) ? null : algoritmo.llavePrivada(Base64.getDecoder().decode(LLAVE_PRIVADA.trim()));
+            llaveVerificacion = algoritmo.llaveVerificacion(Base64.getDecoder().decode(LLAVE_PUBLICA.trim()));
+        }
+
+        llavero = new LlaveroJWT(new LlaveroJWT.Llave(KID, algoritmo, llaveVerificacion), llaveFirma, llavesAnteriores());
+        parser = Jwts.parser().keyLocator(llavero.localizador()).build();
+    }
+
+    private List<LlaveroJWT.Llave> llavesAnteriores() {
+        List<LlaveroJWT.Llave> llaves = new ArrayList<>();
+        if (esVacio(LLAVES_VERIFICACION)) {
+            return llaves;
+        }
+        for (String entrada : LLAVES_VERIFICACION.split(",")) {
+            String[] partes = entrada.trim().split(":", 3);
+            if (partes.length != 3) {
+                throw new IllegalStateException("Llave de verificación inválida, se espera kid:ALGORITMO:base64");
+            }
+            var algoritmo = AlgoritmoFirma.desde(partes[1]);
+            llaves.add(new LlaveroJWT.Llave(partes[0], algoritmo, algoritmo.llaveVerificacion(Base64.getDecoder().decode(partes[2]))));
+        }
+        return llaves;
+    }
+
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private void inicializarMetricas() {
+        tiempoParse = Timer.builder("auth.token.parse")
+                .description("Tiempo de verificación de un token, incluyendo el cache de tokens verificados")
+                .register(meterRegistry);
+        tiempoVerificacion = Timer.builder("auth.token.verify")
+                .description("Tiempo de verificación criptográfica de la firma de un token")
+                .tag("algoritmo", ALGORITMO)
+                .register(meterRegistry);
+    }
+
+    private void inicializarCacheTokens() {
+        // Cada entrada se elimina en el momento en que expira el token que representa
+        tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(CACHE_MAXIMUM_SIZE)
+                .expireAfter(new Expiry<String, DatosTokenVerificado>() {
+                    @Override
+                    public long expireAfterCreate(String clave, DatosTokenVerificado token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiration()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, DatosTokenVerificado token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(clave, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, DatosTokenVerificado token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "jwt.tokens.verificados");
     }
 
-    private SecretKey getSignInKey() {
-        return SECRET_KEY;
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails){
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public Boolean validateToken(DatosTokenVerificado token, UserDetails userDetails){
+        return (token.subject().equals(userDetails.getUsername()) && !token.isExpired());
     }
 }
@@ -0,0 +1,67 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import java.security.Key;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Llaves con las que se firman y verifican los JWT, identificadas por el header "kid"
+// Se firma siempre con la llave activa; las anteriores solo verifican, así una rotación no invalida los tokens vigentes
+public class LlaveroJWT {
+
+    public record Llave(String kid, AlgoritmoFirma algoritmo, Key verificacion) {
+    }
+
+    private final Llave activa;
+    private final Key llaveFirma;
+    private final Map<String, Llave> llaves = new HashMap<>();
+
+    // llaveFirma es null en los nodos que solo verifican tokens
+    public LlaveroJWT(Llave activa, Key llaveFirma, List<Llave> anteriores) {
+        this.activa = activa;
+        this.llaveFirma = llaveFirma;
+        anteriores.forEach(llave -> llaves.put(llave.kid(), llave));
+        llaves.put(activa.kid(), activa);
+    }
+
+    public Llave activa() {
+        return activa;
+    }
+
+    public boolean puedeFirmar() {
+        return llaveFirma != null;
+    }
+
+    public String firmar(JwtBuilder builder) {
+        if (llaveFirma == null) {
+            throw new IllegalStateException("El llavero no tiene llave privada para firmar tokens");
+        }
+        return builder.header().keyId(activa.kid()).and()
+                .signWith(llaveFirma, activa.algoritmo().algoritmo())
+                .compact();
+    }
+
+    // Selecciona la llave de verificación según el "kid" del token y exige que el "alg" sea el de esa llave
+    public Locator<Key> localizador() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                // Los tokens emitidos antes de usar "kid" se verifican con la llave activa
+                var llave = header.getKeyId() == null ? activa : llaves.get(header.getKeyId());
+                if (llave == null) {
+                    throw new UnsupportedJwtException("Llave de firma desconocida: " + header.getKeyId());
+                }
+                if (!llave.algoritmo().id().equals(header.getAlgorithm())) {
+                    throw new UnsupportedJwtException("Algoritmo " + header.getAlgorithm() + " no permitido para la llave " + llave.kid());
+                }
+                return llave.verificacion();
+            }
+        };
+    }
+}
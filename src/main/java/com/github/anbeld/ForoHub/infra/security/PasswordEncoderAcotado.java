@@ -0,0 +1,101 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.infra.errores.CapacidadExcedida;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ejecuta el hashing de contraseñas en un pool de tamaño fijo con una cola acotada
+// Cuando el pool está saturado el trabajo se rechaza de inmediato en lugar de ocupar los hilos de Tomcat
+// y el hilo de la request no espera el resultado más allá del timeout configurado
+public class PasswordEncoderAcotado implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rechazados;
+
+    public PasswordEncoderAcotado(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        var contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hashing-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Profundidad de la cola, hilos activos y tareas completadas del pool
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.encodeTimer = Timer.builder("password.hashing.duration").tag("operacion", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration").tag("operacion", "matches").register(meterRegistry);
+        this.rechazados = Counter.builder("password.hashing.rechazados").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            throw new CapacidadExcedida("El servicio de autenticación está saturado, intente de nuevo", retryAfterSeconds);
+        }
+        try {
+            return resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // La tarea sigue en cola o en ejecución: se cancela para no calcular un hash que nadie va a usar
+            resultado.cancel(true);
+            rechazados.increment();
+            throw new CapacidadExcedida("El servicio de autenticación está saturado, intente de nuevo", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
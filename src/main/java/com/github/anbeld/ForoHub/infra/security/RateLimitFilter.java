@@ -0,0 +1,145 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Limita las requests por usuario autenticado o, en las rutas públicas, por IP del cliente
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Cada grupo de rutas tiene su propio presupuesto de requests
+    public enum GrupoRuta {
+        PUBLICO, LECTURA, ESCRITURA
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.security.rate-limit.habilitado}")
+    private boolean HABILITADO;
+
+    @Value("${api.security.rate-limit.publico.capacidad}")
+    private long PUBLICO_CAPACIDAD;
+
+    @Value("${api.security.rate-limit.publico.periodo-segundos}")
+    private long PUBLICO_PERIODO_SEGUNDOS;
+
+    @Value("${api.security.rate-limit.lectura.capacidad}")
+    private long LECTURA_CAPACIDAD;
+
+    @Value("${api.security.rate-limit.lectura.periodo-segundos}")
+    private long LECTURA_PERIODO_SEGUNDOS;
+
+    @Value("${api.security.rate-limit.escritura.capacidad}")
+    private long ESCRITURA_CAPACIDAD;
+
+    @Value("${api.security.rate-limit.escritura.periodo-segundos}")
+    private long ESCRITURA_PERIODO_SEGUNDOS;
+
+    @Value("${api.security.rate-limit.buckets.maximum-size}")
+    private long BUCKETS_MAXIMUM_SIZE;
+
+    @Value("${api.security.rate-limit.buckets.idle-seconds}")
+    private long BUCKETS_IDLE_SECONDS;
+
+    private record Presupuesto(long capacidad, long periodoNanos) {
+    }
+
+    private record ClaveBucket(GrupoRuta grupo, Long userId, String ip) {
+    }
+
+    private final Map<GrupoRuta, Presupuesto> presupuestos = new EnumMap<>(GrupoRuta.class);
+
+    private final Map<GrupoRuta, Counter> requestsLimitadas = new EnumMap<>(GrupoRuta.class);
+
+    // Memoria acotada: los buckets inactivos se descartan, y uno descartado equivale a uno lleno
+    private Cache<ClaveBucket, TokenBucket> buckets;
+
+    @PostConstruct
+    public void inicializarBuckets() {
+        presupuestos.put(GrupoRuta.PUBLICO, new Presupuesto(PUBLICO_CAPACIDAD, TimeUnit.SECONDS.toNanos(PUBLICO_PERIODO_SEGUNDOS)));
+        presupuestos.put(GrupoRuta.LECTURA, new Presupuesto(LECTURA_CAPACIDAD, TimeUnit.SECONDS.toNanos(LECTURA_PERIODO_SEGUNDOS)));
+        presupuestos.put(GrupoRuta.ESCRITURA, new Presupuesto(ESCRITURA_CAPACIDAD, TimeUnit.SECONDS.toNanos(ESCRITURA_PERIODO_SEGUNDOS)));
+
+        for (var grupo : GrupoRuta.values()) {
+            requestsLimitadas.put(grupo, Counter.builder("http.server.requests.limitadas")
+                    .description("Requests rechazadas por el rate limiter")
+                    .tag("grupo", grupo.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        buckets = Caffeine.newBuilder()
+                .maximumSize(BUCKETS_MAXIMUM_SIZE)
+                .expireAfterAccess(Duration.ofSeconds(BUCKETS_IDLE_SECONDS))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!HABILITADO) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        var grupo = grupoRuta(request.getRequestURI(), request.getMethod());
+        var contexto = ContextoAutenticacionHolder.actual();
+
+        // Las rutas públicas y las requests sin token válido se limitan por IP
+        var clave = grupo != GrupoRuta.PUBLICO && contexto.isAutenticado()
+                ? new ClaveBucket(grupo, contexto.userId(), null)
+                : new ClaveBucket(grupo, null, request.getRemoteAddr());
+
+        var presupuesto = presupuestos.get(grupo);
+        long ahora = System.nanoTime();
+        var bucket = buckets.get(clave, c -> new TokenBucket(presupuesto.capacidad(), presupuesto.periodoNanos(), ahora));
+        long esperaNanos = bucket.consumir(ahora);
+
+        if (esperaNanos > 0) {
+            requestsLimitadas.get(grupo).increment();
+            long retryAfterSeconds = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Demasiadas solicitudes, intente nuevamente más tarde");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Login, refresh y registro son públicos; el resto se separa en lectura (GET) y escritura
+    public static GrupoRuta grupoRuta(String requestURI, String requestMethod) {
+        if (requestMethod.equals("POST") && (requestURI.equals("/login") || requestURI.equals("/estudiantes") ||
+                requestURI.equals("/docentes") || requestURI.equals("/api/login") ||
+                requestURI.equals("/api/login/refresh") || requestURI.equals("/api/estudiantes") ||
+                requestURI.equals("/api/docentes"))) {
+            return GrupoRuta.PUBLICO;
+        }
+        if (requestMethod.equals("GET") || requestMethod.equals("HEAD") || requestMethod.equals("OPTIONS")) {
+            return GrupoRuta.LECTURA;
+        }
+        return GrupoRuta.ESCRITURA;
+    }
+}
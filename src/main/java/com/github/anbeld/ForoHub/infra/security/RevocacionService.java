@@ -0,0 +1,100 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.token.TokenRevocado;
+import com.github.anbeld.ForoHub.domain.token.TokenRevocadoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revocación de access tokens por su jti
+// Los jti revocados se guardan en la tabla tokens_revocados y en un filtro de Bloom en memoria,
+// de modo que verificar un token no revocado nunca consulta la base de datos
+@Service
+public class RevocacionService {
+
+    @Autowired
+    private TokenRevocadoRepository repository;
+
+    @Value("${api.security.token.revocacion.bloom.capacidad}")
+    private int BLOOM_CAPACIDAD;
+
+    @Value("${api.security.token.revocacion.bloom.falsos-positivos}")
+    private double BLOOM_FALSOS_POSITIVOS;
+
+    private volatile FiltroBloom revocados;
+
+    // Jti agregados al filtro mientras se reconstruye; null cuando no hay una recarga en curso
+    private volatile Set<String> revocadosDuranteRecarga;
+
+    @PostConstruct
+    public void inicializarFiltro() {
+        recargarFiltro();
+    }
+
+    // Reconstruye el filtro desde la tabla: incorpora las revocaciones de otros nodos y descarta los tokens ya expirados
+    @Scheduled(fixedDelayString = "${api.security.token.revocacion.recarga-ms}", initialDelayString = "${api.security.token.revocacion.recarga-ms}")
+    public synchronized void recargarFiltro() {
+        // Se registra antes de leer la tabla: una revocación confirmada después de la lectura no queda en el nuevo filtro
+        Set<String> pendientes = ConcurrentHashMap.newKeySet();
+        revocadosDuranteRecarga = pendientes;
+
+        var ahora = LocalDateTime.now();
+        repository.eliminarExpirados(ahora);
+
+        var filtro = new FiltroBloom(BLOOM_CAPACIDAD, BLOOM_FALSOS_POSITIVOS);
+        repository.obtenerJtiVigentes(ahora).forEach(filtro::agregar);
+        revocados = filtro;
+
+        revocadosDuranteRecarga = null;
+        pendientes.forEach(filtro::agregar);
+    }
+
+    public boolean estaRevocado(String jti) {
+        if (jti == null || !revocados.puedeContener(jti)) {
+            return false;
+        }
+        // Posible falso positivo: se confirma en la base de datos
+        return repository.existsById(jti);
+    }
+
+    // Dentro de una transacción el jti se agrega al filtro después del commit, cuando la fila ya es visible para la recarga
+    public void revocar(String jti, Instant expiracion) {
+        if (jti == null) {
+            return;
+        }
+        repository.save(new TokenRevocado(jti, LocalDateTime.ofInstant(expiracion, ZoneId.systemDefault())));
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agregarAlFiltro(jti);
+                }
+            });
+        } else {
+            agregarAlFiltro(jti);
+        }
+    }
+
+    // Si una recarga reemplaza el filtro mientras se agrega el jti, se vuelve a agregar en el filtro nuevo
+    private void agregarAlFiltro(String jti) {
+        Set<String> pendientes = revocadosDuranteRecarga;
+        if (pendientes != null) {
+            pendientes.add(jti);
+        }
+        FiltroBloom filtro;
+        do {
+            filtro = revocados;
+            filtro.agregar(jti);
+        } while (filtro != revocados);
+    }
+}
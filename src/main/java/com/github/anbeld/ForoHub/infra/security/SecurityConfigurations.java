@@ -1,6 +1,8 @@
 package com.github.anbeld.ForoHub.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,7 +12,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -20,7 +22,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -29,9 +33,33 @@ public class SecurityConfigurations {
     @Autowired
     private SecurityFilter securityFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private AuthenticationService authenticationService;
 
+    @Value("${api.security.password.bcrypt.calibrar}")
+    private boolean BCRYPT_CALIBRAR;
+
+    @Value("${api.security.password.bcrypt.objetivo-ms}")
+    private long BCRYPT_OBJETIVO_MS;
+
+    @Value("${api.security.password.bcrypt.strength}")
+    private int BCRYPT_STRENGTH;
+
+    @Value("${api.security.password.hashing.threads}")
+    private int HASHING_THREADS;
+
+    @Value("${api.security.password.hashing.queue-capacity}")
+    private int HASHING_QUEUE_CAPACITY;
+
+    @Value("${api.security.password.hashing.timeout-ms}")
+    private long HASHING_TIMEOUT_MS;
+
+    @Value("${api.security.password.hashing.retry-after-seconds}")
+    private long HASHING_RETRY_AFTER_SECONDS;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,11 +68,18 @@ public class SecurityConfigurations {
                         .requestMatchers(HttpMethod.POST, "/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/docentes").permitAll()
                         .requestMatchers(HttpMethod.POST, "/estudiantes").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/login", "/api/login/refresh").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/docentes", "/api/estudiantes").permitAll()
                         .requestMatchers("/swagger-ui.html", "/v3/api-docs/**","/swagger-ui/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/topicos/cerrar").hasRole("DOCENTE")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                // SecurityFilter ocupa la posición previa a UsernamePasswordAuthenticationFilter, así el límite se aplica
+                // con el usuario ya identificado y antes de cualquier acceso a la base de datos de los controllers
+                .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .cors(withDefaults -> withDefaults.configurationSource(corsConfigurationSource()));
         return http.build();
     }
@@ -56,8 +91,20 @@ public class SecurityConfigurations {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        var bcrypt = new BCryptPasswordEncoderCalibrado(BCRYPT_STRENGTH);
+        // Se mide el hardware donde se ejecuta la aplicación para sugerir un costo acorde al tiempo objetivo
+        if (BCRYPT_CALIBRAR) {
+            bcrypt.recomendarCosto(Duration.ofMillis(BCRYPT_OBJETIVO_MS));
+        }
+
+        // Los hashes sin prefijo {bcrypt} o con un costo menor se actualizan en el siguiente login exitoso
+        var delegatingPasswordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // BCrypt se ejecuta en un pool acotado para que los picos de login no ocupen todos los hilos de Tomcat
+        return new PasswordEncoderAcotado(delegatingPasswordEncoder,
+                HASHING_THREADS, HASHING_QUEUE_CAPACITY, HASHING_TIMEOUT_MS, HASHING_RETRY_AFTER_SECONDS, meterRegistry);
     }
 
     @Bean
@@ -1,11 +1,18 @@
 package com.github.anbeld.ForoHub.infra.security;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,17 +20,54 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    // Resultado de la autenticación de cada request con ruta protegida
+    public enum ResultadoToken {
+        VALIDO, AUSENTE, EXPIRADO, MALFORMADO, INVALIDO, REVOCADO, RECHAZADO
+    }
+
     @Autowired
     private JWTService jwtService;
 
     @Autowired
     private AuthenticationService authenticationService;
 
-    private Claims claims;
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private RevocacionService revocacionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // claims: el principal se construye solo con el token; database: se consulta el usuario en cada request
+    @Value("${api.security.token.principal}")
+    private String modoPrincipal;
+
+    // Tiempo que el filtro agrega a cada request, sin contar el resto de la cadena
+    private Timer tiempoFiltro;
+
+    private final Map<ResultadoToken, Counter> resultados = new EnumMap<>(ResultadoToken.class);
+
+    @PostConstruct
+    public void inicializarMetricas() {
+        tiempoFiltro = Timer.builder("auth.filter")
+                .description("Tiempo de autenticación de una request en SecurityFilter")
+                .register(meterRegistry);
+        for (var resultado : ResultadoToken.values()) {
+            resultados.put(resultado, Counter.builder("auth.token.resultado")
+                    .description("Requests con ruta protegida según el resultado de la autenticación del token")
+                    .tag("resultado", resultado.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
 
     // Revisa las request, las válida y las realiza si la validación es correcta
     @Override
@@ -38,31 +82,87 @@ public class SecurityFilter extends OncePerRequestFilter {
             return;
         }
 
+        try {
+            long inicio = System.nanoTime();
+            try {
+                resultados.get(autenticarRequest(request)).increment();
+            } finally {
+                tiempoFiltro.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            // El hilo vuelve al pool: el contexto no debe quedar disponible para otra request
+            ContextoAutenticacionHolder.limpiar();
+        }
+    }
+
+    private ResultadoToken autenticarRequest(HttpServletRequest request) {
         // Obtener el token del header
         var authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            var token = authHeader.substring(7);
-            var nombreUsuario = jwtService.extractUserName(token); // Extraer nombre de usuario
-            claims = jwtService.extractAllClaims(token);
-            if (nombreUsuario != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Token válido
-                var usuario = authenticationService.loadUserByUsername(nombreUsuario);
-                if (jwtService.validateToken(token, usuario)) {  // Asegurarse de que el token es válido
-                    var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResultadoToken.AUSENTE;
+        }
+        var token = authHeader.substring(7);
+
+        DatosTokenVerificado tokenVerificado;
+        try {
+            tokenVerificado = jwtService.verificarToken(token); // Verifica firma y expiración una sola vez
+        } catch (ExpiredJwtException e) {
+            resultados.get(ResultadoToken.EXPIRADO).increment();
+            throw e;
+        } catch (MalformedJwtException | IllegalArgumentException e) {
+            resultados.get(ResultadoToken.MALFORMADO).increment();
+            throw e;
+        } catch (JwtException e) {
+            resultados.get(ResultadoToken.INVALIDO).increment();
+            throw e;
+        }
+
+        var nombreUsuario = tokenVerificado.subject(); // Extraer nombre de usuario
+        if (nombreUsuario == null) {
+            return ResultadoToken.RECHAZADO;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return ResultadoToken.VALIDO;
+        }
+        // Los tokens revocados por logout no autentican la request
+        if (revocacionService.estaRevocado(tokenVerificado.jti())) {
+            return ResultadoToken.REVOCADO;
+        }
+        if ("claims".equals(modoPrincipal)) {
+            // El token solo es válido si fue emitido con la versión vigente del usuario
+            if (tokenVersionService.esVigente(tokenVerificado)) {
+                autenticar(request, new UsuarioAutenticado(tokenVerificado));
+                return ResultadoToken.VALIDO;
+            }
+        } else {
+            // Token válido
+            var usuario = authenticationService.cargarUsuario(nombreUsuario);
+            if (usuario != null && usuario.isEnabled() && jwtService.validateToken(tokenVerificado, usuario)) {  // Asegurarse de que el token es válido
+                autenticar(request, usuario);
+                return ResultadoToken.VALIDO;
             }
         }
-        filterChain.doFilter(request, response);
+        return ResultadoToken.RECHAZADO;
+    }
+
+    private void autenticar(HttpServletRequest request, UsuarioAutenticado usuario) {
+        var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        ContextoAutenticacionHolder.establecer(new ContextoAutenticacion(usuario));
     }
 
     // Omite la validación para ciertas rutas y métodos
     private boolean omitirValidacion(String requestURI, String requestMethod) {
         if (requestMethod.equals("POST")) {
-            return requestURI.equals("/login") || requestURI.equals("/estudiantes") || requestURI.equals("/docentes");
+            return requestURI.equals("/login") || requestURI.equals("/estudiantes") || requestURI.equals("/docentes") ||
+                    requestURI.equals("/api/login") || requestURI.equals("/api/login/refresh") ||
+                    requestURI.equals("/api/estudiantes") || requestURI.equals("/api/docentes");
         } else {
-            return requestURI.startsWith("/swagger-ui.html") ||
+            return requestURI.startsWith("/actuator/health") ||
+                    requestURI.startsWith("/actuator/prometheus") ||
+                    requestURI.startsWith("/swagger-ui.html") ||
                     requestURI.startsWith("/v3/api-docs") ||
                     requestURI.startsWith("/swagger-ui") ||
                     requestURI.startsWith("/swagger-ui/index.html#/");
@@ -70,14 +170,14 @@ public class SecurityFilter extends OncePerRequestFilter {
     }
 
     public Boolean isAdmin() {
-        return claims != null && "ADMIN".equalsIgnoreCase((String) claims.get("userRole"));
+        return ContextoAutenticacionHolder.actual().isAdmin();
     }
 
     public Boolean isEstudiante() {
-        return claims != null && "ESTUDIANTE".equalsIgnoreCase((String) claims.get("userRole"));
+        return ContextoAutenticacionHolder.actual().isEstudiante();
     }
 
     public Boolean isDocente() {
-        return claims != null && "DOCENTE".equalsIgnoreCase((String) claims.get("userRole"));
+        return ContextoAutenticacionHolder.actual().isDocente();
     }
 }
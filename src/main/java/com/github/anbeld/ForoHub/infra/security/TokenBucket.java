@@ -0,0 +1,37 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sin locks: el estado es un único instante (en nanos) en que el bucket volvería a estar lleno,
+// así que consumir un token es un solo compareAndSet sin importar cuántos hilos compitan por el mismo bucket
+public class TokenBucket {
+
+    private final long nanosPorToken;
+    private final long nanosCapacidad;
+
+    // Instante teórico en que se repondría el último token consumido
+    private final AtomicLong instanteLleno;
+
+    public TokenBucket(long capacidad, long periodoNanos, long ahoraNanos) {
+        this.nanosPorToken = Math.max(1, periodoNanos / capacidad);
+        this.nanosCapacidad = nanosPorToken * capacidad;
+        this.instanteLleno = new AtomicLong(ahoraNanos);
+    }
+
+    // Retorna 0 si se consumió un token, o los nanos que faltan para que haya uno disponible
+    public long consumir(long ahoraNanos) {
+        while (true) {
+            long actual = instanteLleno.get();
+            // Un bucket inactivo no acumula más tokens que su capacidad
+            long base = actual - ahoraNanos < 0 ? ahoraNanos : actual;
+            long siguiente = base + nanosPorToken;
+            long exceso = siguiente - ahoraNanos - nanosCapacidad;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (instanteLleno.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+
+// Mantiene en memoria la versión vigente de los tokens de cada usuario
+// Las entradas se vuelven a leer de la base de datos al expirar, lo que acota el retraso entre nodos
+@Service
+public class TokenVersionService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${api.security.token.version.cache.maximum-size}")
+    private long CACHE_MAXIMUM_SIZE;
+
+    @Value("${api.security.token.version.cache.ttl-seconds}")
+    private long CACHE_TTL_SECONDS;
+
+    private LoadingCache<Long, Integer> versiones;
+
+    @PostConstruct
+    public void inicializarCache() {
+        versiones = Caffeine.newBuilder()
+                .maximumSize(CACHE_MAXIMUM_SIZE)
+                .expireAfterWrite(Duration.ofSeconds(CACHE_TTL_SECONDS))
+                .build(id -> usuarioRepository.obtenerTokenVersionPorId(id).orElse(null));
+    }
+
+    // Un token es vigente si fue emitido con la versión actual del usuario
+    public boolean esVigente(DatosTokenVerificado token) {
+        if (token.userId() == null || token.tokenVersion() == null) {
+            return false;
+        }
+        return Objects.equals(versiones.get(token.userId()), token.tokenVersion());
+    }
+
+    // Registra la nueva versión tras un cambio de credenciales o la desactivación del usuario
+    public void actualizarVersion(Long id, int tokenVersion) {
+        versiones.put(id, tokenVersion);
+    }
+}
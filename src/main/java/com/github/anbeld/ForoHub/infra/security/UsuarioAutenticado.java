@@ -0,0 +1,48 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// Principal inmutable del usuario autenticado, desacoplado de la entidad Usuario
+// Se construye a partir de los claims del token o como copia cacheable de la fila del usuario
+public record UsuarioAutenticado(
+        Long id,
+        String email,
+        Perfil perfil,
+        boolean status
+) implements UserDetails {
+
+    public UsuarioAutenticado(DatosTokenVerificado token) {
+        this(token.userId(), token.subject(), Perfil.valueOf(token.userRole()), true);
+    }
+
+    public UsuarioAutenticado(Usuario usuario) {
+        this(usuario.getId(), usuario.getEmail(), usuario.getUserRole(), usuario.isStatus());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + perfil.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status;
+    }
+}
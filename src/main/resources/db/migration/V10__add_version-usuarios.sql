@@ -0,0 +1 @@
+ALTER TABLE usuarios ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
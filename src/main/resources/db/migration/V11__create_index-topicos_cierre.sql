@@ -0,0 +1,3 @@
+-- Índice para el cierre de tópicos por filtro: recorre los tópicos abiertos de un curso en orden de id
+-- InnoDB agrega la llave primaria (id) al final del índice, por lo que el keyset por id no requiere un filesort
+CREATE INDEX idx_topicos_curso_id_resuelto ON topicos (curso_id, resuelto);
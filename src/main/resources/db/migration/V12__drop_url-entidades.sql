@@ -0,0 +1,4 @@
+ALTER TABLE usuarios DROP COLUMN url;
+ALTER TABLE cursos DROP COLUMN url;
+ALTER TABLE topicos DROP COLUMN url;
+ALTER TABLE respuestas DROP COLUMN url;
@@ -0,0 +1 @@
+ALTER TABLE usuarios ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
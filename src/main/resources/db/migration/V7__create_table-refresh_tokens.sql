@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    usuario_id BIGINT NOT NULL,
+    fecha_expiracion DATETIME NOT NULL,
+    revocado TINYINT NOT NULL,
+
+    PRIMARY KEY (id),
+
+    CONSTRAINT fk_refresh_tokens_usuario_id FOREIGN KEY (usuario_id) REFERENCES usuarios(id)
+);
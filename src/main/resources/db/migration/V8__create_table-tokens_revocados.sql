@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS tokens_revocados (
+    jti VARCHAR(36) NOT NULL,
+    fecha_expiracion DATETIME NOT NULL,
+
+    PRIMARY KEY (jti)
+);
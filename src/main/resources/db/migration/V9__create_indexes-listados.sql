@@ -0,0 +1,14 @@
+-- Índices para los filtros y ordenamientos de los listados
+-- InnoDB agrega la llave primaria (id) al final de cada índice secundario, por lo que también cubren el desempate por id de la paginación por cursor
+CREATE INDEX idx_topicos_resuelto_fecha_creacion ON topicos (resuelto, fecha_creacion);
+CREATE INDEX idx_topicos_fecha_creacion ON topicos (fecha_creacion);
+
+CREATE INDEX idx_respuestas_topico_id_fecha_creacion ON respuestas (topico_id, fecha_creacion);
+CREATE INDEX idx_respuestas_autor_id_fecha_creacion ON respuestas (autor_id, fecha_creacion);
+CREATE INDEX idx_respuestas_fecha_creacion ON respuestas (fecha_creacion);
+
+CREATE INDEX idx_usuarios_status_user_role_user_name ON usuarios (status, user_role, user_name);
+
+CREATE INDEX idx_cursos_docente_id_nombre ON cursos (docente_id, nombre);
+
+CREATE INDEX idx_cursos_estudiantes_estudiante_id_curso_id ON cursos_estudiantes (estudiante_id, curso_id);
@@ -13,6 +13,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -49,12 +51,11 @@ class AuthenticationControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.DOCENTE)
-                .url("/docentes/1")
                 .build();
         var datosLogin = new DatosInputLoginUsuario(docenteTest.getEmail(), docenteTest.getPassword());
 
         // Configuración del comportamiento esperado del servicio
-        given(service.login(datosLogin)).willReturn(new DatosJWTToken("thisIsTheToken15975345682"));
+        given(service.login(datosLogin)).willReturn(new DatosJWTToken("thisIsTheToken15975345682", "thisIsTheRefreshToken"));
 
         // when: Realización de la petición de login
         ResultActions response = mockMvc.perform(post("/api/login")
@@ -77,12 +78,11 @@ class AuthenticationControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .url("/estudiantes/1")
                 .build();
         var datosLogin = new DatosInputLoginUsuario(estudianteTest.getEmail(), estudianteTest.getPassword());
 
         // Configuración del comportamiento esperado del servicio
-        given(service.login(datosLogin)).willReturn(new DatosJWTToken("thisIsTheToken15975345682"));
+        given(service.login(datosLogin)).willReturn(new DatosJWTToken("thisIsTheToken15975345682", "thisIsTheRefreshToken"));
 
         // when: Realización de la petición de login
         ResultActions response = mockMvc.perform(post("/login")
@@ -94,4 +94,34 @@ class AuthenticationControllerTest {
                 .andDo(print())
                 .andExpect(jsonPath("$.jwTtoken", is("thisIsTheToken15975345682")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void loginConCredencialesInvalidas() throws Exception {
+        // given: El servicio rechaza la contraseña
+        var datosLogin = new DatosInputLoginUsuario("maria.docente@foro.com", "incorrecto");
+        given(service.login(datosLogin)).willThrow(new BadCredentialsException("Credenciales inválidas"));
+
+        // when: Realización de la petición de login
+        ResultActions response = mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(datosInputLoginUsuarioJacksonTester.write(datosLogin).getJson()));
+
+        // then: La respuesta es 401 y no 500
+        response.andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginUsuarioInactivo() throws Exception {
+        // given: El servicio rechaza un usuario desactivado
+        var datosLogin = new DatosInputLoginUsuario("laura.estudiante@foro.com", "password");
+        given(service.login(datosLogin)).willThrow(new DisabledException("Usuario inactivo"));
+
+        // when: Realización de la petición de login
+        ResultActions response = mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(datosInputLoginUsuarioJacksonTester.write(datosLogin).getJson()));
+
+        // then: La respuesta es 403
+        response.andExpect(status().isForbidden());
+    }
+}
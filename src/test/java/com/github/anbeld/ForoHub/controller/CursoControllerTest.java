@@ -20,9 +20,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -83,7 +83,7 @@ class CursoControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         cursoTest1 = Curso.builder()
@@ -92,15 +92,14 @@ class CursoControllerTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
-                .url("cursos/1")
+                .estudiantes(new HashSet<>())
                 .build();
 
-        cursoTest2 = Curso.builder().id(2L).nombre("Curso Test2").categoria(Categoria.BACKEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new ArrayList<>()).url("/api/cursos/2").build();
-        cursoTest3 = Curso.builder().id(3L).nombre("Curso Test3").categoria(Categoria.FRONTEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new ArrayList<>()).url("/api/cursos/3").build();
-        cursoTest4 = Curso.builder().id(4L).nombre("Curso Test4").categoria(Categoria.DEVOPS).numeroEstudiantes(0).docente(docenteTest).estudiantes(new ArrayList<>()).url("/api/cursos/4").build();
-        cursoTest5 = Curso.builder().id(5L).nombre("Curso Test5").categoria(Categoria.FRONTEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new ArrayList<>()).url("/api/cursos/5").build();
-        cursoTest6 = Curso.builder().id(6L).nombre("Curso Test6").categoria(Categoria.BACKEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new ArrayList<>()).url("/api/cursos/6").build();
+        cursoTest2 = Curso.builder().id(2L).nombre("Curso Test2").categoria(Categoria.BACKEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new HashSet<>()).build();
+        cursoTest3 = Curso.builder().id(3L).nombre("Curso Test3").categoria(Categoria.FRONTEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new HashSet<>()).build();
+        cursoTest4 = Curso.builder().id(4L).nombre("Curso Test4").categoria(Categoria.DEVOPS).numeroEstudiantes(0).docente(docenteTest).estudiantes(new HashSet<>()).build();
+        cursoTest5 = Curso.builder().id(5L).nombre("Curso Test5").categoria(Categoria.FRONTEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new HashSet<>()).build();
+        cursoTest6 = Curso.builder().id(6L).nombre("Curso Test6").categoria(Categoria.BACKEND).numeroEstudiantes(0).docente(docenteTest).estudiantes(new HashSet<>()).build();
     }
 
     @Test
@@ -114,7 +113,7 @@ class CursoControllerTest {
         );
 
         // Configuración del comportamiento esperado del servicio
-        given(service.registrarCurso(any(DatosInputRegistrarCurso.class), any(UriComponentsBuilder.class)))
+        given(service.registrarCurso(any(DatosInputRegistrarCurso.class)))
                 .willReturn(cursoTest1);
 
         // when: Realización de la petición para registrar un curso
@@ -237,9 +236,9 @@ class CursoControllerTest {
         // given: Configuración del comportamiento esperado del servicio
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("nombre"));
 
-        cursoTest1.registrarEstudiante(estudianteTest);
-        cursoTest4.registrarEstudiante(estudianteTest);
-        cursoTest6.registrarEstudiante(estudianteTest);
+        cursoTest1.getEstudiantes().add(estudianteTest);
+        cursoTest4.getEstudiantes().add(estudianteTest);
+        cursoTest6.getEstudiantes().add(estudianteTest);
 
         List<Curso> listaCursos = new ArrayList<>();
         listaCursos.add(cursoTest1);
@@ -18,9 +18,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.hasItem;
@@ -68,7 +68,6 @@ class DocenteControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.DOCENTE)
-                .url("/api/docentes/1")
                 .build();
     }
 
@@ -82,7 +81,7 @@ class DocenteControllerTest {
                 "password"
         );
 
-        given(service.registrarUsuario(any(DatosInputRegistrarUsuario.class), eq(Perfil.DOCENTE), any(UriComponentsBuilder.class)))
+        given(service.registrarUsuario(any(DatosInputRegistrarUsuario.class), eq(Perfil.DOCENTE)))
                 .willReturn(docenteTest);
 
         // when: Realización de la petición para registrar un docente
@@ -108,11 +107,11 @@ class DocenteControllerTest {
 
         // Creación de lista de docentes simulados para la prueba
         List<DatosOutputUsuario> listaEstudiantes = new ArrayList<>();
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(2L).userName("Gabriel Ramirez").email("gabriel.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).url("estudiantes/2").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(3L).userName("Julen Ramirez").email("julen.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).url("estudiantes/3").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(4L).userName("Biaggio Ramirez").email("biaggio.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).url("estudiantes/4").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(5L).userName("Adrian Ramirez").email("adrian.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).url("estudiantes/5").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(6L).userName("Christian Ramirez").email("christian.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).url("estudiantes/6").cursosEstudiante(new ArrayList<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(2L).userName("Gabriel Ramirez").email("gabriel.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(3L).userName("Julen Ramirez").email("julen.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(4L).userName("Biaggio Ramirez").email("biaggio.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(5L).userName("Adrian Ramirez").email("adrian.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(6L).userName("Christian Ramirez").email("christian.ramirez@foro..com").password("password").status(true).userRole(Perfil.DOCENTE).cursosEstudiante(new HashSet<>()).build()));
 
         given(service.listadoUsuariosActivosPorPerfil(paginacion, docenteTest.getUserRole())).willReturn(new PageImpl<>(listaEstudiantes, paginacion, listaEstudiantes.size()));
 
@@ -160,7 +159,6 @@ class DocenteControllerTest {
         given(service.actualizarPasswordUsuario(datos, docenteTest.getUserRole())).willReturn(new DatosOutputUsuario(docenteNewPassword));
 
         // when: Realización de la petición para actualizar la contraseña de un docente
-        docenteNewPassword.actualizarPassword(newPassword);
         ResultActions response = mockMvc.perform(put("/api/docentes")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(datosInputActualizarPasswordUsuarioJacksonTester.write(datos).getJson()));
@@ -18,9 +18,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.hasItem;
@@ -68,7 +68,6 @@ class EstudianteControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .url("/api/estudiantes/1")
                 .build();
     }
 
@@ -82,7 +81,7 @@ class EstudianteControllerTest {
                 "password"
         );
 
-        given(service.registrarUsuario(any(DatosInputRegistrarUsuario.class), eq(Perfil.ESTUDIANTE), any(UriComponentsBuilder.class)))
+        given(service.registrarUsuario(any(DatosInputRegistrarUsuario.class), eq(Perfil.ESTUDIANTE)))
                 .willReturn(estudianteTest);
 
         // when: Realización de la petición para registrar un estudiante
@@ -108,11 +107,11 @@ class EstudianteControllerTest {
 
         // Creación de lista de estudiantes simulados para la prueba
         List<DatosOutputUsuario> listaEstudiantes = new ArrayList<>();
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(2L).userName("Gabriel Ramirez").email("gabriel.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).url("estudiantes/2").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(3L).userName("Julen Ramirez").email("julen.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).url("estudiantes/3").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(4L).userName("Biaggio Ramirez").email("biaggio.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).url("estudiantes/4").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(5L).userName("Adrian Ramirez").email("adrian.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).url("estudiantes/5").cursosEstudiante(new ArrayList<>()).build()));
-        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(6L).userName("Christian Ramirez").email("christian.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).url("estudiantes/6").cursosEstudiante(new ArrayList<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(2L).userName("Gabriel Ramirez").email("gabriel.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(3L).userName("Julen Ramirez").email("julen.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(4L).userName("Biaggio Ramirez").email("biaggio.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(5L).userName("Adrian Ramirez").email("adrian.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).cursosEstudiante(new HashSet<>()).build()));
+        listaEstudiantes.add(new DatosOutputUsuario(Usuario.builder().id(6L).userName("Christian Ramirez").email("christian.ramirez@foro..com").password("password").status(true).userRole(Perfil.ESTUDIANTE).cursosEstudiante(new HashSet<>()).build()));
 
         given(service.listadoUsuariosActivosPorPerfil(paginacion, estudianteTest.getUserRole())).willReturn(new PageImpl<>(listaEstudiantes, paginacion, listaEstudiantes.size()));
 
@@ -159,7 +158,6 @@ class EstudianteControllerTest {
         given(service.actualizarPasswordUsuario(datos, estudianteTest.getUserRole())).willReturn(new DatosOutputUsuario(estudianteNewPassword));
 
         // when: Realización de la petición para actualizar la contraseña de un estudiante
-        estudianteNewPassword.actualizarPassword(newPassword);
         ResultActions response = mockMvc.perform(put("/api/estudiantes")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(datosInputActualizarPasswordUsuarioJacksonTester.write(datos).getJson()));
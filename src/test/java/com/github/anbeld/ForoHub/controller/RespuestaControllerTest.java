@@ -26,10 +26,10 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -89,7 +89,7 @@ class RespuestaControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         cursoTest = Curso.builder()
@@ -98,8 +98,7 @@ class RespuestaControllerTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
-                .url("/api/cursos/1")
+                .estudiantes(new HashSet<>())
                 .build();
 
         topicoTest = Topico.builder()
@@ -111,7 +110,7 @@ class RespuestaControllerTest {
                 .autor(docenteTest)
                 .curso(cursoTest)
                 .respuestas(new ArrayList<>())
-                .url("/api/cursos/1").build();
+                .build();
 
         respuestaTest1 = Respuesta.builder()
                 .id(1L)
@@ -119,14 +118,13 @@ class RespuestaControllerTest {
                 .fechaCreacion(LocalDateTime.now())
                 .autor(estudianteTest)
                 .respuesta("Esta es la primera respuesta")
-                .url("/api/respuestas/2")
                 .build();
 
-        respuestaTest2 = Respuesta.builder().id(2L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la segunda respuesta").url("/api/respuestas/2").build();
-        respuestaTest3 = Respuesta.builder().id(3L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(docenteTest).respuesta("Esta es la tercera respuesta").url("/api/respuestas/3").build();
-        respuestaTest4 = Respuesta.builder().id(4L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la cuarta respuesta").url("/api/respuestas/4").build();
-        respuestaTest5 = Respuesta.builder().id(5L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(docenteTest).respuesta("Esta es la quinta respuesta").url("/api/respuestas/5").build();
-        respuestaTest6 = Respuesta.builder().id(6L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la sexta respuesta").url("/api/respuestas/6").build();
+        respuestaTest2 = Respuesta.builder().id(2L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la segunda respuesta").build();
+        respuestaTest3 = Respuesta.builder().id(3L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(docenteTest).respuesta("Esta es la tercera respuesta").build();
+        respuestaTest4 = Respuesta.builder().id(4L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la cuarta respuesta").build();
+        respuestaTest5 = Respuesta.builder().id(5L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(docenteTest).respuesta("Esta es la quinta respuesta").build();
+        respuestaTest6 = Respuesta.builder().id(6L).topico(topicoTest).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).respuesta("Esta es la sexta respuesta").build();
     }
 
     @Test
@@ -140,7 +138,7 @@ class RespuestaControllerTest {
         );
 
         // Configuración del comportamiento esperado del servicio
-        given(service.registrarRespuesta(any(DatosInputRespuesta.class), any(UriComponentsBuilder.class)))
+        given(service.registrarRespuesta(any(DatosInputRespuesta.class)))
                 .willReturn(respuestaTest1);
 
         // when: Realización de la petición para registrar una respuesta
@@ -2,12 +2,16 @@ package com.github.anbeld.ForoHub.controller;
 
 import com.github.anbeld.ForoHub.domain.curso.Categoria;
 import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.domain.topico.DatosInputCerrarTopicos;
 import com.github.anbeld.ForoHub.domain.topico.DatosInputTopico;
+import com.github.anbeld.ForoHub.domain.topico.DatosOutputCierreTopico;
 import com.github.anbeld.ForoHub.domain.topico.DatosOutputTopico;
+import com.github.anbeld.ForoHub.domain.topico.ResultadoCierre;
 import com.github.anbeld.ForoHub.domain.topico.Topico;
 import com.github.anbeld.ForoHub.domain.topico.TopicoService;
 import com.github.anbeld.ForoHub.domain.usuario.Perfil;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.infra.paginacion.TotalesAproximados;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,25 +22,32 @@ import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,6 +64,9 @@ class TopicoControllerTest {
     @Autowired
     private JacksonTester<DatosInputTopico> DatosInputTopicoJacksonTester;
 
+    @Autowired
+    private JacksonTester<DatosInputCerrarTopicos> DatosInputCerrarTopicosJacksonTester;
+
     @MockBean
     private TopicoService service;
 
@@ -87,7 +101,7 @@ class TopicoControllerTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         cursoTest = Curso.builder()
@@ -96,8 +110,7 @@ class TopicoControllerTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
-                .url("cursos/1")
+                .estudiantes(new HashSet<>())
                 .build();
 
         topicoTest1 = Topico.builder()
@@ -108,13 +121,13 @@ class TopicoControllerTest {
                 .fechaCreacion(LocalDateTime.now())
                 .autor(docenteTest)
                 .curso(cursoTest)
-                .url("/api/topicos/1").build();
+                .build();
 
-        topicoTest2 = Topico.builder().id(2L).titulo("Tópico Test").mensaje("Este es el segundo tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).url("/api/topicos/2").build();
-        topicoTest3 = Topico.builder().id(3L).titulo("Tópico Test").mensaje("Este es el tercer tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(docenteTest).curso(cursoTest).url("/api/topicos/3").build();
-        topicoTest4 = Topico.builder().id(4L).titulo("Tópico Test").mensaje("Este es el cuarto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).url("/api/topicos/4").build();
-        topicoTest5 = Topico.builder().id(5L).titulo("Tópico Test").mensaje("Este es el quinto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(docenteTest).curso(cursoTest).url("/api/topicos/5").build();
-        topicoTest6 = Topico.builder().id(6L).titulo("Tópico Test").mensaje("Este es el sexto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).url("/api/topicos/6").build();
+        topicoTest2 = Topico.builder().id(2L).titulo("Tópico Test").mensaje("Este es el segundo tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).build();
+        topicoTest3 = Topico.builder().id(3L).titulo("Tópico Test").mensaje("Este es el tercer tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(docenteTest).curso(cursoTest).build();
+        topicoTest4 = Topico.builder().id(4L).titulo("Tópico Test").mensaje("Este es el cuarto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).build();
+        topicoTest5 = Topico.builder().id(5L).titulo("Tópico Test").mensaje("Este es el quinto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(docenteTest).curso(cursoTest).build();
+        topicoTest6 = Topico.builder().id(6L).titulo("Tópico Test").mensaje("Este es el sexto tópico").resuelto(false).fechaCreacion(LocalDateTime.now()).autor(estudianteTest).curso(cursoTest).build();
     }
 
     @Test
@@ -129,7 +142,7 @@ class TopicoControllerTest {
         );
 
         // Configuración del comportamiento esperado del servicio
-        given(service.registrarTopico(any(DatosInputTopico.class), any(UriComponentsBuilder.class)))
+        given(service.registrarTopico(any(DatosInputTopico.class)))
                 .willReturn(topicoTest1);
 
         // when: Realización de la petición para registrar un tópico
@@ -141,6 +154,7 @@ class TopicoControllerTest {
         response.andExpect(status().isCreated())
                 .andDo(print())
                 .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/topicos/" + topicoTest1.getId()))
                 .andExpect(jsonPath("$.topico_id").value(topicoTest1.getId()))
                 .andExpect(jsonPath("$.autor").value(topicoTest1.getAutor().getUserName()))
                 .andExpect(jsonPath("$.titulo").value(topicoTest1.getTitulo()))
@@ -333,4 +347,96 @@ class TopicoControllerTest {
         response.andExpect(status().isNoContent())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "DOCENTE")
+    void cerrarTopicos() throws Exception {
+        // given: Solicitud de cierre por ids y resultado de cada tópico
+        DatosInputCerrarTopicos datosInput = new DatosInputCerrarTopicos(List.of(1L, 2L), null, null);
+        given(service.cerrarTopicos(any(DatosInputCerrarTopicos.class), any())).willReturn(List.of(
+                new DatosOutputCierreTopico(1L, ResultadoCierre.CERRADO),
+                new DatosOutputCierreTopico(2L, ResultadoCierre.NO_ENCONTRADO)));
+
+        // when: Realización de la petición para cerrar los tópicos
+        ResultActions response = mockMvc.perform(post("/api/topicos/cerrar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(DatosInputCerrarTopicosJacksonTester.write(datosInput).getJson()));
+
+        // then: Verificación del resultado de cada id
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].topico_id").value(1))
+                .andExpect(jsonPath("$[0].resultado").value("CERRADO"))
+                .andExpect(jsonPath("$[1].topico_id").value(2))
+                .andExpect(jsonPath("$[1].resultado").value("NO_ENCONTRADO"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ESTUDIANTE")
+    void cerrarTopicosSinRolDocente() throws Exception {
+        // given: Solicitud de cierre por filtro de un estudiante
+        DatosInputCerrarTopicos datosInput = new DatosInputCerrarTopicos(null, 1L, null);
+
+        // when: Realización de la petición para cerrar los tópicos
+        ResultActions response = mockMvc.perform(post("/api/topicos/cerrar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(DatosInputCerrarTopicosJacksonTester.write(datosInput).getJson()));
+
+        // then: La petición se rechaza sin cerrar ningún tópico
+        response.andExpect(status().isForbidden());
+        verify(service, never()).cerrarTopicos(any(DatosInputCerrarTopicos.class), any());
+    }
+
+    @Test
+    @WithMockUser
+    void obtenerTopicosActivosSinConteo() throws Exception {
+        // given: Preparación de datos de paginación
+        Pageable paginacion = PageRequest.of(0, 2, Sort.by("fechaCreacion"));
+
+        // Configuración del comportamiento esperado del servicio: una página con página siguiente y su total aproximado
+        given(service.obtenerTopicosPorStatusSinConteo(paginacion, false)).willReturn(new SliceImpl<>(
+                List.of(new DatosOutputTopico(topicoTest1), new DatosOutputTopico(topicoTest2)), paginacion, true));
+        given(service.contarTopicosPorStatus(false)).willReturn(6L);
+
+        // when: Realización de la petición sin COUNT y con total aproximado
+        ResultActions response = mockMvc.perform(get("/api/topicos")
+                .param("count", "false")
+                .param("total", "true")
+                .param("size", "2"));
+
+        // then: Verificación de la respuesta
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(TotalesAproximados.HEADER, "6"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.content[0].topico_id").value(topicoTest1.getId()))
+                .andExpect(jsonPath("$.content[1].topico_id").value(topicoTest2.getId()));
+        verify(service, never()).obtenerTopicosActivos(any());
+    }
+
+    @Test
+    @WithMockUser
+    void obtenerTopicosActivosNoModificado() throws Exception {
+        // given: Preparación de datos de paginación
+        Pageable paginacion = PageRequest.of(0, 10, Sort.by("fechaCreacion"));
+        given(service.obtenerTopicosActivos(paginacion)).willReturn(new PageImpl<>(
+                List.of(new DatosOutputTopico(topicoTest2)), paginacion, 1));
+
+        // when: Una primera petición obtiene el ETag y la segunda lo envía en If-None-Match
+        String etag = mockMvc.perform(get("/api/topicos"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ResultActions response = mockMvc.perform(get("/api/topicos").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then: La segunda petición responde 304 sin cuerpo y sin volver a consultar el servicio
+        response.andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+        verify(service, times(1)).obtenerTopicosActivos(paginacion);
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.anbeld.ForoHub.domain;
+
+import com.github.anbeld.ForoHub.domain.curso.Categoria;
+import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
+import com.github.anbeld.ForoHub.domain.curso.CursoService;
+import com.github.anbeld.ForoHub.domain.curso.DatosInputRegistrarCurso;
+import com.github.anbeld.ForoHub.domain.curso.DatosInputRegistrarEstudianteCurso;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioService;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static com.github.anbeld.ForoHub.infra.cache.CacheSegundoNivelConfiguration.REGION_CURSOS;
+import static com.github.anbeld.ForoHub.infra.cache.CacheSegundoNivelConfiguration.REGION_USUARIOS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Verifica que cursos y usuarios se obtengan de la cache de segundo nivel
+// y que las operaciones que los modifican no dejen datos desactualizados en el nodo
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Usuario docenteTest;
+    private Usuario estudianteTest;
+    private Curso cursoTest;
+    private Curso cursoRegistrado;
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        docenteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Maria Docente")
+                .email("maria.docente.cache@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.DOCENTE)
+                .cursosDocente(new ArrayList<>())
+                .build());
+
+        estudianteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Pablo Estudiante")
+                .email("pablo.estudiante.cache@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.ESTUDIANTE)
+                .cursosEstudiante(new HashSet<>())
+                .build());
+
+        cursoTest = cursoRepository.save(Curso.builder()
+                .nombre("Curso Cache")
+                .categoria(Categoria.BACKEND)
+                .numeroEstudiantes(0)
+                .docente(docenteTest)
+                .estudiantes(new HashSet<>())
+                .build());
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cursos_estudiantes WHERE curso_id = ?", cursoTest.getId());
+        if (cursoRegistrado != null) {
+            cursoRepository.deleteById(cursoRegistrado.getId());
+        }
+        cursoRepository.deleteById(cursoTest.getId());
+        usuarioRepository.deleteById(estudianteTest.getId());
+        usuarioRepository.deleteById(docenteTest.getId());
+    }
+
+    @DisplayName("Test - Obtener un curso y su docente desde la cache sin consultar la base de datos")
+    @Test
+    void cursoDesdeCache() {
+        // when: Obtener un curso registrado previamente
+        Curso curso = cursoRepository.obtenerCursoPorId(cursoTest.getId()).orElseThrow();
+
+        // then: El curso y su docente se entregan desde sus regiones, sin ninguna consulta
+        assertThat(curso.getDocente().getId()).isEqualTo(docenteTest.getId());
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+        assertThat(estadisticas.getDomainDataRegionStatistics(REGION_CURSOS).getHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getDomainDataRegionStatistics(REGION_USUARIOS).getHitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Test - Registrar un estudiante invalida el curso y conserva los usuarios en cache")
+    @Test
+    void registrarEstudianteInvalidaCurso() {
+        // given: El curso se encuentra en la cache
+        cursoRepository.obtenerCursoPorId(cursoTest.getId());
+
+        // when: Registrar un estudiante en el curso
+        cursoService.registrarEstudiante(new DatosInputRegistrarEstudianteCurso(cursoTest.getId(), estudianteTest.getId()));
+        estadisticas.clear();
+
+        // then: El contador se lee actualizado y el estudiante se sigue obteniendo desde la cache
+        assertThat(cursoRepository.obtenerCursoPorId(cursoTest.getId()).orElseThrow().getNumeroEstudiantes()).isEqualTo(1);
+        long consultasCurso = estadisticas.getPrepareStatementCount();
+        usuarioRepository.findById(estudianteTest.getId());
+
+        assertThat(consultasCurso).isEqualTo(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(consultasCurso);
+    }
+
+    @DisplayName("Test - Verificar el perfil al inscribir un estudiante sin usar la cache")
+    @Test
+    void verificarPerfilSinCache() {
+        // given: El estudiante está en la cache y otro nodo cambia su perfil directamente en la base de datos
+        usuarioRepository.findById(estudianteTest.getId()).orElseThrow();
+        jdbcTemplate.update("UPDATE usuarios SET user_role = 'DOCENTE' WHERE id = ?", estudianteTest.getId());
+
+        // when - then: La inscripción lee el perfil vigente y la rechaza aunque la cache siga entregando el perfil anterior
+        assertThat(usuarioRepository.findById(estudianteTest.getId()).orElseThrow().getUserRole()).isEqualTo(Perfil.ESTUDIANTE);
+        assertThrows(ValidacionDeIntegridad.class, () -> cursoService.registrarEstudiante(
+                new DatosInputRegistrarEstudianteCurso(cursoTest.getId(), estudianteTest.getId())));
+    }
+
+    @DisplayName("Test - Registrar un curso invalida los cursos del docente en cache")
+    @Test
+    void registrarCursoInvalidaCursosDocente() {
+        // given: Los cursos del docente se encuentran en la cache
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        assertThat(cursosDelDocente(transaccion)).isEqualTo(1);
+
+        // when: Registrar un nuevo curso del docente
+        cursoRegistrado = cursoService.registrarCurso(new DatosInputRegistrarCurso("Curso Cache 2", Categoria.DEVOPS, docenteTest.getId()));
+
+        // then: La colección se vuelve a cargar con el nuevo curso
+        assertThat(cursosDelDocente(transaccion)).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Desactivar un usuario actualiza la entidad en cache")
+    @Test
+    void desactivarUsuarioActualizaCache() {
+        // given: El estudiante se encuentra en la cache
+        assertThat(usuarioRepository.findById(estudianteTest.getId()).orElseThrow().isStatus()).isTrue();
+
+        // when: Desactivar el estudiante
+        usuarioService.desactivarUsuario(estudianteTest.getId(), Perfil.ESTUDIANTE);
+
+        // then: La siguiente lectura entrega el usuario desactivado
+        assertThat(usuarioRepository.findById(estudianteTest.getId()).orElseThrow().isStatus()).isFalse();
+    }
+
+    @DisplayName("Test - Rechazar la escritura de una copia desactualizada del usuario")
+    @Test
+    void escrituraConCopiaDesactualizada() {
+        // given: Una copia del estudiante leída antes de desactivarlo
+        Usuario copia = usuarioRepository.findById(estudianteTest.getId()).orElseThrow();
+        usuarioService.desactivarUsuario(estudianteTest.getId(), Perfil.ESTUDIANTE);
+
+        // when - then: Guardar la copia falla en lugar de restaurar el estado anterior
+        ReflectionTestUtils.setField(copia, "password", "otroHash");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> usuarioRepository.save(copia));
+
+        Usuario registrado = usuarioRepository.findById(estudianteTest.getId()).orElseThrow();
+        assertThat(registrado.isStatus()).isFalse();
+        assertThat(registrado.getPassword()).isEqualTo("password");
+        assertThat(registrado.getTokenVersion()).isEqualTo(1);
+    }
+
+    private int cursosDelDocente(TransactionTemplate transaccion) {
+        return transaccion.execute(status -> usuarioRepository.findById(docenteTest.getId()).orElseThrow().getCursosDocente().size());
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.anbeld.ForoHub.domain;
+
+import com.github.anbeld.ForoHub.domain.curso.Categoria;
+import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
+import com.github.anbeld.ForoHub.domain.respuesta.Respuesta;
+import com.github.anbeld.ForoHub.domain.respuesta.RespuestaRepository;
+import com.github.anbeld.ForoHub.domain.topico.DatosInputTopico;
+import com.github.anbeld.ForoHub.domain.topico.Topico;
+import com.github.anbeld.ForoHub.domain.topico.TopicoRepository;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verifica que los listados no ejecuten consultas adicionales por cada fila (N+1)
+// y que registrar una respuesta no cargue las respuestas existentes del tópico
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ConsultasListadosTest {
+
+    // Menor que el número de filas registradas, así la paginación también ejecuta el COUNT
+    private static final int TAMANO_PAGINA = 2;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario docenteTest;
+    private Usuario estudianteTest;
+    private Topico topicoTest;
+    private Statistics estadisticas;
+
+    // Registra tres tópicos con una respuesta cada uno y vacía el contexto de persistencia
+    @BeforeEach
+    void setUp() {
+        docenteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Maria Docente")
+                .email("maria.docente@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.DOCENTE)
+                .cursosDocente(new ArrayList<>())
+                .build());
+
+        estudianteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Pablo Estudiante")
+                .email("pablo.estudiante@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.ESTUDIANTE)
+                .cursosEstudiante(new HashSet<>())
+                .build());
+
+        Curso cursoTest = cursoRepository.save(Curso.builder()
+                .nombre("Curso Test")
+                .categoria(Categoria.DEVOPS)
+                .numeroEstudiantes(0)
+                .docente(docenteTest)
+                .estudiantes(new HashSet<>())
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            topicoTest = topicoRepository.save(Topico.builder()
+                    .titulo("Tópico test " + i)
+                    .mensaje("Tópico para conteo de consultas")
+                    .resuelto(false)
+                    .fechaCreacion(LocalDateTime.now())
+                    .autor(estudianteTest)
+                    .curso(cursoTest)
+                    .build());
+
+            respuestaRepository.save(Respuesta.builder()
+                    .topico(topicoTest)
+                    .fechaCreacion(LocalDateTime.now())
+                    .autor(docenteTest)
+                    .respuesta("Respuesta " + i)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @DisplayName("Test - Listado paginado de tópicos con una consulta de datos y una de conteo")
+    @Test
+    void listadoTopicosSinConsultasPorFila() {
+        // given: Paginación más pequeña que el total de tópicos
+        Pageable paginacion = PageRequest.of(0, TAMANO_PAGINA, Sort.by("fechaCreacion"));
+
+        // when: Obtener la página de tópicos activos
+        var topicos = topicoRepository.obtenerTopicosPorStatus(paginacion, false);
+
+        // then: El autor y el curso llegan en la misma consulta
+        assertThat(topicos.getContent()).hasSize(TAMANO_PAGINA);
+        assertThat(topicos.getContent()).allSatisfy(t -> {
+            assertThat(t.autor()).isEqualTo(estudianteTest.getUserName());
+            assertThat(t.nombre_curso()).isEqualTo("Curso Test");
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Listado de tópicos por cursor con una sola consulta")
+    @Test
+    void listadoTopicosPorCursorSinConsultasPorFila() {
+        // when: Obtener la primera página de tópicos activos por cursor
+        var topicos = topicoRepository.obtenerPrimerosTopicosPorStatus(false, CursorPaginacion.limite(TAMANO_PAGINA));
+
+        // then: No se ejecuta un COUNT ni consultas por fila
+        assertThat(topicos).hasSize(TAMANO_PAGINA + 1);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Test - Listado paginado de respuestas por autor con una consulta de datos y una de conteo")
+    @Test
+    void listadoRespuestasSinConsultasPorFila() {
+        // given: Paginación más pequeña que el total de respuestas
+        Pageable paginacion = PageRequest.of(0, TAMANO_PAGINA, Sort.by("fechaCreacion"));
+
+        // when: Obtener la página de respuestas del docente
+        var respuestas = respuestaRepository.obtenerRespuestasPorAutor(paginacion, docenteTest.getId());
+
+        // then: El tópico, el curso y el autor llegan en la misma consulta
+        assertThat(respuestas.getTotalElements()).isEqualTo(3);
+        assertThat(respuestas.getContent()).allSatisfy(r -> {
+            assertThat(r.autor()).isEqualTo(docenteTest.getUserName());
+            assertThat(r.curso()).isEqualTo("Curso Test");
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Listado paginado de cursos de un docente con una consulta de datos y una de conteo")
+    @Test
+    void listadoCursosSinConsultasPorFila() {
+        // when: Obtener los cursos del docente
+        var cursos = cursoRepository.obtenerCursosPorIdDocente(PageRequest.of(0, TAMANO_PAGINA), docenteTest.getId());
+
+        // then: La página está completa sin cargar el docente; al ser la única página no se ejecuta el COUNT
+        assertThat(cursos.getContent()).hasSize(1);
+        assertThat(cursos.getContent().get(0).docente()).isEqualTo(docenteTest.getUserName());
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Test - Registrar una respuesta ejecuta las mismas consultas sin importar el tamaño del tópico")
+    @Test
+    void registrarRespuestaSinCargarRespuestasDelTopico() {
+        // given: Un tópico con muchas respuestas y otro sin respuestas
+        Topico topicoGrande = topicoRepository.findById(topicoTest.getId()).orElseThrow();
+        Usuario autor = usuarioRepository.findById(docenteTest.getId()).orElseThrow();
+        for (int i = 0; i < 200; i++) {
+            respuestaRepository.save(new Respuesta("Respuesta masiva " + i, autor, topicoGrande));
+        }
+        Topico topicoVacio = topicoRepository.save(new Topico(
+                new DatosInputTopico(topicoGrande.getCurso().getId(), estudianteTest.getId(), "Tópico vacío", "Sin respuestas"),
+                topicoGrande.getAutor(), topicoGrande.getCurso()));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when: Registrar una respuesta en cada tópico, como lo hace RespuestaService
+        long consultasTopicoVacio = consultasAlRegistrarRespuesta(topicoVacio.getId());
+        long consultasTopicoGrande = consultasAlRegistrarRespuesta(topicoGrande.getId());
+
+        // then: El número de consultas no depende de las respuestas existentes y la colección no se inicializa
+        assertThat(consultasTopicoGrande).isEqualTo(consultasTopicoVacio);
+        assertThat(respuestaRepository.obtenerRespuestasPorTopico(PageRequest.of(0, 1), topicoGrande.getId()).getTotalElements())
+                .isEqualTo(202);
+    }
+
+    // Registra una respuesta y retorna el número de consultas ejecutadas, desde la carga del tópico hasta el INSERT
+    private long consultasAlRegistrarRespuesta(Long topicoId) {
+        // Ambos registros parten sin la cache de segundo nivel, así se comparan las mismas consultas
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        estadisticas.clear();
+
+        Usuario autor = usuarioRepository.findById(docenteTest.getId()).orElseThrow();
+        Topico topico = topicoRepository.findById(topicoId).orElseThrow();
+        respuestaRepository.save(new Respuesta("Nueva respuesta", autor, topico));
+        entityManager.flush();
+
+        assertThat(Hibernate.isInitialized(topico.getRespuestas())).isFalse();
+        long consultas = estadisticas.getPrepareStatementCount();
+        entityManager.clear();
+        return consultas;
+    }
+}
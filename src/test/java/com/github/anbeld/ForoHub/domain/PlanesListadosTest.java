@@ -0,0 +1,256 @@
+package com.github.anbeld.ForoHub.domain;
+
+import com.github.anbeld.ForoHub.domain.curso.Categoria;
+import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
+import com.github.anbeld.ForoHub.domain.respuesta.Respuesta;
+import com.github.anbeld.ForoHub.domain.respuesta.RespuestaRepository;
+import com.github.anbeld.ForoHub.domain.topico.Topico;
+import com.github.anbeld.ForoHub.domain.topico.TopicoRepository;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verifica con EXPLAIN que los listados usen los índices de V9 y V11 en lugar de un full scan o un filesort
+// Las consultas replican el SQL que Hibernate genera para cada método de los repositorios
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class PlanesListadosTest {
+
+    private static final String SELECT_TOPICOS = "SELECT t.id, u.user_name, t.titulo, t.mensaje, t.fecha_creacion, t.resuelto, c.nombre " +
+            "FROM topicos t JOIN usuarios u ON u.id = t.autor_id JOIN cursos c ON c.id = t.curso_id ";
+
+    private static final String SELECT_RESPUESTAS = "SELECT r.id, t.titulo, c.nombre, u.user_name, r.fecha_creacion, r.respuesta " +
+            "FROM respuestas r JOIN topicos t ON t.id = r.topico_id JOIN cursos c ON c.id = t.curso_id JOIN usuarios u ON u.id = r.autor_id ";
+
+    private static final String SELECT_CURSOS = "SELECT c.id, c.nombre, c.categoria, d.user_name, c.numero_estudiantes " +
+            "FROM cursos c JOIN usuarios d ON d.id = c.docente_id ";
+
+    // Columnas de una fila de EXPLAIN en MySQL 8
+    private static final int TABLA = 2;
+    private static final int TIPO = 4;
+    private static final int LLAVE = 6;
+    private static final int EXTRA = 11;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Usuario docenteTest;
+    private Usuario estudianteTest;
+    private Topico topicoTest;
+
+    // Registra suficientes filas para que el optimizador no descarte los índices por el tamaño de las tablas
+    @BeforeEach
+    void setUp() {
+        docenteTest = usuarioRepository.save(usuario("Maria Docente", "maria.docente@foro.com", Perfil.DOCENTE));
+        estudianteTest = usuarioRepository.save(usuario("Pablo Estudiante", "pablo.estudiante@foro.com", Perfil.ESTUDIANTE));
+        for (int i = 0; i < 20; i++) {
+            usuarioRepository.save(usuario("Estudiante " + i, "estudiante" + i + "@foro.com", Perfil.ESTUDIANTE));
+        }
+
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cursos.add(cursoRepository.save(Curso.builder()
+                    .nombre("Curso " + i)
+                    .categoria(Categoria.BACKEND)
+                    .numeroEstudiantes(0)
+                    .docente(docenteTest)
+                    .estudiantes(new HashSet<>())
+                    .build()));
+        }
+
+        LocalDateTime fechaCreacion = LocalDateTime.of(2024, 6, 1, 10, 0);
+        for (int i = 0; i < 60; i++) {
+            topicoTest = topicoRepository.save(Topico.builder()
+                    .titulo("Tópico " + i)
+                    .mensaje("Tópico para verificar planes de ejecución")
+                    .resuelto(i % 2 == 0)
+                    .fechaCreacion(fechaCreacion.plusMinutes(i))
+                    .autor(estudianteTest)
+                    .curso(cursos.get(i % cursos.size()))
+                    .build());
+
+            respuestaRepository.save(Respuesta.builder()
+                    .topico(topicoTest)
+                    .fechaCreacion(fechaCreacion.plusMinutes(i + 1))
+                    .autor(i % 3 == 0 ? docenteTest : estudianteTest)
+                    .respuesta("Respuesta " + i)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @DisplayName("Test - Listado de tópicos por status sin full scan ni filesort")
+    @Test
+    void planTopicosPorStatus() {
+        // when: Explicar la consulta paginada y la de cursor
+        var pagina = explicar(SELECT_TOPICOS + "WHERE t.resuelto = 0 ORDER BY t.fecha_creacion LIMIT 10");
+        var cursor = explicar(SELECT_TOPICOS + "WHERE t.resuelto = 0 AND " +
+                "(t.fecha_creacion > '2024-06-01 10:10:00' OR (t.fecha_creacion = '2024-06-01 10:10:00' AND t.id > 10)) " +
+                "ORDER BY t.fecha_creacion, t.id LIMIT 11");
+
+        // then: Ambas recorren el índice (resuelto, fecha_creacion)
+        assertUsaIndice(pagina, "t", "idx_topicos_resuelto_fecha_creacion");
+        assertUsaIndice(cursor, "t", "idx_topicos_resuelto_fecha_creacion");
+    }
+
+    @DisplayName("Test - Listados por cursor en orden descendente con un recorrido inverso del índice")
+    @Test
+    void planCursorDescendente() {
+        // when: Explicar las consultas de cursor descendentes de tópicos y respuestas
+        String antesDe = "(%1$s.fecha_creacion < '2024-06-01 10:40:00' OR (%1$s.fecha_creacion = '2024-06-01 10:40:00' AND %1$s.id < 40)) ";
+        var topicosPorStatus = explicar(SELECT_TOPICOS + "WHERE t.resuelto = 0 AND " + antesDe.formatted("t") +
+                "ORDER BY t.fecha_creacion DESC, t.id DESC LIMIT 11");
+        var topicos = explicar(SELECT_TOPICOS + "WHERE " + antesDe.formatted("t") +
+                "ORDER BY t.fecha_creacion DESC, t.id DESC LIMIT 11");
+        var respuestasPorTopico = explicar(SELECT_RESPUESTAS + "WHERE r.topico_id = " + topicoTest.getId() + " AND " + antesDe.formatted("r") +
+                "ORDER BY r.fecha_creacion DESC, r.id DESC LIMIT 11");
+        var respuestasPorAutor = explicar(SELECT_RESPUESTAS + "WHERE r.autor_id = " + docenteTest.getId() + " AND " + antesDe.formatted("r") +
+                "ORDER BY r.fecha_creacion DESC, r.id DESC LIMIT 11");
+
+        // then: Cada consulta recorre hacia atrás el mismo índice que su variante ascendente, sin filesort
+        assertRecorridoInverso(topicosPorStatus, "t", "idx_topicos_resuelto_fecha_creacion");
+        assertRecorridoInverso(topicos, "t", "idx_topicos_fecha_creacion");
+        assertRecorridoInverso(respuestasPorTopico, "r", "idx_respuestas_topico_id_fecha_creacion");
+        assertRecorridoInverso(respuestasPorAutor, "r", "idx_respuestas_autor_id_fecha_creacion");
+    }
+
+    @DisplayName("Test - Listado de todos los tópicos sin full scan ni filesort")
+    @Test
+    void planTopicos() {
+        // when: Explicar la consulta paginada
+        var pagina = explicar(SELECT_TOPICOS + "ORDER BY t.fecha_creacion LIMIT 10");
+
+        // then: Recorre el índice de fecha_creacion
+        assertUsaIndice(pagina, "t", "idx_topicos_fecha_creacion");
+    }
+
+    @DisplayName("Test - Listado de respuestas por tópico y por autor sin full scan ni filesort")
+    @Test
+    void planRespuestasPorTopicoYAutor() {
+        // when: Explicar las consultas paginadas y las de cursor
+        var porTopico = explicar(SELECT_RESPUESTAS + "WHERE r.topico_id = " + topicoTest.getId() + " ORDER BY r.fecha_creacion LIMIT 10");
+        var porAutor = explicar(SELECT_RESPUESTAS + "WHERE r.autor_id = " + docenteTest.getId() + " ORDER BY r.fecha_creacion LIMIT 10");
+        var porAutorCursor = explicar(SELECT_RESPUESTAS + "WHERE r.autor_id = " + docenteTest.getId() + " AND " +
+                "(r.fecha_creacion > '2024-06-01 10:10:00' OR (r.fecha_creacion = '2024-06-01 10:10:00' AND r.id > 10)) " +
+                "ORDER BY r.fecha_creacion, r.id LIMIT 11");
+
+        // then: Cada consulta usa el índice compuesto de su filtro
+        assertUsaIndice(porTopico, "r", "idx_respuestas_topico_id_fecha_creacion");
+        assertUsaIndice(porAutor, "r", "idx_respuestas_autor_id_fecha_creacion");
+        assertUsaIndice(porAutorCursor, "r", "idx_respuestas_autor_id_fecha_creacion");
+    }
+
+    @DisplayName("Test - Ids de tópicos abiertos por curso para el cierre por lotes sin full scan ni filesort")
+    @Test
+    void planIdsTopicosAbiertosPorCurso() {
+        // when: Explicar las consultas por curso y por curso y fecha, cada una continuando después de un id
+        Long cursoId = topicoTest.getCurso().getId();
+        var porCurso = explicar("SELECT t.id FROM topicos t WHERE t.curso_id = " + cursoId +
+                " AND t.resuelto = 0 AND t.id > 10 ORDER BY t.id LIMIT 500");
+        var porCursoAntesDe = explicar("SELECT t.id FROM topicos t WHERE t.curso_id = " + cursoId +
+                " AND t.resuelto = 0 AND t.id > 10 AND t.fecha_creacion < '2024-06-01 10:30:00' ORDER BY t.id LIMIT 500");
+
+        // then: Ambas recorren el índice (curso_id, resuelto) en orden de id
+        assertUsaIndice(porCurso, "t", "idx_topicos_curso_id_resuelto");
+        assertUsaIndice(porCursoAntesDe, "t", "idx_topicos_curso_id_resuelto");
+    }
+
+    @DisplayName("Test - Listado de usuarios activos por perfil sin full scan ni filesort")
+    @Test
+    void planUsuariosActivosPorPerfil() {
+        // when: Explicar la consulta paginada
+        var pagina = explicar("SELECT s.id, s.user_name, s.email, s.user_role FROM usuarios s " +
+                "WHERE s.status = 1 AND s.user_role = 'ESTUDIANTE' ORDER BY s.user_name LIMIT 10");
+
+        // then: Recorre el índice (status, user_role, user_name)
+        assertUsaIndice(pagina, "s", "idx_usuarios_status_user_role_user_name");
+    }
+
+    @DisplayName("Test - Listado de cursos por docente sin full scan ni filesort")
+    @Test
+    void planCursosPorDocente() {
+        // when: Explicar la consulta paginada
+        var pagina = explicar(SELECT_CURSOS + "WHERE d.id = " + docenteTest.getId() + " ORDER BY c.nombre LIMIT 10");
+
+        // then: Recorre el índice (docente_id, nombre)
+        assertUsaIndice(pagina, "c", "idx_cursos_docente_id_nombre");
+    }
+
+    @DisplayName("Test - Listados con joins sin full scan")
+    @Test
+    void planListadosConJoins() {
+        // when: Explicar los listados que ordenan por una columna de otra tabla que la del filtro
+        var respuestasActivas = explicar(SELECT_RESPUESTAS + "WHERE t.resuelto = 0 ORDER BY r.fecha_creacion LIMIT 10");
+        var cursosEstudiante = explicar(SELECT_CURSOS + "JOIN cursos_estudiantes e ON e.curso_id = c.id " +
+                "WHERE e.estudiante_id = " + estudianteTest.getId() + " ORDER BY c.nombre LIMIT 10");
+
+        // then: Ninguna tabla se recorre completa; el orden de estos listados puede requerir ordenar las filas del join
+        assertThat(respuestasActivas).noneMatch(fila -> "ALL".equals(fila[TIPO]));
+        assertThat(cursosEstudiante).noneMatch(fila -> "ALL".equals(fila[TIPO]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> explicar(String sql) {
+        return entityManager.createNativeQuery("EXPLAIN " + sql).getResultList();
+    }
+
+    private void assertUsaIndice(List<Object[]> plan, String tabla, String indice) {
+        assertThat(plan).filteredOn(fila -> tabla.equals(fila[TABLA]))
+                .singleElement()
+                .satisfies(fila -> {
+                    assertThat(fila[LLAVE]).isEqualTo(indice);
+                    assertThat(fila[TIPO]).isNotEqualTo("ALL");
+                });
+        assertThat(plan).noneMatch(fila -> String.valueOf(fila[EXTRA]).contains("filesort"));
+    }
+
+    private void assertRecorridoInverso(List<Object[]> plan, String tabla, String indice) {
+        assertUsaIndice(plan, tabla, indice);
+        assertThat(plan).filteredOn(fila -> tabla.equals(fila[TABLA]))
+                .singleElement()
+                .satisfies(fila -> assertThat(String.valueOf(fila[EXTRA])).contains("Backward index scan"));
+    }
+
+    private Usuario usuario(String nombre, String email, Perfil perfil) {
+        return Usuario.builder()
+                .userName(nombre)
+                .email(email)
+                .password("password")
+                .status(true)
+                .userRole(perfil)
+                .cursosEstudiante(new HashSet<>())
+                .cursosDocente(new ArrayList<>())
+                .build();
+    }
+}
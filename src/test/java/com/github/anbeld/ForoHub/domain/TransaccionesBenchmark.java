@@ -0,0 +1,109 @@
+package com.github.anbeld.ForoHub.domain;
+
+import com.github.anbeld.ForoHub.ForoHubApplication;
+import com.github.anbeld.ForoHub.domain.usuario.DatosOutputEstudiantePorId;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+// Compara la latencia de obtener un estudiante en una transacción de solo lectura y en una de lectura y escritura,
+// e informa al terminar las sentencias y los flush por transacción de cada caso
+// Requiere la base de datos del perfil test; ejecutar después de mvn test-compile con el método main
+public class TransaccionesBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Estado {
+
+        @Param({"true", "false"})
+        public boolean soloLectura;
+
+        public ConfigurableApplicationContext contexto;
+
+        public UsuarioRepository usuarioRepository;
+
+        public TransactionTemplate transaccion;
+
+        public Statistics estadisticas;
+
+        public Usuario estudiante;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            contexto = new SpringApplicationBuilder(ForoHubApplication.class)
+                    .profiles("test")
+                    .properties("server.port=0", "management.server.port=0", "spring.jpa.show-sql=false",
+                            "spring.jpa.properties.hibernate.generate_statistics=true")
+                    .run();
+
+            usuarioRepository = contexto.getBean(UsuarioRepository.class);
+            transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+            transaccion.setReadOnly(soloLectura);
+
+            estudiante = usuarioRepository.save(Usuario.builder()
+                    .userName("Pablo Estudiante")
+                    .email("pablo.estudiante.benchmark@foro.com")
+                    .password("password")
+                    .status(true)
+                    .userRole(Perfil.ESTUDIANTE)
+                    .cursosEstudiante(new HashSet<>())
+                    .build());
+
+            estadisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            estadisticas.clear();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            long transacciones = Math.max(estadisticas.getTransactionCount(), 1);
+            System.out.printf("%nsoloLectura=%s: %.2f sentencias y %.2f flush por transacción%n", soloLectura,
+                    (double) estadisticas.getPrepareStatementCount() / transacciones,
+                    (double) estadisticas.getFlushCount() / transacciones);
+
+            usuarioRepository.deleteById(estudiante.getId());
+            contexto.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public DatosOutputEstudiantePorId obtenerEstudiante(Estado estado) {
+        return estado.transaccion.execute(status -> new DatosOutputEstudiantePorId(
+                estado.usuarioRepository.obtenerUsuarioPorIdYPerfil(estado.estudiante.getId(), Perfil.ESTUDIANTE).orElseThrow()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransaccionesBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
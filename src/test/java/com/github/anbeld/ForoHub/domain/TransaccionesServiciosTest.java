@@ -0,0 +1,131 @@
+package com.github.anbeld.ForoHub.domain;
+
+import com.github.anbeld.ForoHub.domain.curso.Categoria;
+import com.github.anbeld.ForoHub.domain.curso.Curso;
+import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
+import com.github.anbeld.ForoHub.domain.topico.DatosInputTopico;
+import com.github.anbeld.ForoHub.domain.topico.Topico;
+import com.github.anbeld.ForoHub.domain.topico.TopicoRepository;
+import com.github.anbeld.ForoHub.domain.topico.TopicoService;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verifica los límites de transacción de los servicios: una transacción por operación,
+// sin flush en las consultas y un solo flush con un solo INSERT al registrar
+// Sin transacción de test, así cada llamada al servicio abre y confirma su propia transacción
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TransaccionesServiciosTest {
+
+    @Autowired
+    private TopicoService topicoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario docenteTest;
+    private Usuario estudianteTest;
+    private Curso cursoTest;
+    private Topico topicoRegistrado;
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        docenteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Maria Docente")
+                .email("maria.docente.transacciones@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.DOCENTE)
+                .cursosDocente(new ArrayList<>())
+                .build());
+
+        estudianteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Pablo Estudiante")
+                .email("pablo.estudiante.transacciones@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.ESTUDIANTE)
+                .cursosEstudiante(new HashSet<>())
+                .build());
+
+        cursoTest = cursoRepository.save(Curso.builder()
+                .nombre("Curso Transacciones")
+                .categoria(Categoria.BACKEND)
+                .numeroEstudiantes(0)
+                .docente(docenteTest)
+                .estudiantes(new HashSet<>())
+                .build());
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (topicoRegistrado != null) {
+            topicoRepository.deleteById(topicoRegistrado.getId());
+        }
+        cursoRepository.deleteById(cursoTest.getId());
+        usuarioRepository.deleteById(estudianteTest.getId());
+        usuarioRepository.deleteById(docenteTest.getId());
+    }
+
+    @DisplayName("Test - Las consultas se ejecutan en una transacción de solo lectura sin flush")
+    @Test
+    void consultasSinFlush() {
+        // when: Obtener un estudiante, que carga la entidad, y un listado de tópicos
+        usuarioService.obtenerEstudiantePorId(estudianteTest.getId());
+        topicoService.obtenerTopicos(PageRequest.of(0, 10));
+
+        // then: Una transacción por llamada, sin flush ni actualizaciones de las entidades cargadas
+        assertThat(estadisticas.getTransactionCount()).isEqualTo(2);
+        assertThat(estadisticas.getFlushCount()).isZero();
+        assertThat(estadisticas.getEntityUpdateCount()).isZero();
+    }
+
+    @DisplayName("Test - Registrar un tópico en una sola transacción con un solo INSERT")
+    @Test
+    void registroEnUnaTransaccion() {
+        // when: Registrar un tópico
+        topicoRegistrado = topicoService.registrarTopico(new DatosInputTopico(
+                cursoTest.getId(), estudianteTest.getId(), "Tópico transacciones", "Registro en una transacción"));
+
+        // then: Las validaciones y el INSERT comparten la transacción y el contexto de persistencia
+        assertThat(topicoRegistrado.getId()).isNotNull();
+        assertThat(estadisticas.getTransactionCount()).isEqualTo(1);
+        assertThat(estadisticas.getFlushCount()).isEqualTo(1);
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(1);
+        assertThat(estadisticas.getEntityUpdateCount()).isZero();
+    }
+}
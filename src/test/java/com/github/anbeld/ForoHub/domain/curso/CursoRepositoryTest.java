@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,9 +17,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -47,7 +50,7 @@ class CursoRepositoryTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         docenteTest = Usuario.builder()
@@ -67,7 +70,7 @@ class CursoRepositoryTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoTest2 = Curso.builder()
@@ -75,7 +78,7 @@ class CursoRepositoryTest {
                 .categoria(Categoria.BACKEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoTest3 = Curso.builder()
@@ -83,7 +86,7 @@ class CursoRepositoryTest {
                 .categoria(Categoria.BACKEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         docenteTest.getCursosDocente().add(cursoTest1);
@@ -115,20 +118,20 @@ class CursoRepositoryTest {
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("nombre"));
 
         // when: Obtener los cursos asociados al id del docente
-        Page<Curso> cursos = cursoRepository.obtenerCursosPorIdDocente(paginacion, docenteTest.getId());
+        Page<DatosOutputCurso> cursos = cursoRepository.obtenerCursosPorIdDocente(paginacion, docenteTest.getId());
 
         // then: Verificación de que los cursos obtenidos están asociados al docente
-        assertThat(cursos.getContent()).contains(cursoTest1);
-        assertThat(cursos.getContent()).contains(cursoTest2);
-        assertThat(cursos.getContent()).contains(cursoTest3);
+        assertThat(cursos.getContent()).extracting(DatosOutputCurso::curso_id)
+                .contains(cursoTest1.getId(), cursoTest2.getId(), cursoTest3.getId());
+        assertThat(cursos.getContent()).extracting(DatosOutputCurso::docente).containsOnly(docenteTest.getUserName());
     }
 
     @DisplayName("Test - Obtener listado de cursos asociados al id de un estudiante")
     @Test
     void obtenerCursosPorIdEstudiante() {
         // given: Registrar un estudiante en varios cursos y guardarlos en el repositorio
-        cursoTest1.registrarEstudiante(estudianteTest);
-        cursoTest2.registrarEstudiante(estudianteTest);
+        cursoTest1.getEstudiantes().add(estudianteTest);
+        cursoTest2.getEstudiantes().add(estudianteTest);
 
         cursoRepository.save(cursoTest1);
         cursoRepository.save(cursoTest2);
@@ -137,12 +140,29 @@ class CursoRepositoryTest {
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("nombre"));
 
         // when: Obtener los cursos asociados al id del estudiante
-        Page<Curso> cusos = cursoRepository.obtenerCursosPorIdEstudiante(paginacion, estudianteTest.getId());
+        Page<DatosOutputCurso> cusos = cursoRepository.obtenerCursosPorIdEstudiante(paginacion, estudianteTest.getId());
 
         // then: Verificación de que los cursos obtenidos están asociados al estudiante
-        assertThat(cusos.getContent()).contains(cursoTest1);
-        assertThat(cusos.getContent()).contains(cursoTest2);
-        assertThat(cusos.getContent()).doesNotContain(cursoTest3);
+        assertThat(cusos.getContent()).extracting(DatosOutputCurso::curso_id)
+                .contains(cursoTest1.getId(), cursoTest2.getId())
+                .doesNotContain(cursoTest3.getId());
+        assertThat(cusos.getTotalElements()).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Registrar un estudiante en un curso con una fila en cursos_estudiantes")
+    @Test
+    void registrarEstudianteSinDuplicados() {
+        // given: Un curso guardado
+        cursoRepository.save(cursoTest1);
+
+        // when: Inscribir al estudiante directamente en cursos_estudiantes
+        int filas = cursoRepository.registrarEstudiante(cursoTest1.getId(), estudianteTest.getId());
+
+        // then: Se inserta una fila y la inscripción repetida es rechazada por la llave primaria
+        assertThat(filas).isEqualTo(1);
+        assertThat(cursoRepository.contarCursosPorIdEstudiante(estudianteTest.getId())).isEqualTo(1);
+        assertThrows(DataIntegrityViolationException.class,
+                () -> cursoRepository.registrarEstudiante(cursoTest1.getId(), estudianteTest.getId()));
     }
 
     @DisplayName("Test - Obtener curso por id")
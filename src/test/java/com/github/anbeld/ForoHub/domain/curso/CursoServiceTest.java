@@ -3,28 +3,35 @@ package com.github.anbeld.ForoHub.domain.curso;
 import com.github.anbeld.ForoHub.domain.usuario.Perfil;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -59,7 +66,7 @@ class CursoServiceTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         docenteTest1 = Usuario.builder()
@@ -88,7 +95,7 @@ class CursoServiceTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest1)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoTest2 = Curso.builder()
@@ -97,7 +104,7 @@ class CursoServiceTest {
                 .categoria(Categoria.BACKEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest1)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoTest3 = Curso.builder()
@@ -106,7 +113,7 @@ class CursoServiceTest {
                 .categoria(Categoria.BACKEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest1)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
 
@@ -116,7 +123,7 @@ class CursoServiceTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest2)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoTest5 = Curso.builder()
@@ -125,7 +132,7 @@ class CursoServiceTest {
                 .categoria(Categoria.FRONTEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest1)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
     }
 
@@ -134,7 +141,7 @@ class CursoServiceTest {
     void registrarCurso() {
         // given: Configuración de condiciones iniciales y datos de prueba
         // Se simula que se obtiene un docente existente por su ID y perfil
-        given(usuarioRepository.obtenerUsuarioPorIdYPerfil(docenteTest1.getId(), docenteTest1.getUserRole())).willReturn(Optional.of(docenteTest1));
+        given(usuarioRepository.verificarUsuarioPorIdYPerfil(docenteTest1.getId(), docenteTest1.getUserRole())).willReturn(Optional.of(docenteTest1));
 
         // Se simula que no existe un curso con el mismo nombre en el repositorio
         given(cursoRepository.findByNombre(cursoTest1.getNombre())).willReturn(Optional.empty());
@@ -142,18 +149,13 @@ class CursoServiceTest {
         // Se simula el guardado del curso en el repositorio, devolviendo el curso de prueba
         given(cursoRepository.save(any(Curso.class))).willReturn(cursoTest1);
 
-        // Construcción de la URL base para la prueba
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución del método a probar, que registra un nuevo curso
         Curso nuevoCurso = service.registrarCurso(
                 new DatosInputRegistrarCurso(
                         cursoTest1.getNombre(),
                         cursoTest1.getCategoria(),
                         cursoTest1.getDocente().getId()
-                ),
-                testUrl
-        );
+                ));
 
         // then: Verificación de los resultados esperados
         assertThat(nuevoCurso).isNotNull();
@@ -167,14 +169,11 @@ class CursoServiceTest {
     void registrarEstudiante() {
         // given: Configuración de condiciones iniciales y datos de prueba
         // Simula la obtención de un estudiante existente por su ID y perfil
-        given(usuarioRepository.obtenerUsuarioPorIdYPerfil(estudianteTest.getId(), estudianteTest.getUserRole())).willReturn(Optional.of(estudianteTest));
+        given(usuarioRepository.verificarUsuarioPorIdYPerfil(estudianteTest.getId(), estudianteTest.getUserRole())).willReturn(Optional.of(estudianteTest));
 
         // Simula la obtención de un curso existente por su ID
         given(cursoRepository.obtenerCursoPorId(cursoTest1.getId())).willReturn(Optional.of(cursoTest1));
 
-        // Simula el guardado del curso en el repositorio, devolviendo el curso de prueba
-        given(cursoRepository.save(any(Curso.class))).willReturn(cursoTest1);
-
         // when: Ejecución del método a probar, que registra un estudiante en un curso
         DatosOutputRegistrarEstudianteCurso datos = service.registrarEstudiante(
                 new DatosInputRegistrarEstudianteCurso(
@@ -184,12 +183,33 @@ class CursoServiceTest {
         );
 
         // then: Verificación de los resultados esperados
-        assertThat(estudianteTest.getCursosEstudiante()).contains(cursoTest1);
-        assertThat(cursoTest1.getEstudiantes()).contains(estudianteTest);
-        assertThat(cursoTest1.getNumeroEstudiantes()).isEqualTo(1);
+        // La inscripción se inserta directamente en cursos_estudiantes, sin modificar la lista de estudiantes del curso
+        // El contador se incrementa en la base de datos antes de insertar la inscripción, sin guardar el curso cargado en memoria
+        InOrder orden = inOrder(cursoRepository);
+        orden.verify(cursoRepository).sumarEstudiante(cursoTest1.getId());
+        orden.verify(cursoRepository).registrarEstudiante(cursoTest1.getId(), estudianteTest.getId());
+        verify(cursoRepository, never()).save(any(Curso.class));
+        assertThat(cursoTest1.getEstudiantes()).isEmpty();
         assertThat(datos).isEqualTo(new DatosOutputRegistrarEstudianteCurso(estudianteTest, cursoTest1));
     }
 
+    @DisplayName("Test - Registrar un estudiante ya inscrito en el curso con ValidacionDeIntegridad")
+    @Test
+    void registrarEstudianteRepetidoConValidacionDeIntegridad() {
+        // given: La llave primaria de cursos_estudiantes rechaza la inscripción repetida
+        given(usuarioRepository.verificarUsuarioPorIdYPerfil(estudianteTest.getId(), estudianteTest.getUserRole())).willReturn(Optional.of(estudianteTest));
+        given(cursoRepository.obtenerCursoPorId(cursoTest1.getId())).willReturn(Optional.of(cursoTest1));
+        given(cursoRepository.registrarEstudiante(cursoTest1.getId(), estudianteTest.getId()))
+                .willThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        // when: Registrar nuevamente al estudiante, la llave primaria rechaza la inscripción repetida
+        assertThrows(ValidacionDeIntegridad.class, () -> service.registrarEstudiante(
+                new DatosInputRegistrarEstudianteCurso(cursoTest1.getId(), estudianteTest.getId())));
+
+        // then: La ValidacionDeIntegridad revierte la transacción, incluido el incremento del contador
+        verify(cursoRepository).registrarEstudiante(cursoTest1.getId(), estudianteTest.getId());
+    }
+
     @DisplayName("Test - Obtener el listado de todos los cursos")
     @Test
     void obtenerListadoCursos() {
@@ -204,7 +224,8 @@ class CursoServiceTest {
         cursos.add(cursoTest3);
 
         // Simula la obtención de todos los cursos paginados desde el repositorio
-        given(cursoRepository.findAll(paginacion)).willReturn(new PageImpl<>(cursos, paginacion, cursos.size()));
+        given(cursoRepository.obtenerCursos(paginacion)).willReturn(
+                new PageImpl<>(cursos.stream().map(DatosOutputCurso::new).toList(), paginacion, cursos.size()));
 
         // when: Ejecución del método a probar, que obtiene el listado de cursos
         var response = service.obtenerListadoCursos(paginacion);
@@ -233,8 +254,8 @@ class CursoServiceTest {
         cursos.add(cursoTest4);
         cursos.add(cursoTest5);
 
-        // Simulación de la obtención del docente por su ID desde el repositorio de usuarios
-        given(usuarioRepository.getReferenceById(docenteTest1.getId())).willReturn(docenteTest1);
+        // Simulación de la obtención del perfil del docente por su ID desde el repositorio de usuarios
+        given(usuarioRepository.obtenerPerfilPorId(docenteTest1.getId())).willReturn(Optional.of(Perfil.DOCENTE));
 
         // Simulación de la obtención de cursos por ID del docente desde el repositorio de cursos,
         // filtrando los cursos asociados al docenteTest1
@@ -242,6 +263,7 @@ class CursoServiceTest {
                 new PageImpl<>(
                         cursos.stream()
                                 .filter(c -> c.getDocente() == docenteTest1)
+                                .map(DatosOutputCurso::new)
                                 .toList(),
                         paginacion, cursos.size())); // Ajuste del tamaño para reflejar el filtro
 
@@ -266,9 +288,9 @@ class CursoServiceTest {
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("nombre"));
 
         // Registro del estudianteTest en varios cursos de prueba
-        cursoTest1.registrarEstudiante(estudianteTest);
-        cursoTest2.registrarEstudiante(estudianteTest);
-        cursoTest5.registrarEstudiante(estudianteTest);
+        cursoTest1.getEstudiantes().add(estudianteTest);
+        cursoTest2.getEstudiantes().add(estudianteTest);
+        cursoTest5.getEstudiantes().add(estudianteTest);
 
         // Creación de una lista de cursos de prueba
         List<Curso> cursos = new ArrayList<>();
@@ -278,8 +300,8 @@ class CursoServiceTest {
         cursos.add(cursoTest4);
         cursos.add(cursoTest5);
 
-        // Simulación de la obtención del estudiante por su ID desde el repositorio de usuarios
-        given(usuarioRepository.getReferenceById(estudianteTest.getId())).willReturn(estudianteTest);
+        // Simulación de la obtención del perfil del estudiante por su ID desde el repositorio de usuarios
+        given(usuarioRepository.obtenerPerfilPorId(estudianteTest.getId())).willReturn(Optional.of(Perfil.ESTUDIANTE));
 
         // Simulación de la obtención de cursos por ID del estudiante desde el repositorio de cursos,
         // filtrando los cursos en los que está registrado el estudianteTest
@@ -287,6 +309,7 @@ class CursoServiceTest {
                 new PageImpl<>(
                         cursos.stream()
                                 .filter(c -> c.getEstudiantes().stream().anyMatch(e -> e.getId().equals(estudianteTest.getId())))
+                                .map(DatosOutputCurso::new)
                                 .collect(Collectors.toList()),
                         paginacion, cursos.size()));
 
@@ -0,0 +1,133 @@
+package com.github.anbeld.ForoHub.domain.curso;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verifica que el contador de estudiantes no pierda actualizaciones con inscripciones concurrentes al mismo curso
+// Sin transacción de test: cada inscripción se confirma como en una request real y los datos se eliminan al terminar
+@SpringBootTest
+@ActiveProfiles("test")
+class InscripcionConcurrenteTest {
+
+    private static final int ESTUDIANTES = 200;
+    private static final int HILOS = 32;
+
+    @Autowired
+    private CursoService service;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario docenteTest;
+    private Curso cursoTest;
+    private final List<Usuario> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        docenteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Maria Docente")
+                .email("maria.docente.concurrencia@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.DOCENTE)
+                .cursosDocente(new ArrayList<>())
+                .build());
+
+        cursoTest = cursoRepository.save(Curso.builder()
+                .nombre("Curso Concurrencia")
+                .categoria(Categoria.BACKEND)
+                .numeroEstudiantes(0)
+                .docente(docenteTest)
+                .estudiantes(new HashSet<>())
+                .build());
+
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            estudiantes.add(usuarioRepository.save(Usuario.builder()
+                    .userName("Estudiante " + i)
+                    .email("estudiante" + i + ".concurrencia@foro.com")
+                    .password("password")
+                    .status(true)
+                    .userRole(Perfil.ESTUDIANTE)
+                    .cursosEstudiante(new HashSet<>())
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cursos_estudiantes WHERE curso_id = ?", cursoTest.getId());
+        cursoRepository.deleteById(cursoTest.getId());
+        usuarioRepository.deleteAll(estudiantes);
+        usuarioRepository.delete(docenteTest);
+    }
+
+    @DisplayName("Test - Inscripciones concurrentes al mismo curso sin perder incrementos del contador")
+    @Test
+    void inscripcionesConcurrentesSinPerderActualizaciones() throws InterruptedException {
+        // given: Cada estudiante se inscribe dos veces en paralelo, la segunda inscripción debe ser rechazada
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger inscritos = new AtomicInteger();
+        AtomicInteger repetidos = new AtomicInteger();
+        AtomicInteger errores = new AtomicInteger();
+
+        for (int intento = 0; intento < 2; intento++) {
+            for (Usuario estudiante : estudiantes) {
+                ejecutor.submit(() -> {
+                    try {
+                        inicio.await();
+                        service.registrarEstudiante(new DatosInputRegistrarEstudianteCurso(cursoTest.getId(), estudiante.getId()));
+                        inscritos.incrementAndGet();
+                    } catch (ValidacionDeIntegridad e) {
+                        repetidos.incrementAndGet();
+                    } catch (Exception e) {
+                        errores.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        // when: Liberar todas las inscripciones al mismo tiempo
+        inicio.countDown();
+        ejecutor.shutdown();
+        assertThat(ejecutor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        // then: El contador coincide con las filas de cursos_estudiantes y con las inscripciones aceptadas
+        Integer filas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cursos_estudiantes WHERE curso_id = ?", Integer.class, cursoTest.getId());
+
+        assertThat(errores.get()).isZero();
+        assertThat(inscritos.get()).isEqualTo(ESTUDIANTES);
+        assertThat(repetidos.get()).isEqualTo(ESTUDIANTES);
+        assertThat(filas).isEqualTo(ESTUDIANTES);
+        assertThat(cursoRepository.obtenerCursoPorId(cursoTest.getId()).orElseThrow().getNumeroEstudiantes())
+                .isEqualTo(ESTUDIANTES);
+    }
+}
@@ -21,6 +21,8 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,7 +58,7 @@ class RespuestaRepositoryTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         docenteTest = Usuario.builder()
@@ -76,7 +78,7 @@ class RespuestaRepositoryTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoRepository.save(cursoTest);
@@ -148,12 +150,12 @@ class RespuestaRepositoryTest {
         //then: Verificación de los resultados esperados
         // Se verifica que la primera respuesta esté presente en la primera consulta
         assertThat(response1).isNotNull();
-        assertThat(response1.getContent()).contains(respuestaTest1);
-        assertThat(response1.getContent()).contains(respuestaTest2);
+        assertThat(response1.getContent()).extracting(DatosOutputRespuesta::respuesta_id)
+                .contains(respuestaTest1.getId(), respuestaTest2.getId());
 
         // Se verifica que las respuestas no estén presentes en la segunda consulta después de cerrar el tópico
-        assertThat(response2.getContent()).doesNotContain(respuestaTest1);
-        assertThat(response2.getContent()).doesNotContain(respuestaTest2);
+        assertThat(response2.getContent()).extracting(DatosOutputRespuesta::respuesta_id)
+                .doesNotContain(respuestaTest1.getId(), respuestaTest2.getId());
     }
 
     @DisplayName("Test - Obtener un listado de respuestas por autor")
@@ -169,21 +171,21 @@ class RespuestaRepositoryTest {
 
         // when: Ejecución de la consulta de respuestas por autor
         // Se realiza la consulta para obtener respuestas por autor (docente)
-        var respuestasDocente = respuestaRepository.obtenerRespuestasPorAutor(paginacion, docenteTest);
+        var respuestasDocente = respuestaRepository.obtenerRespuestasPorAutor(paginacion, docenteTest.getId());
 
         // Se realiza la consulta para obtener respuestas por autor (estudiante)
-        var respuestasEstudiante = respuestaRepository.obtenerRespuestasPorAutor(paginacion, estudianteTest);
+        var respuestasEstudiante = respuestaRepository.obtenerRespuestasPorAutor(paginacion, estudianteTest.getId());
 
         // then: Verificación de los resultados esperados
         // Se verifica que la consulta para respuestas del docente devuelva la respuesta del docente
         assertThat(respuestasDocente).isNotNull();
         assertThat(respuestasDocente.getTotalElements()).isEqualTo(1);
-        assertThat(respuestasDocente.getContent()).contains(respuestaTest1);
+        assertThat(respuestasDocente.getContent()).extracting(DatosOutputRespuesta::respuesta_id).containsExactly(respuestaTest1.getId());
 
         // Se verifica que la consulta para respuestas del estudiante devuelva la respuesta del estudiante
         assertThat(respuestasEstudiante).isNotNull();
         assertThat(respuestasEstudiante.getTotalElements()).isEqualTo(1);
-        assertThat(respuestasEstudiante.getContent()).contains(respuestaTest2);
+        assertThat(respuestasEstudiante.getContent()).extracting(DatosOutputRespuesta::respuesta_id).containsExactly(respuestaTest2.getId());
     }
 
     @DisplayName("Test - Obtener un listado de respuestas por tópico")
@@ -199,13 +201,38 @@ class RespuestaRepositoryTest {
 
         // when: Ejecución de la consulta de respuestas por tópico
         // Se realiza la consulta para obtener respuestas por tópico
-        var response = respuestaRepository.obtenerRespuestasPorTopico(paginacion, topicoTest);
+        var response = respuestaRepository.obtenerRespuestasPorTopico(paginacion, topicoTest.getId());
 
         // then: Verificación de los resultados esperados
         // Se verifica que la respuesta obtenida no sea nula y que contenga las respuestas de prueba
         assertThat(response).isNotNull();
         assertThat(response.getTotalElements()).isEqualTo(2);
-        assertThat(response.getContent()).contains(respuestaTest1);
-        assertThat(response.getContent()).contains(respuestaTest2);
+        assertThat(response.getContent()).extracting(DatosOutputRespuesta::respuesta_id)
+                .contains(respuestaTest1.getId(), respuestaTest2.getId());
+        assertThat(response.getContent()).extracting(DatosOutputRespuesta::titulo_topico).containsOnly(topicoTest.getTitulo());
     }
-}
\ No newline at end of file
+
+    @DisplayName("Test - Obtener respuestas por tópico a continuación de un cursor")
+    @Test
+    void obtenerRespuestasPorTopicoDespuesDe() {
+        // given: Preparación de los datos de prueba
+        // Se guardan dos respuestas de prueba en el repositorio de respuestas
+        respuestaRepository.save(respuestaTest1);
+        respuestaRepository.save(respuestaTest2);
+
+        // when: Ejecución de la consulta de respuestas por tópico
+        // Se obtiene la primera página de tamaño 1 y luego la página siguiente a la respuesta entregada
+        var primeraPagina = respuestaRepository.obtenerPrimerasRespuestasPorTopico(topicoTest.getId(), PageRequest.ofSize(1));
+        var ultima = primeraPagina.get(0);
+        var segundaPagina = respuestaRepository.obtenerRespuestasPorTopicoDespuesDe(topicoTest.getId(),
+                ultima.fecha_creacion(), ultima.respuesta_id(), PageRequest.ofSize(1));
+
+        // then: Verificación de los resultados esperados
+        // Se verifica que entre ambas páginas se obtengan las dos respuestas sin repetirlas
+        assertThat(primeraPagina).hasSize(1);
+        assertThat(segundaPagina).hasSize(1);
+        assertThat(segundaPagina.get(0)).isNotEqualTo(ultima);
+        assertThat(List.of(ultima.respuesta_id(), segundaPagina.get(0).respuesta_id()))
+                .containsExactlyInAnyOrder(respuestaTest1.getId(), respuestaTest2.getId());
+    }
+}
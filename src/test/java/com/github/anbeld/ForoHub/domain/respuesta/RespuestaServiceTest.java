@@ -7,6 +7,10 @@ import com.github.anbeld.ForoHub.domain.topico.TopicoRepository;
 import com.github.anbeld.ForoHub.domain.usuario.Perfil;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,16 +23,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -44,6 +51,9 @@ class RespuestaServiceTest {
     @Mock
     private RespuestaRepository respuestaRepository;
 
+    @Mock
+    private VersionesRecursos versiones;
+
     @InjectMocks
     private RespuestaService service;
 
@@ -65,7 +75,7 @@ class RespuestaServiceTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         docenteTest = Usuario.builder()
@@ -84,7 +94,7 @@ class RespuestaServiceTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         topicoTest = Topico.builder()
@@ -124,15 +134,12 @@ class RespuestaServiceTest {
         given(topicoRepository.findById(cursoTest.getId())).willReturn(Optional.of(topicoTest));
         given(respuestaRepository.save(any(Respuesta.class))).willReturn(respuestaTest1);
 
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar
         // Se registra una nueva respuesta utilizando el servicio
         Respuesta nuevaRespuesta = service.registrarRespuesta(new DatosInputRespuesta(
                         respuestaTest1.getTopico().getId(),
                         respuestaTest1.getAutor().getId(),
-                        respuestaTest1.getRespuesta()),
-                testUrl);
+                        respuestaTest1.getRespuesta()));
 
         // then: Verificación de los resultados esperados
         // Se verifica que la respuesta registrada no sea nula
@@ -146,6 +153,9 @@ class RespuestaServiceTest {
 
         // Se verifica que el tópico de la respuesta registrada sea igual al tópico de la respuesta de prueba
         assertThat(nuevaRespuesta.getTopico()).isEqualTo(respuestaTest1.getTopico());
+
+        // Se verifica que se actualiza la versión de las respuestas del tópico
+        verify(versiones).actualizar(VersionesRecursos.respuestasPorTopico(respuestaTest1.getTopico().getId()));
     }
 
     @DisplayName("Test - Obtener listado de respuestas por tópicos activos")
@@ -164,7 +174,7 @@ class RespuestaServiceTest {
         given(respuestaRepository.obtenerRespuestasPorTopicosActivos(paginacion))
                 .willReturn(
                         new PageImpl<>(
-                                respuestas.stream().filter(r -> !r.getTopico().isResuelto()).toList(),
+                                respuestas.stream().filter(r -> !r.getTopico().isResuelto()).map(DatosOutputRespuesta::new).toList(),
                                 paginacion,
                                 respuestas.size())
                 );
@@ -199,15 +209,13 @@ class RespuestaServiceTest {
         // Se establece una paginación para la consulta
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("fechaCreacion"));
 
-        // Se configura el comportamiento del mock del repositorio de usuarios para devolver el usuario de prueba estudiante
-        given(usuarioRepository.findById(estudianteTest.getId())).willReturn(Optional.of(estudianteTest));
-
         // Se configura el comportamiento del mock del repositorio de respuestas para devolver respuestas del estudiante
-        given(respuestaRepository.obtenerRespuestasPorAutor(paginacion, estudianteTest))
+        given(respuestaRepository.obtenerRespuestasPorAutor(paginacion, estudianteTest.getId()))
                 .willReturn(
                         new PageImpl<>(
                                 respuestas.stream()
                                         .filter(r -> r.getAutor().equals(estudianteTest))
+                                        .map(DatosOutputRespuesta::new)
                                         .toList(),
                                 paginacion,
                                 respuestas.size() - 1)
@@ -229,6 +237,9 @@ class RespuestaServiceTest {
 
         // Se verifica que la respuesta del servicio contenga la salida de datos de la respuesta de prueba 2
         assertThat(responseTopicoTestAbierto).contains(new DatosOutputRespuesta(respuestaTest2));
+
+        // Con una página con resultados no se consulta la existencia del autor
+        verify(usuarioRepository, never()).existsById(any());
     }
 
     @DisplayName("Test - Obtener listado de respuestas por topico_id")
@@ -243,15 +254,13 @@ class RespuestaServiceTest {
         // Se establece una paginación para la consulta
         Pageable paginacion = PageRequest.of(0, 10, Sort.by("fechaCreacion"));
 
-        // Se configura el comportamiento del mock del repositorio de usuarios para devolver el usuario de prueba estudiante
-        given(usuarioRepository.findById(estudianteTest.getId())).willReturn(Optional.of(estudianteTest));
-
         // Se configura el comportamiento del mock del repositorio de respuestas para devolver respuestas por ID de tópico
-        given(respuestaRepository.obtenerRespuestasPorAutor(paginacion, estudianteTest))
+        given(respuestaRepository.obtenerRespuestasPorTopico(paginacion, topicoTest.getId()))
                 .willReturn(
                         new PageImpl<>(
                                 respuestas.stream()
                                         .filter(r -> r.getTopico().getId().equals(topicoTest.getId()))
+                                        .map(DatosOutputRespuesta::new)
                                         .toList(),
                                 paginacion,
                                 respuestas.size())
@@ -259,7 +268,7 @@ class RespuestaServiceTest {
 
         // when: Ejecución de la acción a probar
         // Se llama al servicio para obtener las respuestas por ID de tópico
-        var responseTopicoTestAbierto = service.obtenerRespuestasPorAutorId(paginacion, estudianteTest.getId());
+        var responseTopicoTestAbierto = service.obtenerRespuestasPorTopicoId(paginacion, topicoTest.getId());
 
         // then: Verificación de los resultados esperados
         // Se verifica que la respuesta del servicio no sea nula
@@ -274,4 +283,42 @@ class RespuestaServiceTest {
         // Se verifica que la respuesta del servicio contenga la salida de datos de la respuesta de prueba 2
         assertThat(responseTopicoTestAbierto).contains(new DatosOutputRespuesta(respuestaTest2));
     }
-}
\ No newline at end of file
+
+    @DisplayName("Test - Obtener un listado de respuestas por autor por cursor")
+    @Test
+    void obtenerRespuestasPorAutorPorCursor() {
+        // given: Preparación de datos
+        // El repositorio devuelve un elemento más que el tamaño pedido
+        given(respuestaRepository.obtenerPrimerasRespuestasPorAutor(docenteTest.getId(), CursorPaginacion.limite(1)))
+                .willReturn(List.of(new DatosOutputRespuesta(respuestaTest1), new DatosOutputRespuesta(respuestaTest2)));
+
+        // when: Ejecución de la acción a probar
+        // Se obtiene la primera página de tamaño 1
+        var response = service.obtenerRespuestasPorAutorId(null, 1, docenteTest.getId(), OrdenCursor.ASC);
+
+        // then: Verificación de los resultados esperados
+        // Se verifica que la página contenga la primera respuesta, que el cursor apunte a ella y que no se consulte el autor
+        assertThat(response.contenido()).containsExactly(new DatosOutputRespuesta(respuestaTest1));
+        assertThat(CursorPaginacion.decodificar(response.siguiente()))
+                .isEqualTo(new CursorPaginacion(respuestaTest1.getFechaCreacion(), respuestaTest1.getId()));
+        verify(usuarioRepository, never()).findById(any());
+        verify(usuarioRepository, never()).existsById(any());
+    }
+
+    @DisplayName("Test - Obtener un listado de respuestas por tópico por cursor con ValidacionDeIntegridad")
+    @Test
+    void obtenerRespuestasPorTopicoPorCursorConValidacionIntegridad() {
+        // given: Preparación de datos
+        // El tópico no existe, por lo que el repositorio no devuelve respuestas
+        given(topicoRepository.existsById(topicoTest.getId())).willReturn(false);
+        given(respuestaRepository.obtenerPrimerasRespuestasPorTopico(topicoTest.getId(), CursorPaginacion.limite(10)))
+                .willReturn(List.of());
+
+        // when: Ejecución de la acción a probar y verificación de la excepción esperada
+        assertThrows(ValidacionDeIntegridad.class, () -> service.obtenerRespuestasPorTopicoId(null, 10, topicoTest.getId(), OrdenCursor.ASC));
+
+        // then: Verificación de que la existencia del tópico solo se revisó ante la página vacía
+        verify(topicoRepository).existsById(topicoTest.getId());
+        verify(topicoRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.anbeld.ForoHub.domain.token;
+
+import com.github.anbeld.ForoHub.domain.usuario.DatosInputActualizarPasswordUsuario;
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioService;
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.security.DatosJWTToken;
+import com.github.anbeld.ForoHub.infra.security.JWTService;
+import com.github.anbeld.ForoHub.infra.security.RevocacionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Verifica contra la base de datos que cada refresh token se use una sola vez
+// y que los cambios de credenciales y el logout revoquen las sesiones del usuario
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    private static final int REQUESTS_CONCURRENTES = 8;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private RevocacionService revocacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario estudianteTest;
+
+    @BeforeEach
+    void setUp() {
+        estudianteTest = usuarioRepository.save(Usuario.builder()
+                .userName("Pablo Estudiante")
+                .email("pablo.estudiante.refresh@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.ESTUDIANTE)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE usuario_id = ?", estudianteTest.getId());
+        usuarioRepository.deleteById(estudianteTest.getId());
+    }
+
+    @DisplayName("Test - Rotar el refresh token y rechazar el token ya usado")
+    @Test
+    void rotarRefreshToken() {
+        // given: Un refresh token emitido al iniciar sesión
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+
+        // when: Se usa el refresh token
+        DatosJWTToken tokens = usuarioService.refrescarToken(new DatosInputRefreshToken(refreshToken));
+
+        // then: Se entrega un refresh token nuevo y el anterior ya no es válido
+        assertThat(tokens.refreshToken()).isNotEqualTo(refreshToken);
+        assertThrows(ValidacionDeIntegridad.class, () -> refreshTokenService.consumir(refreshToken));
+        assertThat(refreshTokenService.consumir(tokens.refreshToken()).getId()).isEqualTo(estudianteTest.getId());
+    }
+
+    @DisplayName("Test - Usar el mismo refresh token en requests concurrentes")
+    @Test
+    void reusoConcurrente() throws Exception {
+        // given: Un refresh token vigente enviado en varias requests a la vez
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS_CONCURRENTES);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Boolean>> requests = new ArrayList<>();
+
+        // when: Todas las requests intentan consumir el token
+        for (int i = 0; i < REQUESTS_CONCURRENTES; i++) {
+            requests.add(executor.submit(() -> {
+                inicio.await();
+                try {
+                    refreshTokenService.consumir(refreshToken);
+                    return true;
+                } catch (ValidacionDeIntegridad e) {
+                    return false;
+                }
+            }));
+        }
+        inicio.countDown();
+        int exitosas = 0;
+        for (Future<Boolean> request : requests) {
+            if (request.get(30, TimeUnit.SECONDS)) {
+                exitosas++;
+            }
+        }
+        executor.shutdown();
+
+        // then: Solo una request obtiene el usuario
+        assertThat(exitosas).isEqualTo(1);
+    }
+
+    @DisplayName("Test - Rechazar un refresh token expirado")
+    @Test
+    void refreshTokenExpirado() {
+        // given: Un refresh token cuya fecha de expiración ya pasó
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+        jdbcTemplate.update("UPDATE refresh_tokens SET fecha_expiracion = ? WHERE usuario_id = ?",
+                LocalDateTime.now().minusMinutes(1), estudianteTest.getId());
+
+        // when - then: El token no se acepta
+        assertThrows(ValidacionDeIntegridad.class, () -> refreshTokenService.consumir(refreshToken));
+    }
+
+    @DisplayName("Test - Rechazar el refresh token de un usuario desactivado")
+    @Test
+    void refreshTokenUsuarioDesactivado() {
+        // given: Un refresh token emitido antes de desactivar al usuario
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+
+        // when: Se desactiva el usuario
+        usuarioService.desactivarUsuario(estudianteTest.getId(), Perfil.ESTUDIANTE);
+
+        // then: El token no entrega un nuevo access token
+        assertThrows(ValidacionDeIntegridad.class,
+                () -> usuarioService.refrescarToken(new DatosInputRefreshToken(refreshToken)));
+    }
+
+    @DisplayName("Test - Rechazar el refresh token emitido antes de cambiar la contraseña")
+    @Test
+    void refreshTokenDespuesDeCambiarPassword() {
+        // given: Un refresh token emitido con la contraseña anterior
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+
+        // when: El usuario cambia la contraseña
+        usuarioService.actualizarPasswordUsuario(new DatosInputActualizarPasswordUsuario(
+                estudianteTest.getId(), estudianteTest.getEmail(), "password", "nuevaPassword"), Perfil.ESTUDIANTE);
+
+        // then: El token ya no entrega un nuevo access token
+        assertThrows(ValidacionDeIntegridad.class,
+                () -> usuarioService.refrescarToken(new DatosInputRefreshToken(refreshToken)));
+    }
+
+    @DisplayName("Test - Revocar el access token y el refresh token al cerrar sesión")
+    @Test
+    void logoutRevocaAmbosTokens() {
+        // given: Una sesión con su access token y su refresh token
+        String accessToken = jwtService.generateToken(estudianteTest);
+        String refreshToken = refreshTokenService.emitir(estudianteTest);
+        String jti = jwtService.verificarToken(accessToken).jti();
+
+        try {
+            // when: Se cierra la sesión
+            usuarioService.logout(accessToken, new DatosInputRefreshToken(refreshToken));
+
+            // then: Ninguno de los dos tokens sigue siendo válido
+            assertThat(revocacionService.estaRevocado(jti)).isTrue();
+            assertThrows(ValidacionDeIntegridad.class, () -> refreshTokenService.consumir(refreshToken));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tokens_revocados WHERE jti = ?", jti);
+        }
+    }
+}
@@ -20,6 +20,8 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -50,7 +52,7 @@ class TopicoRepositoryTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         // Datos de prueba
@@ -71,7 +73,7 @@ class TopicoRepositoryTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         Curso cursoTest2 = Curso.builder()
@@ -79,7 +81,7 @@ class TopicoRepositoryTest {
                 .categoria(Categoria.BACKEND)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         cursoRepository.save(cursoTest1);
@@ -136,18 +138,20 @@ class TopicoRepositoryTest {
 
         // when: Ejecución de la acción a probar
         // Se obtiene una página de tópicos activos
-        Page<Topico> topicosActivos = topicoRepository.obtenerTopicosPorStatus(paginacion, topicoTest1.isResuelto());
+        Page<DatosOutputTopico> topicosActivos = topicoRepository.obtenerTopicosPorStatus(paginacion, topicoTest1.isResuelto());
 
         // Se obtiene una página de tópicos cerrados
-        Page<Topico> topicosCerrados = topicoRepository.obtenerTopicosPorStatus(paginacion, topicoTest2.isResuelto());
+        Page<DatosOutputTopico> topicosCerrados = topicoRepository.obtenerTopicosPorStatus(paginacion, topicoTest2.isResuelto());
 
         // then: Verificación de los resultados esperados
         // Se verifica que la página de tópicos activos contenga solo tópicos activos
-        assertThat(topicosActivos.getContent()).contains(topicoTest1);
-        assertThat(topicosActivos.getContent()).doesNotContain(topicoTest2);
+        assertThat(topicosActivos.getContent()).extracting(DatosOutputTopico::topico_id)
+                .contains(topicoTest1.getId())
+                .doesNotContain(topicoTest2.getId());
 
         // Se verifica que la página de tópicos cerrados contenga solo tópicos cerrados
-        assertThat(topicosCerrados.getContent()).contains(topicoTest2);
+        assertThat(topicosCerrados.getContent()).extracting(DatosOutputTopico::topico_id).contains(topicoTest2.getId());
+        assertThat(topicosCerrados.getContent()).extracting(DatosOutputTopico::resuelto).containsOnly(true);
     }
 
     @DisplayName("Test - Obtener tópicos por id y autor")
@@ -180,4 +184,97 @@ class TopicoRepositoryTest {
         // Se verifica que no se haya encontrado un tópico con el ID del segundo tópico y un autor diferente
         assertThat(topicoTest2NoRegistrado).isEqualTo(Optional.empty());
     }
-}
\ No newline at end of file
+
+    @DisplayName("Test - Obtener tópicos por status a continuación de un cursor")
+    @Test
+    void obtenerTopicosPorStatusDespuesDe() {
+        // given: Preparación de datos
+        // Se guardan tres tópicos activos con la misma fecha de creación
+        LocalDateTime fechaCreacion = LocalDateTime.of(2024, 6, 1, 10, 0);
+        List<Topico> topicos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            topicos.add(topicoRepository.save(Topico.builder()
+                    .titulo("Tópico cursor " + i)
+                    .mensaje("Tópico para paginación por cursor")
+                    .resuelto(false)
+                    .fechaCreacion(fechaCreacion)
+                    .autor(topicoTest1.getAutor())
+                    .curso(topicoTest1.getCurso())
+                    .build()));
+        }
+
+        // when: Ejecución de la acción a probar
+        // Se obtiene la primera página de tamaño 2 y luego la página siguiente al último tópico entregado
+        List<DatosOutputTopico> primeraPagina = topicoRepository.obtenerPrimerosTopicosPorStatus(false, PageRequest.ofSize(2));
+        DatosOutputTopico ultimo = primeraPagina.get(1);
+        List<DatosOutputTopico> segundaPagina = topicoRepository.obtenerTopicosPorStatusDespuesDe(false,
+                ultimo.fecha_creacion(), ultimo.topico_id(), PageRequest.ofSize(2));
+
+        // then: Verificación de los resultados esperados
+        // Se verifica que las páginas no se solapen aunque los tópicos compartan la fecha de creación
+        assertThat(primeraPagina).extracting(DatosOutputTopico::topico_id)
+                .containsExactly(topicos.get(0).getId(), topicos.get(1).getId());
+        assertThat(segundaPagina).extracting(DatosOutputTopico::topico_id).containsExactly(topicos.get(2).getId());
+    }
+
+    @DisplayName("Test - Obtener tópicos por status antes de un cursor en orden descendente")
+    @Test
+    void obtenerTopicosPorStatusAntesDe() {
+        // given: Tres tópicos activos con la misma fecha de creación, posteriores a los demás tópicos
+        LocalDateTime fechaCreacion = LocalDateTime.now().plusDays(1);
+        List<Topico> topicos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            topicos.add(topicoRepository.save(Topico.builder()
+                    .titulo("Tópico cursor " + i)
+                    .mensaje("Tópico para paginación por cursor")
+                    .resuelto(false)
+                    .fechaCreacion(fechaCreacion)
+                    .autor(topicoTest1.getAutor())
+                    .curso(topicoTest1.getCurso())
+                    .build()));
+        }
+
+        // when: Se obtiene la primera página descendente de tamaño 2 y luego la página anterior al último tópico entregado
+        List<DatosOutputTopico> primeraPagina = topicoRepository.obtenerUltimosTopicosPorStatus(false, PageRequest.ofSize(2));
+        DatosOutputTopico ultimo = primeraPagina.get(1);
+        List<DatosOutputTopico> segundaPagina = topicoRepository.obtenerTopicosPorStatusAntesDe(false,
+                ultimo.fecha_creacion(), ultimo.topico_id(), PageRequest.ofSize(1));
+
+        // then: Las páginas recorren los tópicos del más reciente al más antiguo sin solaparse
+        assertThat(primeraPagina).extracting(DatosOutputTopico::topico_id)
+                .containsExactly(topicos.get(2).getId(), topicos.get(1).getId());
+        assertThat(segundaPagina).extracting(DatosOutputTopico::topico_id).containsExactly(topicos.get(0).getId());
+    }
+
+    @DisplayName("Test - Cerrar tópicos por ids y por filtro sin cargar las entidades")
+    @Test
+    void cerrarTopicos() {
+        // given: Dos tópicos abiertos del primer curso y uno del segundo curso
+        topicoRepository.save(topicoTest1);
+        topicoRepository.save(topicoTest2);
+        Curso cursoTest2 = cursoRepository.findByNombre("Curso 2").orElseThrow();
+        Topico topicoOtroCurso = topicoRepository.save(Topico.builder()
+                .titulo("Tópico otro curso")
+                .mensaje("Tópico que no cumple el filtro")
+                .resuelto(false)
+                .fechaCreacion(LocalDateTime.now())
+                .autor(topicoTest1.getAutor())
+                .curso(cursoTest2)
+                .build());
+
+        // when: Obtener los tópicos abiertos del primer curso y cerrarlos con un UPDATE
+        List<Long> ids = topicoRepository.obtenerIdsTopicosAbiertosPorCurso(topicoTest1.getCurso().getId(), 0L, PageRequest.of(0, 10));
+        int cerrados = topicoRepository.cerrarTopicos(ids);
+        int cerradosNuevamente = topicoRepository.cerrarTopicos(ids);
+
+        // then: Solo se cierran los tópicos del filtro y un tópico ya cerrado no se vuelve a actualizar
+        assertThat(ids).containsExactly(topicoTest1.getId(), topicoTest2.getId());
+        assertThat(cerrados).isEqualTo(2);
+        assertThat(cerradosNuevamente).isZero();
+        assertThat(topicoRepository.obtenerEstadoTopicos(List.of(topicoTest1.getId(), topicoTest2.getId(), topicoOtroCurso.getId())))
+                .containsExactlyInAnyOrder(
+                        new EstadoTopico(topicoTest1.getId(), true, topicoTest1.getCurso().getId()),
+                        new EstadoTopico(topicoTest2.getId(), true, topicoTest2.getCurso().getId()),
+                        new EstadoTopico(topicoOtroCurso.getId(), false, cursoTest2.getId()));
+    }
+}
@@ -6,7 +6,10 @@ import com.github.anbeld.ForoHub.domain.curso.CursoRepository;
 import com.github.anbeld.ForoHub.domain.usuario.Perfil;
 import com.github.anbeld.ForoHub.domain.usuario.Usuario;
 import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import com.github.anbeld.ForoHub.infra.cache.VersionesRecursos;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.paginacion.CursorPaginacion;
+import com.github.anbeld.ForoHub.infra.paginacion.OrdenCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,10 +22,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest
@@ -47,6 +54,12 @@ class TopicoServiceTest {
     @Mock
     private TopicoRepository topicoRepository;
 
+    @Mock
+    private VersionesRecursos versiones;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TopicoService service;
 
@@ -66,7 +79,7 @@ class TopicoServiceTest {
                 .password("password")
                 .status(true)
                 .userRole(Perfil.ESTUDIANTE)
-                .cursosEstudiante(new ArrayList<>())
+                .cursosEstudiante(new HashSet<>())
                 .build();
 
         // Datos de prueba
@@ -86,7 +99,7 @@ class TopicoServiceTest {
                 .categoria(Categoria.DEVOPS)
                 .numeroEstudiantes(0)
                 .docente(docenteTest)
-                .estudiantes(new ArrayList<>())
+                .estudiantes(new HashSet<>())
                 .build();
 
         topicoTest1 = Topico.builder()
@@ -115,6 +128,14 @@ class TopicoServiceTest {
                 .autor(estudianteTest)
                 .curso(cursoTest)
                 .build();
+
+        // La transacción de cada lote ejecuta directamente el callback
+        given(transactionTemplate.execute(any())).willAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // Lotes pequeños para verificar el procesamiento por lotes del cierre
+        ReflectionTestUtils.setField(service, "TAMANO_LOTE", 2);
+        ReflectionTestUtils.setField(service, "MAXIMO_POR_FILTRO", 10);
     }
 
     @DisplayName("Test - Registrar un nuevo tópico")
@@ -130,22 +151,24 @@ class TopicoServiceTest {
         // Se configura el comportamiento del mock del repositorio de tópicos para devolver el tópico de prueba
         given(topicoRepository.save(any(Topico.class))).willReturn(topicoTest1);
 
-        // Se construye una URL de prueba para simular la solicitud HTTP
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar
         // Se llama al servicio para registrar un nuevo tópico con los datos de entrada
         Topico nuevoTopico = service.registrarTopico(new DatosInputTopico(
                         topicoTest1.getCurso().getId(),
                         topicoTest1.getAutor().getId(),
                         topicoTest1.getTitulo(),
-                        topicoTest1.getMensaje()),
-                testUrl);
+                        topicoTest1.getMensaje()));
 
         // then: Verificación de los resultados esperados
         // Se verifica que el tópico devuelto por el servicio no sea nulo y sea igual al tópico de prueba
         assertThat(nuevoTopico).isNotNull();
         assertThat(nuevoTopico).isEqualTo(topicoTest1);
+
+        // Se verifica que el tópico se guarda una sola vez, sin un segundo save para la url
+        verify(topicoRepository, times(1)).save(any(Topico.class));
+
+        // Se verifica que se actualiza la versión de los listados de tópicos
+        verify(versiones).actualizar(VersionesRecursos.TOPICOS);
     }
 
     @DisplayName("Test - Registrar un nuevo tópico con ValidacionDeIntegridad usuario no válido")
@@ -155,9 +178,6 @@ class TopicoServiceTest {
         // Se configura el comportamiento del mock del repositorio de usuarios para devolver un Optional vacío, simulando un usuario no válido
         given(usuarioRepository.findById(estudianteTest.getId())).willReturn(Optional.empty());
 
-        // Se construye una URL de prueba para simular la solicitud HTTP
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar y verificación de la excepción esperada
         // Se utiliza assertThrows para verificar que se lance una excepción de tipo ValidacionDeIntegridad al intentar registrar el tópico,
         // debido a que el usuario no existe
@@ -165,8 +185,7 @@ class TopicoServiceTest {
                         topicoTest1.getCurso().getId(),
                         topicoTest1.getAutor().getId(),
                         topicoTest1.getTitulo(),
-                        topicoTest1.getMensaje()),
-                testUrl));
+                        topicoTest1.getMensaje())));
 
         // then: Verificación de que no se llamó al método save del repositorio de tópicos
         // Se verifica que el método save del repositorio de tópicos nunca fue llamado
@@ -183,9 +202,6 @@ class TopicoServiceTest {
         // Se configura el comportamiento del mock del repositorio de cursos para devolver un Optional vacío, simulando un curso no válido
         given(cursoRepository.obtenerCursoPorId(cursoTest.getId())).willReturn(Optional.empty());
 
-        // Se construye una URL de prueba para simular la solicitud HTTP
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar y verificación de la excepción esperada
         // Se utiliza assertThrows para verificar que se lance una excepción de tipo ValidacionDeIntegridad al intentar registrar el tópico,
         // debido a que el curso no exite
@@ -193,8 +209,7 @@ class TopicoServiceTest {
                         topicoTest1.getCurso().getId(),
                         topicoTest1.getAutor().getId(),
                         topicoTest1.getTitulo(),
-                        topicoTest1.getMensaje()),
-                testUrl));
+                        topicoTest1.getMensaje())));
 
         // then: Verificación de que no se llamó al método save del repositorio de tópicos
         // Se verifica que el método save del repositorio de tópicos nunca fue llamado
@@ -218,7 +233,7 @@ class TopicoServiceTest {
         given(topicoRepository.obtenerTopicosPorStatus(paginacion, false))
                 .willReturn(
                         new PageImpl<>(
-                                topicos.stream().filter(t -> !t.isResuelto()).toList(), // Filtrar tópicos activos
+                                topicos.stream().filter(t -> !t.isResuelto()).map(DatosOutputTopico::new).toList(), // Filtrar tópicos activos
                                 paginacion,
                                 topicos.size())
                 );
@@ -254,7 +269,7 @@ class TopicoServiceTest {
         given(topicoRepository.obtenerTopicosPorStatus(paginacion, true))
                 .willReturn(
                         new PageImpl<>(
-                                topicos.stream().filter(Topico::isResuelto).toList(), // Filtrar tópicos inactivos
+                                topicos.stream().filter(Topico::isResuelto).map(DatosOutputTopico::new).toList(), // Filtrar tópicos inactivos
                                 paginacion,
                                 topicos.size())
                 );
@@ -289,7 +304,7 @@ class TopicoServiceTest {
         // Se configura el comportamiento del mock del repositorio de tópicos para devolver un Page con todos los tópicos
         given(topicoRepository.obtenerTopicosPorStatus(paginacion, true))
                 .willReturn(
-                        new PageImpl<>(topicos, paginacion, topicos.size())
+                        new PageImpl<>(topicos.stream().map(DatosOutputTopico::new).toList(), paginacion, topicos.size())
                 );
 
         // when: Ejecución de la acción a probar
@@ -309,49 +324,268 @@ class TopicoServiceTest {
     @DisplayName("Test - Cerrar un tópico")
     @Test
     void cerrarTopico() {
-        // given: Preparación de datos y configuración de comportamiento del mock
-        // Se prepara una lista de tópicos activos
-        List<Topico> topicos = new ArrayList<>();
-        topicos.add(topicoTest2);
-        topicos.add(topicoTest3);
+        // given: El UPDATE cierra el tópico
+        given(topicoRepository.cerrarTopicos(List.of(1L))).willReturn(1);
 
-        // Se establece la paginación para la consulta
-        Pageable paginacion = PageRequest.of(0, 10, Sort.by("fechaCreacion"));
+        // when: Cerrar el tópico
+        service.cerrarTopico(1L);
 
-        // Se configura el comportamiento del mock del repositorio de usuarios para devolver el estudiante
-        given(usuarioRepository.findById(estudianteTest.getId())).willReturn(Optional.of(estudianteTest));
+        // then: El tópico se cierra sin cargar ni guardar la entidad
+        verify(topicoRepository).cerrarTopicos(List.of(1L));
+        verify(topicoRepository, never()).findById(any(Long.class));
+        verify(topicoRepository, never()).save(any(Topico.class));
+        verify(versiones).actualizar(VersionesRecursos.TOPICOS);
+    }
 
-        // Se configura el comportamiento del mock del repositorio de tópicos para devolver el tópico que se va a cerrar
-        given(topicoRepository.findById(topicoTest1.getId())).willReturn(Optional.of(topicoTest1));
+    @DisplayName("Test - Cerrar un tópico ya cerrado sin cambiar la versión de los listados")
+    @Test
+    void cerrarTopicoYaCerrado() {
+        // given: El UPDATE no afecta filas pero el tópico existe
+        given(topicoRepository.cerrarTopicos(List.of(2L))).willReturn(0);
+        given(topicoRepository.existsById(2L)).willReturn(true);
 
-        // Se configura el comportamiento del mock del repositorio de tópicos para devolver una lista de tópicos activos
-        given(topicoRepository.obtenerTopicosPorStatus(paginacion, false))
-                .willReturn(
-                        new PageImpl<>(
-                                topicos.stream().filter(t -> !t.isResuelto()).toList(),
-                                paginacion,
-                                topicos.size())
-                );
-        // Se configura el comportamiento del mock del repositorio de tópicos para devolver el tópico actualizado
-        given(topicoRepository.save(any(Topico.class))).willReturn(topicoTest1);
+        // when: Cerrar el tópico
+        service.cerrarTopico(2L);
 
-        //when: Ejecución de la acción a probar
-        // Se cierra el tópico
-        service.cerrarTopico(topicoTest1.getId());
-        topicos.add(topicoTest1);
+        // then: Los listados no cambian, los clientes conservan su versión
+        verify(versiones, never()).actualizar(any(String.class));
+    }
 
-        // Se obtiene la lista de tópicos activos después de cerrar el tópico
-        var response = service.obtenerTopicosPorStatus(paginacion, false);
+    @DisplayName("Test - Cerrar un tópico inexistente con ValidacionDeIntegridad")
+    @Test
+    void cerrarTopicoConValidacionDeIntegridad() {
+        // given: El UPDATE no afecta filas y el tópico no existe
+        given(topicoRepository.cerrarTopicos(List.of(99L))).willReturn(0);
+        given(topicoRepository.existsById(99L)).willReturn(false);
 
-        //then: Verificación de los resultados esperados
-        // Se verifica que el tópico se haya cerrado correctamente
-        assertThat(topicoTest1.isResuelto()).isEqualTo(true);
-        // Se verifica que la respuesta no sea nula y que contenga la cantidad correcta de elementos
-        assertThat(response).isNotNull();
-        assertThat(response.getTotalElements()).isEqualTo(topicos.size() - 2);
-        // Se verifica que la respuesta contenga los tópicos esperados
-        assertThat(response).doesNotContain(new DatosOutputTopico(topicoTest1));
-        assertThat(response).contains(new DatosOutputTopico(topicoTest2));
-        assertThat(response).doesNotContain(new DatosOutputTopico(topicoTest3));
+        // when - then: Cerrar el tópico lanza ValidacionDeIntegridad
+        assertThrows(ValidacionDeIntegridad.class, () -> service.cerrarTopico(99L));
+    }
+
+    @DisplayName("Test - Cerrar tópicos por ids en lotes con el resultado de cada id")
+    @Test
+    void cerrarTopicosPorIds() {
+        // given: Tópicos abiertos, uno cerrado, uno inexistente y uno de un curso de otro docente, repartidos en tres lotes
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(cursoTest.getId()));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(1L, 2L)))
+                .willReturn(List.of(new EstadoTopico(1L, false, 1L), new EstadoTopico(2L, true, 1L)));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(3L, 4L)))
+                .willReturn(List.of(new EstadoTopico(3L, false, 1L)));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(6L)))
+                .willReturn(List.of(new EstadoTopico(6L, false, 5L)));
+        given(topicoRepository.cerrarTopicos(List.of(1L))).willReturn(1);
+        given(topicoRepository.cerrarTopicos(List.of(3L))).willReturn(1);
+
+        // when: El docente cierra los tópicos, con un id repetido
+        var resultados = service.cerrarTopicos(new DatosInputCerrarTopicos(List.of(1L, 2L, 3L, 4L, 1L, 6L), null, null), 2L);
+
+        // then: Cada lote se cierra en su propia transacción con un UPDATE que solo incluye los tópicos abiertos de los cursos del docente
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(topicoRepository).cerrarTopicos(List.of(1L));
+        verify(topicoRepository).cerrarTopicos(List.of(3L));
+        verify(topicoRepository, never()).cerrarTopicos(List.of(6L));
+        assertThat(resultados).containsExactly(
+                new DatosOutputCierreTopico(1L, ResultadoCierre.CERRADO),
+                new DatosOutputCierreTopico(2L, ResultadoCierre.YA_CERRADO),
+                new DatosOutputCierreTopico(3L, ResultadoCierre.CERRADO),
+                new DatosOutputCierreTopico(4L, ResultadoCierre.NO_ENCONTRADO),
+                new DatosOutputCierreTopico(6L, ResultadoCierre.SIN_PERMISO));
+    }
+
+    @DisplayName("Test - Revertir el lote si el UPDATE no cierra todos los tópicos leídos como abiertos")
+    @Test
+    void cerrarTopicosPorIdsConConteoDistinto() {
+        // given: Dos tópicos leídos como abiertos, de los que el UPDATE solo cierra uno
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(cursoTest.getId()));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(1L, 2L)))
+                .willReturn(List.of(new EstadoTopico(1L, false, 1L), new EstadoTopico(2L, false, 1L)));
+        given(topicoRepository.cerrarTopicos(List.of(1L, 2L))).willReturn(1);
+
+        // when - then: El lote falla en lugar de informar como CERRADO un tópico que no cerró
+        assertThrows(IllegalStateException.class,
+                () -> service.cerrarTopicos(new DatosInputCerrarTopicos(List.of(1L, 2L), null, null), 2L));
+        verify(versiones).actualizar(VersionesRecursos.TOPICOS);
+    }
+
+    @DisplayName("Test - Cerrar tópicos por filtro en lotes")
+    @Test
+    void cerrarTopicosPorFiltro() {
+        // given: Tres tópicos abiertos del curso del docente, que ocupan un lote completo y uno parcial
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(cursoTest.getId()));
+        LocalDateTime fecha = LocalDateTime.of(2024, 6, 1, 0, 0);
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(cursoTest.getId(), fecha, 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(5L, 7L));
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(cursoTest.getId(), fecha, 7L, PageRequest.of(0, 2)))
+                .willReturn(List.of(9L));
+        topicosAbiertos(5L, 7L);
+        topicosAbiertos(9L);
+
+        // when: Cerrar los tópicos del curso creados antes de la fecha
+        var resultados = service.cerrarTopicos(new DatosInputCerrarTopicos(null, cursoTest.getId(), fecha), 2L);
+
+        // then: Cada lote continúa después del último id y no se consulta un lote adicional
+        verify(topicoRepository).cerrarTopicos(List.of(5L, 7L));
+        verify(topicoRepository).cerrarTopicos(List.of(9L));
+        verify(topicoRepository, times(2)).obtenerIdsTopicosAbiertosPorCursoAntesDe(any(), any(), any(), any());
+        assertThat(resultados).extracting(DatosOutputCierreTopico::topico_id).containsExactly(5L, 7L, 9L);
+        assertThat(resultados).extracting(DatosOutputCierreTopico::resultado).containsOnly(ResultadoCierre.CERRADO);
+    }
+
+    @DisplayName("Test - Informar como YA_CERRADO un tópico cerrado por otra solicitud durante el cierre por filtro")
+    @Test
+    void cerrarTopicosPorFiltroConCierreConcurrente() {
+        // given: Un tópico del lote se cerró después de leer los ids abiertos
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(cursoTest.getId()));
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCurso(cursoTest.getId(), 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(5L));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(5L))).willReturn(List.of(new EstadoTopico(5L, true, 1L)));
+
+        // when: Cerrar los tópicos del curso
+        var resultados = service.cerrarTopicos(new DatosInputCerrarTopicos(null, cursoTest.getId(), null), 2L);
+
+        // then: El tópico no se vuelve a actualizar ni se informa como cerrado por esta solicitud
+        verify(topicoRepository, never()).cerrarTopicos(any());
+        assertThat(resultados).containsExactly(new DatosOutputCierreTopico(5L, ResultadoCierre.YA_CERRADO));
+    }
+
+    @DisplayName("Test - Cerrar tópicos por filtro hasta el máximo por solicitud")
+    @Test
+    void cerrarTopicosPorFiltroHastaElMaximo() {
+        // given: Un máximo de tres tópicos por solicitud y más tópicos abiertos en el curso
+        ReflectionTestUtils.setField(service, "MAXIMO_POR_FILTRO", 3);
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(cursoTest.getId()));
+        LocalDateTime fecha = LocalDateTime.of(2024, 6, 1, 0, 0);
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(cursoTest.getId(), fecha, 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(5L, 7L));
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(cursoTest.getId(), fecha, 7L, PageRequest.of(0, 1)))
+                .willReturn(List.of(9L));
+        topicosAbiertos(5L, 7L);
+        topicosAbiertos(9L);
+
+        // when: Cerrar los tópicos del curso creados antes de la fecha
+        var resultados = service.cerrarTopicos(new DatosInputCerrarTopicos(null, cursoTest.getId(), fecha), 2L);
+
+        // then: El último lote se recorta al máximo y no se consultan más tópicos
+        verify(topicoRepository).cerrarTopicos(List.of(5L, 7L));
+        verify(topicoRepository).cerrarTopicos(List.of(9L));
+        verify(topicoRepository, times(2)).obtenerIdsTopicosAbiertosPorCursoAntesDe(any(), any(), any(), any());
+        assertThat(resultados).extracting(DatosOutputCierreTopico::topico_id).containsExactly(5L, 7L, 9L);
+    }
+
+    @DisplayName("Test - Cerrar tópicos sin ids ni filtro con ValidacionDeIntegridad")
+    @Test
+    void cerrarTopicosSinIdsNiFiltro() {
+        // when - then: La solicitud debe indicar ids o un filtro, no ambos
+        assertThrows(ValidacionDeIntegridad.class,
+                () -> service.cerrarTopicos(new DatosInputCerrarTopicos(List.of(), null, null), 2L));
+        assertThrows(ValidacionDeIntegridad.class,
+                () -> service.cerrarTopicos(new DatosInputCerrarTopicos(List.of(1L), cursoTest.getId(), null), 2L));
+        verify(topicoRepository, never()).cerrarTopicos(any());
+    }
+
+    @DisplayName("Test - Cerrar tópicos por filtro de un curso de otro docente con ValidacionDeIntegridad")
+    @Test
+    void cerrarTopicosPorFiltroCursoDeOtroDocente() {
+        // given: El docente no dicta el curso del filtro
+        given(cursoRepository.obtenerIdsCursosPorDocente(5L)).willReturn(List.of(8L));
+
+        // when - then: La solicitud se rechaza sin consultar ni cerrar tópicos
+        assertThrows(ValidacionDeIntegridad.class,
+                () -> service.cerrarTopicos(new DatosInputCerrarTopicos(null, cursoTest.getId(), null), 5L));
+        verify(topicoRepository, never()).obtenerIdsTopicosAbiertosPorCurso(any(), any(), any());
+        verify(topicoRepository, never()).cerrarTopicos(any());
+    }
+
+    @DisplayName("Test - Cerrar tópicos por fecha solo en los cursos del docente")
+    @Test
+    void cerrarTopicosPorFechaEnCursosDelDocente() {
+        // given: Un docente con dos cursos y un filtro solo por fecha
+        LocalDateTime fecha = LocalDateTime.of(2024, 6, 1, 0, 0);
+        given(cursoRepository.obtenerIdsCursosPorDocente(2L)).willReturn(List.of(1L, 4L));
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(1L, fecha, 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(5L));
+        given(topicoRepository.obtenerIdsTopicosAbiertosPorCursoAntesDe(4L, fecha, 0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(8L));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(5L))).willReturn(List.of(new EstadoTopico(5L, false, 1L)));
+        given(topicoRepository.obtenerEstadoTopicos(List.of(8L))).willReturn(List.of(new EstadoTopico(8L, false, 4L)));
+        given(topicoRepository.cerrarTopicos(any())).willReturn(1);
+
+        // when: Cerrar los tópicos creados antes de la fecha
+        var resultados = service.cerrarTopicos(new DatosInputCerrarTopicos(null, null, fecha), 2L);
+
+        // then: Solo se recorren los cursos del docente
+        verify(topicoRepository, times(2)).obtenerIdsTopicosAbiertosPorCursoAntesDe(any(), any(), any(), any());
+        assertThat(resultados).extracting(DatosOutputCierreTopico::topico_id).containsExactly(5L, 8L);
+        assertThat(resultados).extracting(DatosOutputCierreTopico::resultado).containsOnly(ResultadoCierre.CERRADO);
+    }
+
+    // Tópicos abiertos del curso de prueba que el UPDATE cierra en su totalidad
+    private void topicosAbiertos(Long... ids) {
+        List<Long> lote = List.of(ids);
+        given(topicoRepository.obtenerEstadoTopicos(lote))
+                .willReturn(lote.stream().map(id -> new EstadoTopico(id, false, cursoTest.getId())).toList());
+        given(topicoRepository.cerrarTopicos(lote)).willReturn(lote.size());
+    }
+
+    @DisplayName("Test - Obtener listado de tópicos activos por cursor")
+    @Test
+    void obtenerTopicosActivosPorCursor() {
+        // given: Preparación de datos y configuración de comportamiento del mock
+        // Se preparan tópicos activos con id y un cursor posterior al primero
+        LocalDateTime fechaCreacion = LocalDateTime.of(2024, 6, 1, 10, 0);
+        topicoTest1 = topicoConId(1L, fechaCreacion);
+        topicoTest2 = topicoConId(2L, fechaCreacion);
+        Topico topicoTest4 = topicoConId(4L, fechaCreacion.plusMinutes(1));
+        CursorPaginacion after = new CursorPaginacion(topicoTest1.getFechaCreacion(), topicoTest1.getId());
+
+        // Se configura el mock del repositorio de tópicos para devolver un elemento más que el tamaño pedido
+        given(topicoRepository.obtenerTopicosPorStatusDespuesDe(false, after.fechaCreacion(), after.id(), CursorPaginacion.limite(1)))
+                .willReturn(List.of(new DatosOutputTopico(topicoTest2), new DatosOutputTopico(topicoTest4)));
+
+        // when: Ejecución de la acción a probar
+        // Se obtiene la página de tamaño 1 a continuación del cursor
+        var response = service.obtenerTopicosPorStatus(after, 1, false, OrdenCursor.ASC);
+
+        // then: Verificación de los resultados esperados
+        // Se verifica que la página contenga solo el tópico siguiente y que el cursor apunte a él
+        assertThat(response.contenido()).containsExactly(new DatosOutputTopico(topicoTest2));
+        assertThat(CursorPaginacion.decodificar(response.siguiente()))
+                .isEqualTo(new CursorPaginacion(topicoTest2.getFechaCreacion(), topicoTest2.getId()));
+    }
+
+    @DisplayName("Test - Obtener listado de tópicos activos por cursor en orden descendente")
+    @Test
+    void obtenerTopicosActivosPorCursorDescendente() {
+        // given: Tópicos activos y un cursor en el tópico más reciente ya entregado
+        LocalDateTime fechaCreacion = LocalDateTime.of(2024, 6, 1, 10, 0);
+        topicoTest1 = topicoConId(1L, fechaCreacion);
+        topicoTest2 = topicoConId(2L, fechaCreacion);
+        Topico topicoTest4 = topicoConId(4L, fechaCreacion.plusMinutes(1));
+        CursorPaginacion after = new CursorPaginacion(topicoTest4.getFechaCreacion(), topicoTest4.getId());
+
+        // El repositorio devuelve los tópicos anteriores al cursor, del más reciente al más antiguo
+        given(topicoRepository.obtenerTopicosPorStatusAntesDe(false, after.fechaCreacion(), after.id(), CursorPaginacion.limite(1)))
+                .willReturn(List.of(new DatosOutputTopico(topicoTest2), new DatosOutputTopico(topicoTest1)));
+
+        // when: Se obtiene la página de tamaño 1 antes del cursor
+        var response = service.obtenerTopicosPorStatus(after, 1, false, OrdenCursor.DESC);
+
+        // then: La página contiene el tópico anterior, el cursor apunta a él y no se usa la consulta ascendente
+        assertThat(response.contenido()).containsExactly(new DatosOutputTopico(topicoTest2));
+        assertThat(CursorPaginacion.decodificar(response.siguiente()))
+                .isEqualTo(new CursorPaginacion(topicoTest2.getFechaCreacion(), topicoTest2.getId()));
+        verify(topicoRepository, never()).obtenerTopicosPorStatusDespuesDe(any(Boolean.class), any(), any(), any());
+    }
+
+    private Topico topicoConId(Long id, LocalDateTime fechaCreacion) {
+        return Topico.builder()
+                .id(id)
+                .titulo("Tópico " + id)
+                .mensaje("Tópico para paginación por cursor")
+                .resuelto(false)
+                .fechaCreacion(fechaCreacion)
+                .autor(estudianteTest)
+                .curso(cursoTest)
+                .build();
     }
-}
\ No newline at end of file
+}
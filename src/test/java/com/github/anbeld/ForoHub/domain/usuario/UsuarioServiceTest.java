@@ -1,8 +1,11 @@
 package com.github.anbeld.ForoHub.domain.usuario;
 
+import com.github.anbeld.ForoHub.domain.token.RefreshTokenService;
 import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import com.github.anbeld.ForoHub.infra.security.AuthenticationService;
 import com.github.anbeld.ForoHub.infra.security.DatosJWTToken;
 import com.github.anbeld.ForoHub.infra.security.JWTService;
+import com.github.anbeld.ForoHub.infra.security.TokenVersionService;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,10 +18,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,15 +43,24 @@ class UsuarioServiceTest {
     @Mock
     private UsuarioRepository repository;
 
-    @Mock
-    private AuthenticationManager authenticationManager;
-
     @Mock
     private JWTService jwtService;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private UsuarioService service;
 
@@ -61,6 +75,10 @@ class UsuarioServiceTest {
     // Configurar datos de prueba antes de cada test
     @BeforeEach
     void setUp() {
+        // La transacción de escritura ejecuta directamente el callback
+        given(transactionTemplate.execute(any())).willAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         estudianteTest1 = Usuario.builder()
                 .id(1L)
                 .userName("Pablo Estudiante")
@@ -122,7 +140,9 @@ class UsuarioServiceTest {
         // Se configura el comportamiento del mock del repositorio de usuarios para devolver el estudiante
         given(repository.obtenerUsuarioPorEmail(estudianteTest1.getEmail())).willReturn(Optional.of(estudianteTest1));
         // Se configura el comportamiento del servicio JWT para generar un token
-        given(jwtService.generateToken(estudianteTest1.getEmail(), estudianteTest1.getUserRole())).willReturn("esteEsElTokenGenerado");
+        // Se configura el comportamiento del encoder para aceptar la contraseña suministrada
+        given(passwordEncoder.matches(estudianteTest1.getPassword(), estudianteTest1.getPassword())).willReturn(true);
+        given(jwtService.generateToken(estudianteTest1)).willReturn("esteEsElTokenGenerado");
 
         // when: Ejecución de la acción a probar
         // Se realiza el inicio de sesión del estudiante y se obtiene el token generado
@@ -140,7 +160,9 @@ class UsuarioServiceTest {
         // Se configura el comportamiento del mock del repositorio de usuarios para devolver el docente
         given(repository.obtenerUsuarioPorEmail(docenteTest1.getEmail())).willReturn(Optional.of(docenteTest1));
         // Se configura el comportamiento del servicio JWT para generar un token
-        given(jwtService.generateToken(docenteTest1.getEmail(), docenteTest1.getUserRole())).willReturn("esteEsElTokenGenerado");
+        // Se configura el comportamiento del encoder para aceptar la contraseña suministrada
+        given(passwordEncoder.matches(docenteTest1.getPassword(), docenteTest1.getPassword())).willReturn(true);
+        given(jwtService.generateToken(docenteTest1)).willReturn("esteEsElTokenGenerado");
 
         // when: Ejecución de la acción a probar
         // Se realiza el inicio de sesión del docente y se obtiene el token generado
@@ -151,6 +173,64 @@ class UsuarioServiceTest {
         assertThat(token.jwTtoken()).isEqualTo("esteEsElTokenGenerado");
     }
 
+    @DisplayName("Test - Actualizar el hash de la contraseña al iniciar sesión")
+    @Test
+    void loginConRehashPassword() {
+        // given: El hash registrado fue generado con otro costo
+        given(repository.obtenerUsuarioPorEmail(estudianteTest1.getEmail())).willReturn(Optional.of(estudianteTest1));
+        given(passwordEncoder.matches("password", "password")).willReturn(true);
+        given(passwordEncoder.upgradeEncoding("password")).willReturn(true);
+        given(passwordEncoder.encode("password")).willReturn("{bcrypt}nuevoHash");
+        given(repository.rehashPassword(1L, "password", "{bcrypt}nuevoHash")).willReturn(1);
+        given(jwtService.generateToken(estudianteTest1)).willReturn("esteEsElTokenGenerado");
+
+        // when: Se inicia sesión
+        DatosJWTToken token = service.login(new DatosInputLoginUsuario(estudianteTest1.getEmail(), "password"));
+
+        // then: El hash se actualiza sin invalidar los tokens del usuario
+        assertThat(token.jwTtoken()).isEqualTo("esteEsElTokenGenerado");
+        verify(repository, times(1)).rehashPassword(1L, "password", "{bcrypt}nuevoHash");
+        verify(repository, never()).actualizarPassword(any(), any());
+        verify(authenticationService, times(1)).invalidarUsuario(estudianteTest1.getEmail());
+    }
+
+    @DisplayName("Test - Iniciar sesión con una contraseña incorrecta")
+    @Test
+    void loginConPasswordIncorrecto() {
+        // given: El usuario existe pero la contraseña no corresponde al hash registrado
+        given(repository.obtenerUsuarioPorEmail(estudianteTest1.getEmail())).willReturn(Optional.of(estudianteTest1));
+        given(passwordEncoder.matches("incorrecto", estudianteTest1.getPassword())).willReturn(false);
+
+        // when - then: El inicio de sesión falla sin generar un token
+        assertThrows(BadCredentialsException.class,
+                () -> service.login(new DatosInputLoginUsuario(estudianteTest1.getEmail(), "incorrecto")));
+        verify(repository, times(1)).obtenerUsuarioPorEmail(estudianteTest1.getEmail());
+        verify(jwtService, never()).generateToken(any(Usuario.class));
+    }
+
+    @DisplayName("Test - Iniciar sesión con un usuario desactivado")
+    @Test
+    void loginUsuarioInactivo() {
+        // given: El usuario está desactivado aunque la contraseña sea correcta
+        Usuario inactivo = Usuario.builder()
+                .id(4L)
+                .userName("Laura Estudiante")
+                .email("laura.estudiante@foro.com")
+                .password("password")
+                .status(false)
+                .userRole(Perfil.ESTUDIANTE)
+                .build();
+        given(repository.obtenerUsuarioPorEmail(inactivo.getEmail())).willReturn(Optional.of(inactivo));
+        given(passwordEncoder.matches("password", "password")).willReturn(true);
+
+        // when - then: El inicio de sesión se rechaza sin verificar la contraseña ni emitir tokens
+        assertThrows(DisabledException.class,
+                () -> service.login(new DatosInputLoginUsuario(inactivo.getEmail(), "password")));
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(jwtService, never()).generateToken(any(Usuario.class));
+        verify(refreshTokenService, never()).emitir(any());
+    }
+
     @DisplayName("Test - Registrar un nuevo estudiante")
     @SneakyThrows
     @Test
@@ -160,21 +240,20 @@ class UsuarioServiceTest {
         given(repository.obtenerUsuarioPorEmail(estudianteTest1.getEmail())).willReturn(Optional.empty());
         given(repository.save(any(Usuario.class))).willReturn(estudianteTest1);
 
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar
         // Se registra un nuevo estudiante mediante el servicio y se obtiene el usuario registrado
         Usuario nuevoEstudiante = service.registrarUsuario(
                 new DatosInputRegistrarUsuario(estudianteTest1.getUserName(),
                         estudianteTest1.getEmail(), estudianteTest1.getPassword()),
-                estudianteTest1.getUserRole(),
-                testUrl);
+                estudianteTest1.getUserRole());
 
         // then: Verificación de los resultados esperados
         // Se verifica que el nuevo estudiante registrado tenga los mismos datos que el estudiante de prueba
         assertThat(nuevoEstudiante).isNotNull();
         assertThat(nuevoEstudiante.getEmail()).isEqualTo(estudianteTest1.getEmail());
         assertThat(nuevoEstudiante.getUserName()).isEqualTo(estudianteTest1.getUserName());
+        // Se verifica que se descarte la copia cacheada del email registrado
+        verify(authenticationService, times(1)).invalidarUsuario(estudianteTest1.getEmail());
     }
 
     @DisplayName("Test - Registrar un nuevo estudiante con ValidaciDeIntegridad")
@@ -185,15 +264,12 @@ class UsuarioServiceTest {
         // Se configura el comportamiento del mock del repositorio de usuarios para devolver un usuario existente
         given(repository.obtenerUsuarioPorEmail(estudianteTest1.getEmail())).willReturn(Optional.of(estudianteTest1));
 
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar y verificación de excepción esperada
         // Se espera que la acción de registrar un nuevo estudiante lance una ValidacionDeIntegridad
         assertThrows(ValidacionDeIntegridad.class, () -> service.registrarUsuario(
                 new DatosInputRegistrarUsuario(estudianteTest1.getUserName(),
                         estudianteTest1.getEmail(), estudianteTest1.getPassword()),
-                estudianteTest1.getUserRole(),
-                testUrl));
+                estudianteTest1.getUserRole()));
 
         // then: Verificación de que no se haya guardado ningún usuario en el repositorio
         // Se verifica que el método save del repositorio nunca se haya llamado con cualquier usuario
@@ -211,21 +287,20 @@ class UsuarioServiceTest {
         // Se configura el comportamiento del mock del repositorio para devolver el docente registrado
         given(repository.save(any(Usuario.class))).willReturn(docenteTest1);
 
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar
         // Se registra un nuevo docente
         Usuario nuevoDocente = service.registrarUsuario(
                 new DatosInputRegistrarUsuario(docenteTest1.getUserName(),
                         docenteTest1.getEmail(), docenteTest1.getPassword()),
-                docenteTest1.getUserRole(),
-                testUrl);
+                docenteTest1.getUserRole());
 
         //then: Verificación de que se haya registrado el nuevo docente correctamente
         // Se verifica que el docente registrado no sea nulo y que tenga los datos esperados
         assertThat(nuevoDocente).isNotNull();
         assertThat(nuevoDocente.getEmail()).isEqualTo(docenteTest1.getEmail());
         assertThat(nuevoDocente.getUserName()).isEqualTo(docenteTest1.getUserName());
+        // Se verifica que se descarte la copia cacheada del email registrado
+        verify(authenticationService, times(1)).invalidarUsuario(docenteTest1.getEmail());
     }
 
     @DisplayName("Test - Registrar un nuevo docente con ValidaciDeIntegridad")
@@ -237,15 +312,12 @@ class UsuarioServiceTest {
         given(repository.obtenerUsuarioPorEmail(docenteTest1.getEmail()))
                 .willReturn(Optional.of(docenteTest1));
 
-        UriComponentsBuilder testUrl = UriComponentsBuilder.fromHttpUrl("http://localhost:8080");
-
         // when: Ejecución de la acción a probar y verificación de la excepción lanzada
         // Se espera que al intentar registrar un docente que ya existe se lance una excepción de ValidacionDeIntegridad
         assertThrows(ValidacionDeIntegridad.class, () -> service.registrarUsuario(
                 new DatosInputRegistrarUsuario(docenteTest1.getUserName(),
                         docenteTest1.getEmail(), docenteTest1.getPassword()),
-                docenteTest1.getUserRole(),
-                testUrl));
+                docenteTest1.getUserRole()));
 
         // then: Verificación de que no se haya guardado ningún nuevo docente
         // Se verifica que no se haya guardado ningún nuevo docente en el repositorio
@@ -266,7 +338,7 @@ class UsuarioServiceTest {
 
         // Configurar el comportamiento del mock del repositorio para devolver una lista de estudiantes activos
         given(repository.obtenerUsuariosPorStatusActivoYPerfil(paginacion, Perfil.ESTUDIANTE))
-                .willReturn(new PageImpl<>(estudiantes, paginacion, estudiantes.size()));
+                .willReturn(new PageImpl<>(estudiantes.stream().map(DatosOutputUsuario::new).toList(), paginacion, estudiantes.size()));
 
         // when: Ejecución de la acción a probar
         // Obtener la lista de estudiantes activos por perfil
@@ -294,7 +366,7 @@ class UsuarioServiceTest {
 
         // Configurar el comportamiento del mock del repositorio para devolver una lista de docentes activos
         given(repository.obtenerUsuariosPorStatusActivoYPerfil(paginacion, Perfil.DOCENTE))
-                .willReturn(new PageImpl<>(docentes, paginacion, docentes.size()));
+                .willReturn(new PageImpl<>(docentes.stream().map(DatosOutputUsuario::new).toList(), paginacion, docentes.size()));
 
         // when: Ejecución de la acción a probar
         // Obtener la lista de docentes activos por perfil
@@ -358,18 +430,15 @@ class UsuarioServiceTest {
         given(passwordEncoder.encode(newPassword)).willReturn("encryptedPassword");
 
         // when: Ejecución de la acción a probar
-        // Verificar y actualizar la contraseña del estudiante registrado
-        Usuario estudianteRegistrado = repository.verificarUsuarioPorEmailPasswordPerfil(estudianteTest1.getEmail(), estudianteTest1.getPassword(), estudianteTest1.getUserRole()).get();
-        String currentPassword = estudianteRegistrado.getPassword(); // Obtener la contraseña actual
-        String encryptedPassword = passwordEncoder.encode(newPassword); // Encriptar la nueva contraseña
-
-        estudianteRegistrado.actualizarPassword(encryptedPassword); // Actualizar la contraseña en el objeto
+        // Actualizar la contraseña del estudiante registrado
+        DatosOutputUsuario response = service.actualizarPasswordUsuario(new DatosInputActualizarPasswordUsuario(
+                estudianteTest1.getId(), estudianteTest1.getEmail(), estudianteTest1.getPassword(), newPassword), Perfil.ESTUDIANTE);
 
         // then: Verificación de los resultados
-        // Verificar que la contraseña encriptada no sea igual a la nueva contraseña ni a la contraseña actual
-        assertThat(estudianteRegistrado.getPassword()).isNotEqualTo(newPassword);
-        assertThat(estudianteRegistrado.getPassword()).isNotEqualTo(currentPassword);
-        assertThat(estudianteRegistrado.getPassword()).isEqualTo("encryptedPassword"); // Verificar que la contraseña se haya actualizado correctamente
+        // Verificar que se guarde la contraseña encriptada con un UPDATE y no la contraseña en texto plano
+        verify(repository, times(1)).actualizarPassword(estudianteTest1.getId(), "encryptedPassword");
+        verify(repository, never()).actualizarPassword(estudianteTest1.getId(), newPassword);
+        assertThat(response).isEqualTo(new DatosOutputUsuario(estudianteTest1));
     }
 
     @DisplayName("Test - Actualizar password docente")
@@ -387,18 +456,35 @@ class UsuarioServiceTest {
         given(passwordEncoder.encode(newPassword)).willReturn("encryptedPassword");
 
         // when: Ejecución de la acción a probar
-        // Verificar y actualizar la contraseña del docente registrado
-        Usuario docenteRegistrado = repository.verificarUsuarioPorEmailPasswordPerfil(docenteTest1.getEmail(), docenteTest1.getPassword(), docenteTest1.getUserRole()).get();
-        String currentPassword = docenteRegistrado.getPassword(); // Obtener la contraseña actual
-        String encryptedPassword = passwordEncoder.encode(newPassword); // Encriptar la nueva contraseña
-
-        docenteRegistrado.actualizarPassword(encryptedPassword); // Actualizar la contraseña en el objeto
+        // Actualizar la contraseña del docente registrado
+        DatosOutputUsuario response = service.actualizarPasswordUsuario(new DatosInputActualizarPasswordUsuario(
+                docenteTest1.getId(), docenteTest1.getEmail(), docenteTest1.getPassword(), newPassword), Perfil.DOCENTE);
 
         // then: Verificación de los resultados
-        // Verificar que la contraseña encriptada no sea igual a la nueva contraseña ni a la contraseña actual
-        assertThat(docenteRegistrado.getPassword()).isNotEqualTo(newPassword);
-        assertThat(docenteRegistrado.getPassword()).isNotEqualTo(currentPassword);
-        assertThat(docenteRegistrado.getPassword()).isEqualTo("encryptedPassword"); // Verificar que la contraseña se haya actualizado correctamente
+        // Verificar que se guarde la contraseña encriptada con un UPDATE y no la contraseña en texto plano
+        verify(repository, times(1)).actualizarPassword(docenteTest1.getId(), "encryptedPassword");
+        verify(repository, never()).actualizarPassword(docenteTest1.getId(), newPassword);
+        assertThat(response).isEqualTo(new DatosOutputUsuario(docenteTest1));
+    }
+
+    @DisplayName("Test - Actualizar password revoca los refresh tokens del usuario")
+    @Test
+    void actualizarPasswordRevocaRefreshTokens() {
+        // given: Un estudiante registrado y la nueva contraseña encriptada
+        given(repository.verificarUsuarioPorEmailPasswordPerfil(estudianteTest1.getEmail(), estudianteTest1.getPassword(), estudianteTest1.getUserRole()))
+                .willReturn(Optional.of(estudianteTest1));
+        given(passwordEncoder.encode("newPassword")).willReturn("encryptedPassword");
+        given(repository.obtenerTokenVersionPorId(estudianteTest1.getId())).willReturn(Optional.of(1));
+
+        // when: Se actualiza la contraseña
+        service.actualizarPasswordUsuario(new DatosInputActualizarPasswordUsuario(
+                estudianteTest1.getId(), estudianteTest1.getEmail(), estudianteTest1.getPassword(), "newPassword"), Perfil.ESTUDIANTE);
+
+        // then: Se invalidan los tokens emitidos con la contraseña anterior
+        verify(repository, times(1)).actualizarPassword(estudianteTest1.getId(), "encryptedPassword");
+        verify(tokenVersionService, times(1)).actualizarVersion(estudianteTest1.getId(), 1);
+        verify(refreshTokenService, times(1)).revocarTodos(estudianteTest1.getId());
+        verify(authenticationService, times(1)).invalidarUsuario(estudianteTest1.getEmail());
     }
 
     @DisplayName("Test - Delete lógico de un estudiante")
@@ -406,18 +492,21 @@ class UsuarioServiceTest {
     void desactivarEstudiante() {
         // given: Preparación de datos y configuración de comportamiento del mock
         // Configurar el comportamiento del mock del repositorio para devolver el estudiante a desactivar
-        given(repository.getReferenceById(estudianteTest1.getId())).willReturn(estudianteTest1);
+        given(repository.obtenerUsuarioParaActualizar(estudianteTest1.getId())).willReturn(Optional.of(estudianteTest1));
+        given(repository.obtenerTokenVersionPorId(estudianteTest1.getId())).willReturn(Optional.of(1));
 
         // when: Ejecución de la acción a probar
         // Llamar al método para desactivar el estudiante
         service.desactivarUsuario(estudianteTest1.getId(), estudianteTest1.getUserRole());
 
         // then: Verificación de los resultados
-        // Verificar que se haya llamado al método save del repositorio una vez con el estudiante
-        verify(repository, times(1)).save(estudianteTest1);
-
-        // Verificar que el estado (status) del estudiante sea false después de la desactivación
-        assertThat(estudianteTest1.isStatus()).isEqualTo(false);
+        // Verificar que el estudiante se haya desactivado con un UPDATE y que se haya registrado la nueva versión de token
+        verify(repository, times(1)).desactivarUsuario(estudianteTest1.getId());
+        verify(tokenVersionService, times(1)).actualizarVersion(estudianteTest1.getId(), 1);
+        // Verificar que se hayan revocado los refresh tokens del estudiante
+        verify(refreshTokenService, times(1)).revocarTodos(estudianteTest1.getId());
+        // Verificar que se haya descartado la copia cacheada del estudiante
+        verify(authenticationService, times(1)).invalidarUsuario(estudianteTest1.getEmail());
     }
 
     @DisplayName("Test - Delete lógico de un docente")
@@ -425,17 +514,20 @@ class UsuarioServiceTest {
     void desactivarDocente() {
         // given: Preparación de datos y configuración de comportamiento del mock
         // Configurar el comportamiento del mock del repositorio para devolver el docente a desactivar
-        given(repository.getReferenceById(docenteTest1.getId())).willReturn(docenteTest1);
+        given(repository.obtenerUsuarioParaActualizar(docenteTest1.getId())).willReturn(Optional.of(docenteTest1));
+        given(repository.obtenerTokenVersionPorId(docenteTest1.getId())).willReturn(Optional.of(1));
 
         // when: Ejecución de la acción a probar
         // Llamar al método para desactivar el docente
         service.desactivarUsuario(docenteTest1.getId(), docenteTest1.getUserRole());
 
         // then: Verificación de los resultados
-        // Verificar que se haya llamado al método save del repositorio una vez con el docente
-        verify(repository, times(1)).save(docenteTest1);
-
-        // Verificar que el estado (status) del docente sea false después de la desactivación
-        assertThat(docenteTest1.isStatus()).isEqualTo(false);
+        // Verificar que el docente se haya desactivado con un UPDATE y que se haya registrado la nueva versión de token
+        verify(repository, times(1)).desactivarUsuario(docenteTest1.getId());
+        verify(tokenVersionService, times(1)).actualizarVersion(docenteTest1.getId(), 1);
+        // Verificar que se hayan revocado los refresh tokens del docente
+        verify(refreshTokenService, times(1)).revocarTodos(docenteTest1.getId());
+        // Verificar que se haya descartado la copia cacheada del docente
+        verify(authenticationService, times(1)).invalidarUsuario(docenteTest1.getEmail());
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.github.anbeld.ForoHub.infra.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionesRecursosTest {
+
+    private VersionesRecursos versiones;
+
+    @BeforeEach
+    void setUp() {
+        versiones = new VersionesRecursos();
+        ReflectionTestUtils.setField(versiones, "MAXIMUM_SIZE", 100L);
+        ReflectionTestUtils.setField(versiones, "TTL_SECONDS", 60L);
+        versiones.inicializarCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @DisplayName("Test - Responder 304 sin ejecutar la consulta cuando el cliente tiene la versión vigente")
+    @Test
+    void noModificadoSinConsulta() {
+        // given: Una consulta que registra cuántas veces se ejecuta
+        AtomicInteger consultas = new AtomicInteger();
+
+        // when: Una primera petición sin validadores y una segunda con el ETag recibido
+        ResponseEntity<String> primera = versiones.respuesta(peticion(null), VersionesRecursos.TOPICOS,
+                () -> ResponseEntity.ok("pagina " + consultas.incrementAndGet()));
+        String etag = versiones.obtener(VersionesRecursos.TOPICOS).etag();
+        ResponseEntity<String> segunda = versiones.respuesta(peticion(etag), VersionesRecursos.TOPICOS,
+                () -> ResponseEntity.ok("pagina " + consultas.incrementAndGet()));
+
+        // then: La consulta se ejecuta una sola vez y ambas respuestas permiten revalidar
+        assertThat(primera.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(primera.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        assertThat(segunda.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(segunda.getBody()).isNull();
+        assertThat(consultas).hasValue(1);
+    }
+
+    @DisplayName("Test - Actualizar un recurso cambia su versión sin afectar a los demás")
+    @Test
+    void actualizarPorRecurso() {
+        // given: Las versiones vigentes de dos recursos
+        var topicos = versiones.obtener(VersionesRecursos.TOPICOS);
+        var respuestas = versiones.obtener(VersionesRecursos.respuestasPorTopico(1L));
+
+        // when: Se actualizan los tópicos
+        versiones.actualizar(VersionesRecursos.TOPICOS);
+
+        // then: Solo cambia la versión de los tópicos y su última modificación avanza
+        var topicosActualizados = versiones.obtener(VersionesRecursos.TOPICOS);
+        assertThat(topicosActualizados.etag()).isNotEqualTo(topicos.etag());
+        assertThat(topicosActualizados.ultimaModificacion()).isGreaterThan(topicos.ultimaModificacion());
+        assertThat(versiones.obtener(VersionesRecursos.respuestasPorTopico(1L))).isEqualTo(respuestas);
+        assertThat(versiones.noModificado(peticion(topicos.etag()), VersionesRecursos.TOPICOS)).isFalse();
+    }
+
+    @DisplayName("Test - Publicar la nueva versión solo después del commit de la transacción")
+    @Test
+    void actualizarDespuesDelCommit() {
+        // given: Una transacción activa y la versión vigente
+        var anterior = versiones.obtener(VersionesRecursos.TOPICOS);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when: Se actualiza el recurso dentro de la transacción
+        versiones.actualizar(VersionesRecursos.TOPICOS);
+
+        // then: La versión cambia recién al confirmar la transacción
+        assertThat(versiones.obtener(VersionesRecursos.TOPICOS)).isEqualTo(anterior);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(versiones.obtener(VersionesRecursos.TOPICOS)).isNotEqualTo(anterior);
+    }
+
+    private ServletWebRequest peticion(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/topicos");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
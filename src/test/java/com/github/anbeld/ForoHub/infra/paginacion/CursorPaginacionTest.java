@@ -0,0 +1,59 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import com.github.anbeld.ForoHub.infra.errores.ValidacionDeIntegridad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPaginacionTest {
+
+    @DisplayName("Test - Codificar y decodificar un cursor")
+    @Test
+    void codificarYDecodificar() {
+        // given: Cursor con fecha y id
+        CursorPaginacion cursor = new CursorPaginacion(LocalDateTime.of(2024, 6, 1, 10, 30, 15), 42L);
+
+        // when: Se codifica y se decodifica el token
+        String token = cursor.codificar();
+        CursorPaginacion decodificado = CursorPaginacion.decodificar(token);
+
+        // then: El token es opaco y seguro para URLs, y conserva la posición
+        assertThat(token).doesNotContain("|", "+", "/", "=");
+        assertThat(decodificado).isEqualTo(cursor);
+        assertThat(CursorPaginacion.decodificar("")).isNull();
+    }
+
+    @DisplayName("Test - Rechazar un cursor inválido")
+    @Test
+    void decodificarCursorInvalido() {
+        // then: Un token alterado produce una ValidacionDeIntegridad
+        assertThrows(ValidacionDeIntegridad.class, () -> CursorPaginacion.decodificar("no-es-un-cursor"));
+        assertThrows(ValidacionDeIntegridad.class, () -> CursorPaginacion.decodificar("%%%"));
+    }
+
+    @DisplayName("Test - Construir la página y el cursor siguiente a partir del elemento extra")
+    @Test
+    void construirPagina() {
+        // given: Tres resultados para una página de tamaño 2
+        List<CursorPaginacion> resultados = List.of(
+                new CursorPaginacion(LocalDateTime.of(2024, 1, 1, 0, 0), 1L),
+                new CursorPaginacion(LocalDateTime.of(2024, 1, 1, 0, 0), 2L),
+                new CursorPaginacion(LocalDateTime.of(2024, 1, 2, 0, 0), 3L));
+
+        // when: Se construyen la página completa y la última página
+        var pagina = DatosOutputPaginaCursor.desde(resultados, 2, CursorPaginacion::id, Function.identity());
+        var ultimaPagina = DatosOutputPaginaCursor.desde(resultados.subList(2, 3), 2, CursorPaginacion::id, Function.identity());
+
+        // then: El cursor siguiente apunta al último elemento entregado y la última página no tiene cursor
+        assertThat(pagina.contenido()).containsExactly(1L, 2L);
+        assertThat(CursorPaginacion.decodificar(pagina.siguiente())).isEqualTo(resultados.get(1));
+        assertThat(ultimaPagina.contenido()).containsExactly(3L);
+        assertThat(ultimaPagina.siguiente()).isNull();
+    }
+}
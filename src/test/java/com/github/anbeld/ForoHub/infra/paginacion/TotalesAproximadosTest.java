@@ -0,0 +1,64 @@
+package com.github.anbeld.ForoHub.infra.paginacion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TotalesAproximadosTest {
+
+    private TotalesAproximados totalesAproximados;
+
+    @BeforeEach
+    void setUp() {
+        totalesAproximados = new TotalesAproximados();
+        ReflectionTestUtils.setField(totalesAproximados, "REFRESCO_SEGUNDOS", 60L);
+        ReflectionTestUtils.setField(totalesAproximados, "MAXIMUM_SIZE", 100L);
+        totalesAproximados.inicializarCache();
+    }
+
+    @DisplayName("Test - Ejecutar el conteo una sola vez por periodo y por clave")
+    @Test
+    void conteoPorClave() {
+        // given: Conteos que registran cuántas veces se ejecutan
+        AtomicInteger conteosAutor1 = new AtomicInteger();
+        AtomicInteger conteosAutor2 = new AtomicInteger();
+
+        // when: Se consulta varias veces el total de cada autor
+        for (int i = 0; i < 5; i++) {
+            totalesAproximados.total("respuestas.autor.1", () -> conteosAutor1.incrementAndGet() * 10L);
+            totalesAproximados.total("respuestas.autor.2", () -> conteosAutor2.incrementAndGet() * 20L);
+        }
+
+        // then: Cada clave ejecuta su conteo una vez y entrega el mismo total
+        assertThat(conteosAutor1).hasValue(1);
+        assertThat(conteosAutor2).hasValue(1);
+        assertThat(totalesAproximados.total("respuestas.autor.1", () -> 0L)).isEqualTo(10L);
+        assertThat(totalesAproximados.total("respuestas.autor.2", () -> 0L)).isEqualTo(20L);
+    }
+
+    @DisplayName("Test - Agregar el total aproximado solo cuando el cliente lo pide")
+    @Test
+    void respuestaConTotal() {
+        // given: Un Slice con una página siguiente
+        var slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+        AtomicInteger conteos = new AtomicInteger();
+
+        // when: Se construye la respuesta con y sin total
+        var sinTotal = TotalesAproximados.respuesta(slice, false, () -> conteos.incrementAndGet() * 7L);
+        var conTotal = TotalesAproximados.respuesta(slice, true, () -> conteos.incrementAndGet() * 7L);
+
+        // then: El conteo solo se ejecuta para la respuesta con total
+        assertThat(sinTotal.getHeaders().containsKey(TotalesAproximados.HEADER)).isFalse();
+        assertThat(conTotal.getHeaders().getFirst(TotalesAproximados.HEADER)).isEqualTo("7");
+        assertThat(conTotal.getBody().hasNext()).isTrue();
+        assertThat(conteos).hasValue(1);
+    }
+}
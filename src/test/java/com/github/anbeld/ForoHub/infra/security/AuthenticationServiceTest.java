@@ -0,0 +1,103 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuthenticationServiceTest {
+
+    private static final String EMAIL = "pablo.estudiante@foro.com";
+
+    private AuthenticationService authenticationService;
+
+    private UsuarioRepository usuarioRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        authenticationService = new AuthenticationService();
+        ReflectionTestUtils.setField(authenticationService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(authenticationService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(authenticationService, "CACHE_MAXIMUM_SIZE", 100L);
+        ReflectionTestUtils.setField(authenticationService, "CACHE_TTL_SECONDS", 60L);
+        authenticationService.inicializarCache();
+    }
+
+    @DisplayName("Test - Cargar el usuario autenticado desde la cache después de la primera request")
+    @Test
+    void cargarUsuarioDesdeCache() {
+        // given: Un estudiante registrado
+        given(usuarioRepository.obtenerUsuarioPorEmail(EMAIL)).willReturn(Optional.of(usuario(true)));
+
+        // when: Se autentican dos requests del mismo usuario
+        UsuarioAutenticado primera = authenticationService.cargarUsuario(EMAIL);
+        UsuarioAutenticado segunda = authenticationService.cargarUsuario(EMAIL);
+
+        // then: Solo la primera consulta la base de datos y ambas se registran en las métricas
+        assertThat(segunda).isEqualTo(primera);
+        assertThat(primera.perfil()).isEqualTo(Perfil.ESTUDIANTE);
+        verify(usuarioRepository, times(1)).obtenerUsuarioPorEmail(EMAIL);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "usuarios.autenticados").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "usuarios.autenticados").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.user.lookup").timer().count()).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Retornar null para un email no registrado sin guardarlo en la cache")
+    @Test
+    void cargarUsuarioInexistente() {
+        // given: Un email sin usuario registrado
+        given(usuarioRepository.obtenerUsuarioPorEmail(EMAIL)).willReturn(Optional.empty());
+
+        // when - then: Cada request consulta la base de datos, así un registro posterior se ve de inmediato
+        assertThat(authenticationService.cargarUsuario(EMAIL)).isNull();
+        given(usuarioRepository.obtenerUsuarioPorEmail(EMAIL)).willReturn(Optional.of(usuario(true)));
+        assertThat(authenticationService.cargarUsuario(EMAIL)).isNotNull();
+        verify(usuarioRepository, times(2)).obtenerUsuarioPorEmail(EMAIL);
+    }
+
+    @DisplayName("Test - Volver a cargar el usuario después de invalidarlo")
+    @Test
+    void invalidarUsuario() {
+        // given: El usuario se encuentra en la cache y luego se desactiva en la base de datos
+        given(usuarioRepository.obtenerUsuarioPorEmail(EMAIL)).willReturn(Optional.of(usuario(true)));
+        assertThat(authenticationService.cargarUsuario(EMAIL).isEnabled()).isTrue();
+        given(usuarioRepository.obtenerUsuarioPorEmail(EMAIL)).willReturn(Optional.of(usuario(false)));
+
+        // when: Se invalida la copia cacheada
+        authenticationService.invalidarUsuario(EMAIL);
+
+        // then: La siguiente request obtiene el usuario desactivado
+        assertThat(authenticationService.cargarUsuario(EMAIL).isEnabled()).isFalse();
+        verify(usuarioRepository, times(2)).obtenerUsuarioPorEmail(EMAIL);
+    }
+
+    private Usuario usuario(boolean status) {
+        return Usuario.builder()
+                .id(1L)
+                .userName("Pablo Estudiante")
+                .email(EMAIL)
+                .password("password")
+                .status(status)
+                .userRole(Perfil.ESTUDIANTE)
+                .build();
+    }
+}
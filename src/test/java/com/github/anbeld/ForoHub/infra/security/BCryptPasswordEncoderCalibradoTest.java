@@ -0,0 +1,48 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptPasswordEncoderCalibradoTest {
+
+    @DisplayName("Test - Marcar para rehash solo los hashes con un costo menor")
+    @Test
+    void upgradeEncodingPorCosto() {
+        // given: Encoder configurado con costo 5
+        var encoder = new BCryptPasswordEncoderCalibrado(5);
+
+        // then: Solo los hashes con un costo menor se actualizan
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+    }
+
+    @DisplayName("Test - Conservar el costo configurado al calibrar")
+    @Test
+    void recomendarCostoSinCambiarlo() {
+        // given: Encoder configurado con costo 5
+        var encoder = new BCryptPasswordEncoderCalibrado(5);
+
+        // when: Se calibra con un objetivo muy bajo
+        encoder.recomendarCosto(Duration.ofMillis(1));
+
+        // then: Los hashes se siguen generando con el costo configurado
+        assertThat(encoder.getStrength()).isEqualTo(5);
+        assertThat(encoder.encode("password")).startsWith("$2a$05$");
+    }
+
+    @DisplayName("Test - Calibrar el costo según el tiempo objetivo")
+    @Test
+    void calibrarCosto() {
+        // when: Se calibra con un objetivo muy bajo
+        int costo = BCryptPasswordEncoderCalibrado.calibrar(Duration.ofMillis(1));
+
+        // then: Se elige uno de los costos más bajos
+        assertThat(costo).isBetween(4, 8);
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @DisplayName("Test - Sin falsos negativos y con una tasa de falsos positivos acotada")
+    @Test
+    void falsosPositivosAcotados() {
+        // given: Filtro con 10.000 jti revocados
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        String[] revocados = new String[10_000];
+        for (int i = 0; i < revocados.length; i++) {
+            revocados[i] = UUID.randomUUID().toString();
+            filtro.agregar(revocados[i]);
+        }
+
+        // then: Todos los jti revocados se reconocen
+        for (String jti : revocados) {
+            assertThat(filtro.puedeContener(jti)).isTrue();
+        }
+
+        // Y pocos jti no revocados se confunden con revocados
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.puedeContener(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos).isLessThan(300);
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Compara el throughput de firma y verificación, y la asignación de memoria (gc.alloc.rate.norm), de cada algoritmo
+// Ejecutar después de mvn test-compile con el método main, o con org.openjdk.jmh.Main y el classpath de test
+public class JWTServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Estado {
+
+        @Param({"HS256", "ES256", "EDDSA"})
+        public String algoritmo;
+
+        public JWTService jwtService;
+
+        public Usuario usuario;
+
+        public String token;
+
+        // La verificación se mide sobre extractAllClaims para evitar el cache de tokens verificados
+        @Setup
+        public void setUp() {
+            jwtService = new JWTService();
+            ReflectionTestUtils.setField(jwtService, "SECRET_KEY_STRING",
+                    Base64.getEncoder().encodeToString("clave-de-prueba-de-32-bytes-....".getBytes()));
+            ReflectionTestUtils.setField(jwtService, "ALGORITMO", algoritmo);
+            ReflectionTestUtils.setField(jwtService, "KID", "benchmark");
+            ReflectionTestUtils.setField(jwtService, "ACCESS_EXPIRATION_MINUTES", 15L);
+            ReflectionTestUtils.setField(jwtService, "CACHE_MAXIMUM_SIZE", 1000L);
+            ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+            jwtService.inicializar();
+
+            usuario = Usuario.builder()
+                    .id(1L)
+                    .email("maria.docente@foro.com")
+                    .userRole(Perfil.DOCENTE)
+                    .build();
+            token = jwtService.generateToken(usuario);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public String firmar(Estado estado) {
+        return estado.jwtService.generateToken(estado.usuario);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public Claims verificar(Estado estado) {
+        return estado.jwtService.extractAllClaims(estado.token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JWTServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
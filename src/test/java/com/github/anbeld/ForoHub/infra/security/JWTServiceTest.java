@@ -0,0 +1,175 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JWTServiceTest {
+
+    private JWTService jwtService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Usuario docenteTest;
+
+    // Configurar el servicio con una clave de prueba antes de cada test
+    @BeforeEach
+    void setUp() {
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY_STRING",
+                Base64.getEncoder().encodeToString("clave-de-prueba-de-32-bytes-....".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "ACCESS_EXPIRATION_MINUTES", 15L);
+        ReflectionTestUtils.setField(jwtService, "CACHE_MAXIMUM_SIZE", 100L);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", "HS256");
+        ReflectionTestUtils.setField(jwtService, "KID", "principal");
+        jwtService.inicializar();
+
+        docenteTest = Usuario.builder()
+                .id(1L)
+                .userName("Maria Docente")
+                .email("maria.docente@foro.com")
+                .password("password")
+                .status(true)
+                .userRole(Perfil.DOCENTE)
+                .build();
+    }
+
+    @DisplayName("Test - Verificar token en una sola pasada")
+    @Test
+    void verificarToken() {
+        // given: Token generado para el docente
+        String token = jwtService.generateToken(docenteTest);
+
+        // when: Se verifica el token
+        DatosTokenVerificado tokenVerificado = jwtService.verificarToken(token);
+
+        // then: Los claims verificados corresponden al docente
+        assertThat(tokenVerificado.subject()).isEqualTo(docenteTest.getEmail());
+        assertThat(tokenVerificado.userRole()).isEqualTo(Perfil.DOCENTE.name());
+        assertThat(tokenVerificado.expiration()).isAfter(Instant.now());
+        assertThat(jwtService.validateToken(tokenVerificado, docenteTest)).isTrue();
+    }
+
+    @DisplayName("Test - Rechazar token con firma alterada")
+    @Test
+    void verificarTokenAlterado() {
+        // given: Token con la firma modificada
+        String token = jwtService.generateToken(docenteTest);
+        String tokenAlterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // then: La verificación falla
+        assertThrows(JwtException.class, () -> jwtService.verificarToken(tokenAlterado));
+    }
+
+    @DisplayName("Test - Reutilizar token verificado desde el cache")
+    @Test
+    void verificarTokenDesdeCache() {
+        // given: Token generado para el docente
+        String token = jwtService.generateToken(docenteTest);
+
+        // when: Se verifica el mismo token dos veces
+        DatosTokenVerificado primeraVerificacion = jwtService.verificarToken(token);
+        DatosTokenVerificado segundaVerificacion = jwtService.verificarToken(token);
+
+        // then: La segunda verificación se resuelve desde el cache
+        assertThat(segundaVerificacion).isSameAs(primeraVerificacion);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("Test - Incluir id, perfil y versión del usuario en el token")
+    @Test
+    void generarTokenConClaimsDeUsuario() {
+        // given: Token generado a partir del usuario
+        String token = jwtService.generateToken(docenteTest);
+
+        // when: Se verifica el token
+        DatosTokenVerificado tokenVerificado = jwtService.verificarToken(token);
+
+        // then: El principal se puede construir solo con los claims
+        UsuarioAutenticado usuario = new UsuarioAutenticado(tokenVerificado);
+        assertThat(usuario.id()).isEqualTo(docenteTest.getId());
+        assertThat(usuario.getUsername()).isEqualTo(docenteTest.getEmail());
+        assertThat(usuario.perfil()).isEqualTo(Perfil.DOCENTE);
+        assertThat(tokenVerificado.tokenVersion()).isEqualTo(docenteTest.getTokenVersion());
+    }
+
+    @DisplayName("Test - Firmar y verificar tokens con ES256 y EdDSA")
+    @ParameterizedTest
+    @ValueSource(strings = {"ES256", "EDDSA"})
+    void firmarConAlgoritmoAsimetrico(String algoritmo) {
+        // given: Servicio sin llaves configuradas, que genera un par efímero
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", algoritmo);
+        jwtService.inicializarLlavero();
+
+        // when: Se genera y verifica un token
+        String token = jwtService.generateToken(docenteTest);
+        DatosTokenVerificado tokenVerificado = jwtService.verificarToken(token);
+
+        // then: El header identifica el algoritmo y la llave
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertThat(header).contains("\"alg\":\"" + AlgoritmoFirma.desde(algoritmo).id() + "\"", "\"kid\":\"principal\"");
+        assertThat(tokenVerificado.subject()).isEqualTo(docenteTest.getEmail());
+    }
+
+    @DisplayName("Test - Verificar tokens firmados con la llave anterior después de rotar")
+    @Test
+    void rotarLlave() {
+        // given: Token firmado con una llave ES256 que luego se rota
+        KeyPair parAnterior = AlgoritmoFirma.ES256.generarPar();
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", "ES256");
+        ReflectionTestUtils.setField(jwtService, "KID", "llave-1");
+        ReflectionTestUtils.setField(jwtService, "LLAVE_PRIVADA", Base64.getEncoder().encodeToString(parAnterior.getPrivate().getEncoded()));
+        ReflectionTestUtils.setField(jwtService, "LLAVE_PUBLICA", Base64.getEncoder().encodeToString(parAnterior.getPublic().getEncoded()));
+        jwtService.inicializarLlavero();
+        String tokenAnterior = jwtService.generateToken(docenteTest);
+
+        // when: La nueva llave activa es EdDSA y la anterior queda solo para verificar
+        KeyPair parNuevo = AlgoritmoFirma.EDDSA.generarPar();
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", "EDDSA");
+        ReflectionTestUtils.setField(jwtService, "KID", "llave-2");
+        ReflectionTestUtils.setField(jwtService, "LLAVE_PRIVADA", Base64.getEncoder().encodeToString(parNuevo.getPrivate().getEncoded()));
+        ReflectionTestUtils.setField(jwtService, "LLAVE_PUBLICA", Base64.getEncoder().encodeToString(parNuevo.getPublic().getEncoded()));
+        ReflectionTestUtils.setField(jwtService, "LLAVES_VERIFICACION",
+                "llave-1:ES256:" + Base64.getEncoder().encodeToString(parAnterior.getPublic().getEncoded()));
+        jwtService.inicializarLlavero();
+        String tokenNuevo = jwtService.generateToken(docenteTest);
+
+        // then: Ambos tokens son válidos
+        assertThat(jwtService.extractAllClaims(tokenAnterior).getSubject()).isEqualTo(docenteTest.getEmail());
+        assertThat(jwtService.extractAllClaims(tokenNuevo).getSubject()).isEqualTo(docenteTest.getEmail());
+    }
+
+    @DisplayName("Test - Rechazar token con kid desconocido")
+    @Test
+    void rechazarKidDesconocido() {
+        // given: Token firmado por otro servicio con un kid que no está en el llavero
+        JWTService otroServicio = new JWTService();
+        ReflectionTestUtils.setField(otroServicio, "SECRET_KEY_STRING", ReflectionTestUtils.getField(jwtService, "SECRET_KEY_STRING"));
+        ReflectionTestUtils.setField(otroServicio, "ALGORITMO", "HS256");
+        ReflectionTestUtils.setField(otroServicio, "KID", "desconocido");
+        ReflectionTestUtils.setField(otroServicio, "ACCESS_EXPIRATION_MINUTES", 15L);
+        otroServicio.inicializarLlavero();
+        String token = otroServicio.generateToken(docenteTest);
+
+        // then: La verificación falla aunque el secreto coincida
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.extractAllClaims(token));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.infra.errores.CapacidadExcedida;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordEncoderAcotadoTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordEncoder encoderLento;
+
+    private PasswordEncoderAcotado passwordEncoder;
+
+    // Configurar un pool de un hilo y una posición en cola, con un encoder que espera hasta ser liberado
+    @BeforeEach
+    void setUp() {
+        encoderLento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new PasswordEncoderAcotado(encoderLento, 1, 1, 10_000, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @DisplayName("Test - Rechazar el hashing cuando el pool y la cola están llenos")
+    @Test
+    void rechazarHashingConPoolSaturado() throws Exception {
+        // given: Una tarea en ejecución y otra en cola
+        CompletableFuture<String> enEjecucion = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("uno"));
+        CompletableFuture<String> enCola = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("dos"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // when - then: La siguiente tarea se rechaza de inmediato indicando cuándo reintentar
+        CapacidadExcedida error = assertThrows(CapacidadExcedida.class, () -> passwordEncoder.encode("tres"));
+        assertThat(error.getRetryAfterSeconds()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hashing.rechazados").counter().count()).isEqualTo(1);
+
+        // Al liberar el pool las tareas admitidas terminan normalmente
+        liberar.countDown();
+        assertThat(enEjecucion.get(10, TimeUnit.SECONDS)).isEqualTo("hash-uno");
+        assertThat(enCola.get(10, TimeUnit.SECONDS)).isEqualTo("hash-dos");
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operacion", "encode").timer().count()).isEqualTo(2);
+    }
+
+    @DisplayName("Test - Rechazar el hashing que no termina dentro del timeout")
+    @Test
+    void rechazarHashingPorTimeout() {
+        // given: Un encoder con timeout corto cuyo único hilo queda bloqueado
+        PasswordEncoderAcotado encoderConTimeout = new PasswordEncoderAcotado(encoderLento, 1, 1, 100, 2, meterRegistry);
+
+        try {
+            // when - then: La request deja de esperar al vencer el timeout y se le indica cuándo reintentar
+            CapacidadExcedida error = assertThrows(CapacidadExcedida.class, () -> encoderConTimeout.encode("uno"));
+            assertThat(error.getRetryAfterSeconds()).isEqualTo(2);
+            assertThat(meterRegistry.get("password.hashing.rechazados").counter().count()).isEqualTo(1);
+        } finally {
+            encoderConTimeout.destroy();
+        }
+    }
+}
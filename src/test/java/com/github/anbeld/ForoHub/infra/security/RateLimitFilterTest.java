@@ -0,0 +1,132 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    // Configurar presupuestos pequeños por grupo de rutas antes de cada test
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimitFilter, "HABILITADO", true);
+        ReflectionTestUtils.setField(rateLimitFilter, "PUBLICO_CAPACIDAD", 3L);
+        ReflectionTestUtils.setField(rateLimitFilter, "PUBLICO_PERIODO_SEGUNDOS", 60L);
+        ReflectionTestUtils.setField(rateLimitFilter, "LECTURA_CAPACIDAD", 5L);
+        ReflectionTestUtils.setField(rateLimitFilter, "LECTURA_PERIODO_SEGUNDOS", 60L);
+        ReflectionTestUtils.setField(rateLimitFilter, "ESCRITURA_CAPACIDAD", 2L);
+        ReflectionTestUtils.setField(rateLimitFilter, "ESCRITURA_PERIODO_SEGUNDOS", 60L);
+        ReflectionTestUtils.setField(rateLimitFilter, "BUCKETS_MAXIMUM_SIZE", 1000L);
+        ReflectionTestUtils.setField(rateLimitFilter, "BUCKETS_IDLE_SECONDS", 60L);
+        rateLimitFilter.inicializarBuckets();
+    }
+
+    @DisplayName("Test - Rechazar con 429 las requests públicas que exceden el presupuesto de la IP")
+    @Test
+    void limitePorIpEnRutasPublicas() throws Exception {
+        // given: Presupuesto de 3 requests para login
+        AtomicInteger atendidas = new AtomicInteger();
+        MockHttpServletResponse ultimaRespuesta = null;
+
+        // when: La misma IP intenta iniciar sesión 4 veces
+        for (int i = 0; i < 4; i++) {
+            ultimaRespuesta = ejecutar(requestDesde("POST", "/api/login", "10.0.0.1"), atendidas);
+        }
+        // Otra IP conserva su propio presupuesto
+        ejecutar(requestDesde("POST", "/api/login", "10.0.0.2"), atendidas);
+
+        // then: La cuarta request de la primera IP se rechaza con Retry-After
+        assertThat(atendidas.get()).isEqualTo(4);
+        assertThat(ultimaRespuesta.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(ultimaRespuesta.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(meterRegistry.get("http.server.requests.limitadas").tag("grupo", "publico").counter().count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Test - Limitar por usuario con presupuestos separados para lectura y escritura")
+    @Test
+    void limitePorUsuarioYGrupo() throws Exception {
+        // given: Un usuario autenticado que cambia de IP entre requests
+        AtomicInteger atendidas = new AtomicInteger();
+        ContextoAutenticacionHolder.establecer(new ContextoAutenticacion(7L, "ESTUDIANTE"));
+        try {
+            // when: Realiza 3 escrituras y 5 lecturas desde IPs distintas
+            for (int i = 0; i < 3; i++) {
+                ejecutar(requestDesde("POST", "/api/topicos", "10.0.1." + i), atendidas);
+            }
+            for (int i = 0; i < 5; i++) {
+                ejecutar(requestDesde("GET", "/api/topicos", "10.0.2." + i), atendidas);
+            }
+        } finally {
+            ContextoAutenticacionHolder.limpiar();
+        }
+
+        // then: Solo la tercera escritura se rechaza y las lecturas no consumen el presupuesto de escritura
+        assertThat(atendidas.get()).isEqualTo(7);
+        assertThat(meterRegistry.get("http.server.requests.limitadas").tag("grupo", "escritura").counter().count())
+                .isEqualTo(1);
+    }
+
+    @DisplayName("Test - No exceder la capacidad del bucket con requests concurrentes")
+    @Test
+    void capacidadExactaConConcurrencia() throws Exception {
+        // given: Bucket de 100 tokens que se repone en una hora
+        long ahora = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(100, TimeUnit.HOURS.toNanos(1), ahora);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger consumidos = new AtomicInteger();
+
+        // when: 16 hilos intentan consumir 50 tokens cada uno al mismo tiempo
+        for (int hilo = 0; hilo < 16; hilo++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.consumir(ahora) == 0) {
+                        consumidos.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        inicio.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then: Se consumen exactamente 100 tokens y el bucket se repone con el tiempo
+        assertThat(consumidos.get()).isEqualTo(100);
+        assertThat(bucket.consumir(ahora + TimeUnit.SECONDS.toNanos(36))).isZero();
+    }
+
+    private MockHttpServletRequest requestDesde(String metodo, String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequest request, AtomicInteger atendidas) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, (req, res) -> atendidas.incrementAndGet());
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.token.TokenRevocado;
+import com.github.anbeld.ForoHub.domain.token.TokenRevocadoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RevocacionServiceTest {
+
+    private RevocacionService revocacionService;
+
+    private TokenRevocadoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocadoRepository.class);
+        given(repository.obtenerJtiVigentes(any(LocalDateTime.class))).willReturn(List.of("jti-registrado"));
+        given(repository.existsById(anyString())).willReturn(true);
+
+        revocacionService = new RevocacionService();
+        ReflectionTestUtils.setField(revocacionService, "repository", repository);
+        ReflectionTestUtils.setField(revocacionService, "BLOOM_CAPACIDAD", 1000);
+        ReflectionTestUtils.setField(revocacionService, "BLOOM_FALSOS_POSITIVOS", 0.000001);
+        revocacionService.inicializarFiltro();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @DisplayName("Test - Conservar los jti revocados mientras se recarga el filtro")
+    @Test
+    void revocacionDuranteRecarga() {
+        // given: Un jti se revoca después de leer la tabla y antes de reemplazar el filtro
+        given(repository.obtenerJtiVigentes(any(LocalDateTime.class))).willAnswer(invocacion -> {
+            revocacionService.revocar("jti-durante-recarga", Instant.now().plusSeconds(900));
+            return List.of("jti-registrado");
+        });
+
+        // when: Se recarga el filtro
+        revocacionService.recargarFiltro();
+
+        // then: El nuevo filtro contiene tanto el jti de la tabla como el revocado durante la recarga
+        assertThat(revocacionService.estaRevocado("jti-registrado")).isTrue();
+        assertThat(revocacionService.estaRevocado("jti-durante-recarga")).isTrue();
+    }
+
+    @DisplayName("Test - Agregar el jti al filtro solo después del commit")
+    @Test
+    void revocarDespuesDelCommit() {
+        // given: Una transacción activa
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when: Se revoca un jti dentro de la transacción
+        revocacionService.revocar("jti-logout", Instant.now().plusSeconds(900));
+
+        // then: El filtro no lo contiene hasta confirmar la transacción
+        verify(repository).save(any(TokenRevocado.class));
+        assertThat(revocacionService.estaRevocado("jti-logout")).isFalse();
+        verify(repository, never()).existsById("jti-logout");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocacionService.estaRevocado("jti-logout")).isTrue();
+    }
+}
@@ -0,0 +1,243 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class SecurityFilterTest {
+
+    private static final int REQUESTS = 500;
+
+    private SecurityFilter securityFilter;
+
+    private JWTService jwtService;
+
+    private RevocacionService revocacionService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    // Configurar el filtro en modo claims con un JWTService real antes de cada test
+    @BeforeEach
+    void setUp() {
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY_STRING",
+                Base64.getEncoder().encodeToString("clave-de-prueba-de-32-bytes-....".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "ACCESS_EXPIRATION_MINUTES", 15L);
+        ReflectionTestUtils.setField(jwtService, "CACHE_MAXIMUM_SIZE", 1000L);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", "HS256");
+        ReflectionTestUtils.setField(jwtService, "KID", "principal");
+        jwtService.inicializar();
+
+        TokenVersionService tokenVersionService = mock(TokenVersionService.class);
+        given(tokenVersionService.esVigente(any(DatosTokenVerificado.class))).willReturn(true);
+
+        revocacionService = mock(RevocacionService.class);
+
+        securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(securityFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(securityFilter, "tokenVersionService", tokenVersionService);
+        ReflectionTestUtils.setField(securityFilter, "revocacionService", revocacionService);
+        ReflectionTestUtils.setField(securityFilter, "modoPrincipal", "claims");
+        ReflectionTestUtils.setField(securityFilter, "meterRegistry", meterRegistry);
+        securityFilter.inicializarMetricas();
+    }
+
+    @DisplayName("Test - Aislar el contexto de autenticación entre requests concurrentes")
+    @Test
+    void contextoAisladoEntreRequestsConcurrentes() throws Exception {
+        // given: Un token por request, alternando entre estudiantes y docentes
+        List<String> tokens = new ArrayList<>();
+        for (long id = 1; id <= REQUESTS; id++) {
+            Usuario usuario = Usuario.builder()
+                    .id(id)
+                    .email("usuario" + id + "@foro.com")
+                    .userRole(id % 2 == 0 ? Perfil.DOCENTE : Perfil.ESTUDIANTE)
+                    .build();
+            tokens.add(jwtService.generateToken(usuario));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger errores = new AtomicInteger();
+        List<Future<?>> requests = new ArrayList<>();
+
+        // when: Se ejecutan todas las requests en paralelo
+        for (int i = 0; i < REQUESTS; i++) {
+            long id = i + 1;
+            String token = tokens.get(i);
+            requests.add(executor.submit(() -> {
+                inicio.await();
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/topicos");
+                request.addHeader("Authorization", "Bearer " + token);
+
+                // El resto de la cadena lee el contexto después de ceder el hilo para forzar la intercalación
+                FilterChain chain = (req, res) -> {
+                    Thread.yield();
+                    ContextoAutenticacion contexto = ContextoAutenticacionHolder.actual();
+                    boolean esDocente = id % 2 == 0;
+                    if (!Long.valueOf(id).equals(contexto.userId())
+                            || securityFilter.isDocente() != esDocente
+                            || securityFilter.isEstudiante() == esDocente) {
+                        errores.incrementAndGet();
+                    }
+                };
+                try {
+                    securityFilter.doFilter(request, new MockHttpServletResponse(), chain);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+
+                // Al terminar la request el hilo no conserva el contexto
+                if (ContextoAutenticacionHolder.actual().isAutenticado()) {
+                    errores.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> request : requests) {
+            request.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then: Ninguna request observó el rol o el id de otra
+        assertThat(errores.get()).isZero();
+    }
+
+    @DisplayName("Test - No autenticar requests con un token revocado")
+    @Test
+    void tokenRevocado() throws Exception {
+        // given: Token válido cuyo jti fue revocado por logout
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@foro.com").userRole(Perfil.DOCENTE).build();
+        String token = jwtService.generateToken(usuario);
+        given(revocacionService.estaRevocado(jwtService.verificarToken(token).jti())).willReturn(true);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/topicos");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicInteger autenticadas = new AtomicInteger();
+
+        // when: Se procesa la request
+        securityFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                autenticadas.incrementAndGet();
+            }
+        });
+
+        // then: La request continúa sin usuario autenticado
+        assertThat(autenticadas.get()).isZero();
+        SecurityContextHolder.clearContext();
+    }
+
+    @DisplayName("Test - Contar el resultado de la autenticación y medir el tiempo del filtro")
+    @Test
+    void metricasDeAutenticacion() throws Exception {
+        // given: Una request sin token, una con token válido, una con token expirado y una con token malformado
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@foro.com").userRole(Perfil.DOCENTE).build();
+        String tokenValido = jwtService.generateToken(usuario);
+        ReflectionTestUtils.setField(jwtService, "ACCESS_EXPIRATION_MINUTES", -1L);
+        String tokenExpirado = jwtService.generateToken(usuario);
+
+        // when: Se procesan las requests
+        securityFilter.doFilter(new MockHttpServletRequest("GET", "/api/topicos"), new MockHttpServletResponse(), (req, res) -> {});
+        securityFilter.doFilter(requestConToken(tokenValido), new MockHttpServletResponse(), (req, res) -> {});
+        SecurityContextHolder.clearContext();
+        assertThrows(ExpiredJwtException.class, () ->
+                securityFilter.doFilter(requestConToken(tokenExpirado), new MockHttpServletResponse(), (req, res) -> {}));
+        assertThrows(MalformedJwtException.class, () ->
+                securityFilter.doFilter(requestConToken("no-es-un-jwt"), new MockHttpServletResponse(), (req, res) -> {}));
+
+        // then: Cada resultado se cuenta una vez y el filtro se mide en todas las requests
+        assertThat(resultado("ausente")).isEqualTo(1);
+        assertThat(resultado("valido")).isEqualTo(1);
+        assertThat(resultado("expirado")).isEqualTo(1);
+        assertThat(resultado("malformado")).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.filter").timer().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("auth.token.verify").timer().count()).isEqualTo(3);
+    }
+
+    @DisplayName("Test - Autenticar en modo claims solo los tokens con la versión vigente del usuario")
+    @Test
+    void modoClaimsConVersionDeToken() throws Exception {
+        // given: Un TokenVersionService real y un token emitido con la versión 0 del usuario
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        given(usuarioRepository.obtenerTokenVersionPorId(1L)).willReturn(Optional.of(0));
+        TokenVersionService tokenVersionService = new TokenVersionService();
+        ReflectionTestUtils.setField(tokenVersionService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(tokenVersionService, "CACHE_MAXIMUM_SIZE", 100L);
+        ReflectionTestUtils.setField(tokenVersionService, "CACHE_TTL_SECONDS", 3600L);
+        tokenVersionService.inicializarCache();
+        ReflectionTestUtils.setField(securityFilter, "tokenVersionService", tokenVersionService);
+
+        Usuario usuario = Usuario.builder().id(1L).email("usuario@foro.com").userRole(Perfil.DOCENTE).build();
+        String tokenAnterior = jwtService.generateToken(usuario);
+        assertThat(autenticada(tokenAnterior)).isTrue();
+
+        // when: El usuario cambia la contraseña y se registra la versión 1
+        tokenVersionService.actualizarVersion(1L, 1);
+        String tokenNuevo = jwtService.generateToken(Usuario.builder()
+                .id(1L).email("usuario@foro.com").userRole(Perfil.DOCENTE).tokenVersion(1).build());
+
+        // then: El token anterior se rechaza de inmediato y el nuevo autentica la request con los datos de sus claims
+        assertThat(autenticada(tokenAnterior)).isFalse();
+        assertThat(autenticada(tokenNuevo)).isTrue();
+        assertThat(resultado("valido")).isEqualTo(2);
+        assertThat(resultado("rechazado")).isEqualTo(1);
+    }
+
+    // Procesa una request con el token y retorna si llegó autenticada al resto de la cadena
+    private boolean autenticada(String token) throws Exception {
+        AtomicInteger autenticadas = new AtomicInteger();
+        try {
+            securityFilter.doFilter(requestConToken(token), new MockHttpServletResponse(), (req, res) -> {
+                if (SecurityContextHolder.getContext().getAuthentication() != null
+                        && ContextoAutenticacionHolder.actual().userId() == 1L
+                        && securityFilter.isDocente()) {
+                    autenticadas.incrementAndGet();
+                }
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return autenticadas.get() == 1;
+    }
+
+    private MockHttpServletRequest requestConToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/topicos");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private double resultado(String resultado) {
+        return meterRegistry.get("auth.token.resultado").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.anbeld.ForoHub.infra.security;
+
+import com.github.anbeld.ForoHub.domain.usuario.Perfil;
+import com.github.anbeld.ForoHub.domain.usuario.Usuario;
+import com.github.anbeld.ForoHub.domain.usuario.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TokenVersionServiceTest {
+
+    private TokenVersionService tokenVersionService;
+
+    private UsuarioRepository usuarioRepository;
+
+    private JWTService jwtService;
+
+    // Configurar el servicio con un TTL largo: los tests no deben depender de la expiración de las entradas
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        tokenVersionService = new TokenVersionService();
+        ReflectionTestUtils.setField(tokenVersionService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(tokenVersionService, "CACHE_MAXIMUM_SIZE", 100L);
+        ReflectionTestUtils.setField(tokenVersionService, "CACHE_TTL_SECONDS", 3600L);
+        tokenVersionService.inicializarCache();
+
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY_STRING",
+                Base64.getEncoder().encodeToString("clave-de-prueba-de-32-bytes-....".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "ACCESS_EXPIRATION_MINUTES", 15L);
+        ReflectionTestUtils.setField(jwtService, "CACHE_MAXIMUM_SIZE", 100L);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "ALGORITMO", "HS256");
+        ReflectionTestUtils.setField(jwtService, "KID", "principal");
+        jwtService.inicializar();
+    }
+
+    @DisplayName("Test - Rechazar un token emitido con una versión anterior a la registrada")
+    @Test
+    void rechazarVersionAnterior() {
+        // given: El usuario cambió su contraseña y su versión registrada es 2
+        given(usuarioRepository.obtenerTokenVersionPorId(1L)).willReturn(Optional.of(2));
+
+        // when - then: Solo el token emitido con la versión vigente es válido
+        assertThat(tokenVersionService.esVigente(token(1))).isFalse();
+        assertThat(tokenVersionService.esVigente(token(2))).isTrue();
+        verify(usuarioRepository, times(1)).obtenerTokenVersionPorId(1L);
+    }
+
+    @DisplayName("Test - Aplicar la nueva versión de inmediato, sin esperar la expiración de la cache")
+    @Test
+    void actualizarVersionInmediata() {
+        // given: La versión 0 del usuario se encuentra en la cache
+        given(usuarioRepository.obtenerTokenVersionPorId(1L)).willReturn(Optional.of(0));
+        DatosTokenVerificado tokenAnterior = token(0);
+        assertThat(tokenVersionService.esVigente(tokenAnterior)).isTrue();
+
+        // when: Se registra la nueva versión tras un cambio de credenciales
+        tokenVersionService.actualizarVersion(1L, 1);
+
+        // then: El token anterior se rechaza sin volver a consultar la base de datos
+        assertThat(tokenVersionService.esVigente(tokenAnterior)).isFalse();
+        assertThat(tokenVersionService.esVigente(token(1))).isTrue();
+        verify(usuarioRepository, times(1)).obtenerTokenVersionPorId(1L);
+    }
+
+    @DisplayName("Test - Rechazar tokens sin id de usuario o de un usuario inexistente")
+    @Test
+    void rechazarTokenSinUsuario() {
+        // given: Un token sin claims de usuario y un usuario que ya no existe
+        given(usuarioRepository.obtenerTokenVersionPorId(1L)).willReturn(Optional.empty());
+        DatosTokenVerificado tokenSinClaims = jwtService.verificarToken(jwtService.generateToken(Usuario.builder()
+                .email("maria.docente@foro.com")
+                .userRole(Perfil.DOCENTE)
+                .build()));
+
+        // when - then: Ninguno de los dos es vigente
+        assertThat(tokenVersionService.esVigente(tokenSinClaims)).isFalse();
+        assertThat(tokenVersionService.esVigente(token(0))).isFalse();
+    }
+
+    private DatosTokenVerificado token(int tokenVersion) {
+        Usuario usuario = Usuario.builder()
+                .id(1L)
+                .email("maria.docente@foro.com")
+                .userRole(Perfil.DOCENTE)
+                .tokenVersion(tokenVersion)
+                .build();
+        return jwtService.verificarToken(jwtService.generateToken(usuario));
+    }
+}